@@ -7,6 +7,7 @@ plugins {
     spotless(GRADLE)
     spotless(JAVA)
     alias(libs.plugins.jreleaser)
+    alias(libs.plugins.jmh)
 }
 
 group = "team.idealstate.sugar"
@@ -51,6 +52,10 @@ dependencies {
     testAnnotationProcessor(libs.lombok)
 }
 
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+}
+
 publishing {
     repositories {
         project(project)
@@ -0,0 +1,84 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.idealstate.sugar.next.calculate.Expression;
+import team.idealstate.sugar.next.calculate.ExpressionFunction;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBatchBenchmark {
+
+    private static final String FORMULA = "(attack * 2 + bonus - armor / 3) * level % 97 + (level >= 10) * 5";
+    private static final int ROWS = 100_000;
+
+    private final double[][] columns = new double[4][ROWS];
+    private final double[] out = new double[ROWS];
+    private Expression expression;
+    private ExpressionFunction function;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ROWS; i++) {
+            columns[0][i] = 100 + i % 50;
+            columns[1][i] = i % 35;
+            columns[2][i] = 40 + i % 17;
+            columns[3][i] = i % 20;
+        }
+        expression = new Expression(FORMULA).compile();
+        function = expression.toFunction();
+    }
+
+    @Benchmark
+    public double[] functionRows() {
+        double[] row = new double[4];
+        for (int i = 0; i < ROWS; i++) {
+            for (int j = 0; j < row.length; j++) {
+                row[j] = columns[j][i];
+            }
+            out[i] = function.applyAsDouble(row);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] batch() {
+        expression.evaluateBatch(columns, out);
+        return out;
+    }
+
+    @Benchmark
+    public double[] batchParallel() {
+        expression.evaluateBatch(columns, 0, ROWS, out, true);
+        return out;
+    }
+}
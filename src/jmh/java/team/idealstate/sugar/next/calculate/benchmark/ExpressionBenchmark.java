@@ -0,0 +1,74 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import team.idealstate.sugar.next.calculate.EvaluationContext;
+import team.idealstate.sugar.next.calculate.Expression;
+import team.idealstate.sugar.next.calculate.NumericMode;
+import team.idealstate.sugar.next.calculate.Operator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpressionBenchmark {
+
+    private static final String FORMULA = "(attack * 2 + bonus - armor / 3) * level % 97 + (level >= 10) * 5";
+
+    @Param({"DOUBLE", "LONG", "EXACT"})
+    private NumericMode mode;
+
+    private final Map<String, Number> context = new HashMap<>();
+    private final EvaluationContext evaluationContext = new EvaluationContext();
+    private Expression expression;
+
+    @Setup
+    public void setup() {
+        context.put("attack", 120);
+        context.put("bonus", 35);
+        context.put("armor", 48);
+        context.put("level", 12);
+        expression = new Expression(FORMULA, Arrays.asList(Operator.values()), mode).compile();
+    }
+
+    @Benchmark
+    public Number calculate() {
+        return expression.calculate(context);
+    }
+
+    @Benchmark
+    public Number calculateWithContext() {
+        return expression.calculate(context, evaluationContext);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import team.idealstate.sugar.next.eventbus.Event;
+import team.idealstate.sugar.next.eventbus.EventBus;
+import team.idealstate.sugar.next.eventbus.EventState;
+import team.idealstate.sugar.next.eventbus.EventSubscriber;
+import team.idealstate.sugar.next.eventbus.Order;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1", "10", "100"})
+    private int subscribers;
+
+    private final EventBus eventBus = EventBus.instance();
+    private final List<EventSubscriber<?>> subscribed = new ArrayList<>();
+    private final TickEvent event = new TickEvent();
+    private final List<TickEvent> events = new ArrayList<>(BATCH_SIZE);
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < subscribers; i++) {
+            TickSubscriber subscriber = new TickSubscriber(subscribers - i);
+            eventBus.subscribe(TickEvent.class, subscriber);
+            subscribed.add(subscriber);
+        }
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            events.add(new TickEvent());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (EventSubscriber<?> subscriber : subscribed) {
+            eventBus.unsubscribe(subscriber);
+        }
+        subscribed.clear();
+        events.clear();
+    }
+
+    @Benchmark
+    public EventState publish() {
+        return eventBus.publish(event);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void publishEach(Blackhole blackhole) {
+        for (TickEvent event : events) {
+            blackhole.consume(eventBus.publish(event));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<EventState> publishAll() {
+        return eventBus.publishAll(events);
+    }
+
+    public static class TickEvent implements Event {
+        private long ticks;
+    }
+
+    private static final class TickSubscriber implements EventSubscriber<TickEvent>, Order {
+        private final int order;
+
+        private TickSubscriber(int order) {
+            this.order = order;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public void onEvent(TickEvent event) {
+            event.ticks++;
+        }
+    }
+}
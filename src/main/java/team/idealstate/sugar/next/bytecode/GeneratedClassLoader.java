@@ -0,0 +1,58 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.bytecode;
+
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/**
+ * 用于定义运行时生成的类。
+ *
+ * <p>优先从父类加载器解析依赖，找不到时再回退到本库的类加载器，以便生成的类能同时引用业务类与本库的类。
+ */
+public final class GeneratedClassLoader extends ClassLoader {
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final ClassLoader libraryClassLoader = GeneratedClassLoader.class.getClassLoader();
+
+    public GeneratedClassLoader(@Nullable ClassLoader parent) {
+        super(parent);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        try {
+            return super.loadClass(name, resolve);
+        } catch (ClassNotFoundException e) {
+            if (libraryClassLoader == null || libraryClassLoader == getParent()) {
+                throw e;
+            }
+            return libraryClassLoader.loadClass(name);
+        }
+    }
+
+    @NotNull
+    public Class<?> define(@NotNull String name, @NotNull byte[] bytecode) {
+        Validation.notNullOrBlank(name, "name must not be null or blank.");
+        Validation.notNull(bytecode, "bytecode must not be null.");
+        return defineClass(name, bytecode, 0, bytecode.length);
+    }
+}
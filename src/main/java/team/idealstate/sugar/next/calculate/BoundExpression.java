@@ -0,0 +1,194 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+import team.idealstate.sugar.next.calculate.exception.ExpressionCalculationException;
+import team.idealstate.sugar.next.calculate.exception.ExpressionException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 变量已绑定到槽位的表达式，由 {@link Expression#bind(String...)} 创建。
+ *
+ * <p>变量按预先计算的槽位下标取值，计算时不再查找变量名，实例不可变且可在线程间共享。
+ */
+@Getter
+@ToString(onlyExplicitlyIncluded = true)
+public final class BoundExpression {
+
+    @ToString.Include
+    private final String expression;
+
+    /** 各槽位对应的变量名 */
+    @ToString.Include
+    private final List<String> names;
+
+    @ToString.Include
+    private final NumericMode numericMode;
+
+    @Getter(AccessLevel.NONE)
+    private final Program program;
+
+    @Getter(AccessLevel.NONE)
+    private final Object lock = new Object();
+
+    @Getter(AccessLevel.NONE)
+    private volatile ExpressionFunction function;
+
+    BoundExpression(
+            @NotNull String expression,
+            @NotNull String[] names,
+            @NotNull NumericMode numericMode,
+            @NotNull Program program) {
+        this.expression = expression;
+        this.names = Collections.unmodifiableList(Arrays.asList(names.clone()));
+        this.numericMode = numericMode;
+        this.program = program.bind(expression, names);
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 计算
+     *
+     * @param slots 按槽位排列的变量值
+     */
+    public double evaluate(@NotNull double[] slots) {
+        validateSlots(slots.length);
+        return program.evaluateDouble(slots);
+    }
+
+    /**
+     * 以 {@link NumericMode#LONG} 计算
+     *
+     * @param slots 按槽位排列的变量值
+     * @throws ExpressionException
+     */
+    public long evaluate(@NotNull long[] slots) throws ExpressionException {
+        validateSlots(slots.length);
+        try {
+            return program.evaluateLong(slots);
+        } catch (ArithmeticException e) {
+            throw new ExpressionCalculationException(expression, e);
+        }
+    }
+
+    /**
+     * 以 {@link #getNumericMode()} 计算
+     *
+     * @param slots 按槽位排列的变量值
+     * @throws ExpressionException
+     */
+    @NotNull
+    public Number evaluate(@NotNull Number... slots) throws ExpressionException {
+        validateSlots(slots.length);
+        for (int i = 0; i < names.size(); i++) {
+            if (slots[i] == null) {
+                throw new ExpressionCalculationException(
+                        expression, "Invalid variable value! (" + names.get(i) + "=null)");
+            }
+        }
+        EvaluationContext context = EvaluationContext.local();
+        context.enter();
+        try {
+            switch (numericMode) {
+                case DOUBLE:
+                    double[] doubles = context.doubleValues(names.size());
+                    for (int i = 0; i < names.size(); i++) {
+                        doubles[i] = slots[i].doubleValue();
+                    }
+                    return program.evaluateDouble(doubles, context);
+                case LONG:
+                    long[] longs = context.longValues(names.size());
+                    for (int i = 0; i < names.size(); i++) {
+                        longs[i] = slots[i].longValue();
+                    }
+                    return program.evaluateLong(longs, context);
+                default:
+                    return program.evaluateExact(slots, context);
+            }
+        } catch (ArithmeticException e) {
+            throw new ExpressionCalculationException(expression, e);
+        } finally {
+            context.exit();
+        }
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 批量计算 {@code out.length} 行
+     *
+     * @param columns 按槽位排列的变量列，每列对应一个变量的各行取值
+     * @param out 各行的计算结果
+     */
+    public void evaluateBatch(@NotNull double[][] columns, @NotNull double[] out) {
+        Validation.notNull(out, "out must not be null.");
+        evaluateBatch(columns, 0, out.length, out, false);
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 批量计算 {@code [offset, offset + length)} 范围内的各行
+     *
+     * @param columns 按槽位排列的变量列，每列对应一个变量的各行取值
+     * @param out 各行的计算结果，写入与输入相同的位置
+     */
+    public void evaluateBatch(@NotNull double[][] columns, int offset, int length, @NotNull double[] out) {
+        evaluateBatch(columns, offset, length, out, false);
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 批量计算 {@code [offset, offset + length)} 范围内的各行。
+     *
+     * <p>每个运算符在整段数据上以紧凑的循环执行，{@code parallel} 为 true 时较大的批次将拆分到
+     * {@link ForkJoinPool#commonPool()} 中计算。
+     *
+     * @param columns 按槽位排列的变量列，每列对应一个变量的各行取值
+     * @param out 各行的计算结果，写入与输入相同的位置
+     */
+    public void evaluateBatch(
+            @NotNull double[][] columns, int offset, int length, @NotNull double[] out, boolean parallel) {
+        program.evaluateBatch(columns, offset, length, out, parallel);
+    }
+
+    /** @return 按槽位传入变量值的字节码函数，只生成一次 */
+    @NotNull
+    public ExpressionFunction toFunction() {
+        ExpressionFunction function = this.function;
+        if (function != null) {
+            return function;
+        }
+        synchronized (lock) {
+            function = this.function;
+            if (function == null) {
+                function = ExpressionFunctionGenerator.generate(expression, program);
+                this.function = function;
+            }
+        }
+        return function;
+    }
+
+    private void validateSlots(int length) {
+        if (length < names.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Expected %s slots but got %s. (%s)", names.size(), length, expression));
+        }
+    }
+}
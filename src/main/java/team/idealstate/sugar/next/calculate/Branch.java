@@ -0,0 +1,28 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+/**
+ * 后缀表达式中 {@code cond ? a : b} 的分支标记，依次出现为 {@code cond IF a ELSE b END}。
+ *
+ * <p>条件大于 0 时为真，与 {@link Expression#isTrue(java.util.Map)} 一致；未选中的分支不会被计算。
+ */
+enum Branch {
+    IF,
+    ELSE,
+    END
+}
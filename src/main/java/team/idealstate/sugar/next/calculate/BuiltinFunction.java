@@ -0,0 +1,147 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import lombok.Getter;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 内置函数，生成字节码时尽量内联为 {@link Math} 的调用 */
+@Getter
+enum BuiltinFunction implements MathFunction {
+    MIN("min", 1, VARIADIC),
+    MAX("max", 1, VARIADIC),
+    ABS("abs", 1, 1),
+    /** {@code clamp(value, min, max)} */
+    CLAMP("clamp", 3, 3),
+    FLOOR("floor", 1, 1),
+    CEIL("ceil", 1, 1),
+    /** 按 {@link Operator#ROUNDING_MODE} 舍入到整数 */
+    ROUND("round", 1, 1),
+    /** long 模式下向下取整，精确模式下以 double 计算 */
+    SQRT("sqrt", 1, 1);
+
+    private final String name;
+    private final int minArity;
+    private final int maxArity;
+
+    BuiltinFunction(String name, int minArity, int maxArity) {
+        this.name = name;
+        this.minArity = minArity;
+        this.maxArity = maxArity;
+    }
+
+    @Override
+    public double applyAsDouble(@NotNull double[] arguments) {
+        double first = arguments[0];
+        switch (this) {
+            case MIN:
+                for (int i = 1; i < arguments.length; i++) {
+                    first = Math.min(first, arguments[i]);
+                }
+                return first;
+            case MAX:
+                for (int i = 1; i < arguments.length; i++) {
+                    first = Math.max(first, arguments[i]);
+                }
+                return first;
+            case ABS:
+                return Math.abs(first);
+            case CLAMP:
+                return Math.min(Math.max(first, arguments[1]), arguments[2]);
+            case FLOOR:
+                return Math.floor(first);
+            case CEIL:
+                return Math.ceil(first);
+            case ROUND:
+                double magnitude = Math.abs(first);
+                double floor = Math.floor(magnitude);
+                return Math.copySign(magnitude - floor >= 0.5 ? floor + 1 : floor, first);
+            case SQRT:
+                return Math.sqrt(first);
+            default:
+                throw new IllegalArgumentException("Unknown function: " + this);
+        }
+    }
+
+    @Override
+    public long applyAsLong(@NotNull long[] arguments) {
+        long first = arguments[0];
+        switch (this) {
+            case MIN:
+                for (int i = 1; i < arguments.length; i++) {
+                    first = Math.min(first, arguments[i]);
+                }
+                return first;
+            case MAX:
+                for (int i = 1; i < arguments.length; i++) {
+                    first = Math.max(first, arguments[i]);
+                }
+                return first;
+            case ABS:
+                return Math.abs(first);
+            case CLAMP:
+                return Math.min(Math.max(first, arguments[1]), arguments[2]);
+            case FLOOR:
+            case CEIL:
+            case ROUND:
+                return first;
+            case SQRT:
+                return (long) Math.sqrt(first);
+            default:
+                throw new IllegalArgumentException("Unknown function: " + this);
+        }
+    }
+
+    @NotNull
+    @Override
+    public Number apply(@NotNull Number[] arguments) {
+        BigDecimal first = Operator.asBigDecimal(arguments[0]);
+        switch (this) {
+            case MIN:
+                for (int i = 1; i < arguments.length; i++) {
+                    first = first.min(Operator.asBigDecimal(arguments[i]));
+                }
+                return first;
+            case MAX:
+                for (int i = 1; i < arguments.length; i++) {
+                    first = first.max(Operator.asBigDecimal(arguments[i]));
+                }
+                return first;
+            case ABS:
+                return first.abs();
+            case CLAMP:
+                return first.max(Operator.asBigDecimal(arguments[1])).min(Operator.asBigDecimal(arguments[2]));
+            case FLOOR:
+                return first.setScale(0, RoundingMode.FLOOR);
+            case CEIL:
+                return first.setScale(0, RoundingMode.CEILING);
+            case ROUND:
+                return first.setScale(0, Operator.ROUNDING_MODE);
+            case SQRT:
+                return MathFunction.super.apply(arguments);
+            default:
+                throw new IllegalArgumentException("Unknown function: " + this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
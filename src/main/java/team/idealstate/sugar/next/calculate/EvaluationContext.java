@@ -0,0 +1,155 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.Arrays;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 表达式求值时复用的操作数栈、变量值与函数参数数组，容量按需增长后不再分配。
+ *
+ * <p>同一实例同一时刻只能用于一次求值，可由调用方按线程持有；未指定时使用线程本地的实例，
+ * 求值过程中函数再次计算表达式时改用临时实例。
+ */
+public final class EvaluationContext {
+
+    private static final ThreadLocal<EvaluationContext> LOCAL = ThreadLocal.withInitial(EvaluationContext::new);
+    private static final double[] EMPTY_DOUBLES = new double[0];
+    private static final long[] EMPTY_LONGS = new long[0];
+    private static final Number[] EMPTY_NUMBERS = new Number[0];
+
+    private double[] doubleStack = EMPTY_DOUBLES;
+    private long[] longStack = EMPTY_LONGS;
+    private Number[] exactStack = EMPTY_NUMBERS;
+    private double[] doubleValues = EMPTY_DOUBLES;
+    private long[] longValues = EMPTY_LONGS;
+    private Number[] exactValues = EMPTY_NUMBERS;
+    /** 按参数数量索引的函数参数数组 */
+    private double[][] doubleArguments = new double[0][];
+
+    private long[][] longArguments = new long[0][];
+    private Number[][] exactArguments = new Number[0][];
+    private boolean entered = false;
+
+    /** @return 当前线程空闲的实例 */
+    @NotNull
+    static EvaluationContext local() {
+        EvaluationContext context = LOCAL.get();
+        return context.entered ? new EvaluationContext() : context;
+    }
+
+    void enter() {
+        if (entered) {
+            throw new IllegalStateException("EvaluationContext is already in use.");
+        }
+        entered = true;
+    }
+
+    void exit() {
+        entered = false;
+    }
+
+    @NotNull
+    double[] doubleStack(int depth) {
+        if (doubleStack.length < depth) {
+            doubleStack = new double[depth];
+        }
+        return doubleStack;
+    }
+
+    @NotNull
+    long[] longStack(int depth) {
+        if (longStack.length < depth) {
+            longStack = new long[depth];
+        }
+        return longStack;
+    }
+
+    @NotNull
+    Number[] exactStack(int depth) {
+        if (exactStack.length < depth) {
+            exactStack = new Number[depth];
+        }
+        return exactStack;
+    }
+
+    @NotNull
+    double[] doubleValues(int length) {
+        if (doubleValues.length < length) {
+            doubleValues = new double[length];
+        }
+        return doubleValues;
+    }
+
+    @NotNull
+    long[] longValues(int length) {
+        if (longValues.length < length) {
+            longValues = new long[length];
+        }
+        return longValues;
+    }
+
+    @NotNull
+    Number[] exactValues(int length) {
+        if (exactValues.length < length) {
+            exactValues = new Number[length];
+        }
+        return exactValues;
+    }
+
+    /** @return 长度恰为 {@code arity} 的数组 */
+    @NotNull
+    double[] doubleArguments(int arity) {
+        if (doubleArguments.length <= arity) {
+            doubleArguments = Arrays.copyOf(doubleArguments, arity + 1);
+        }
+        double[] arguments = doubleArguments[arity];
+        if (arguments == null) {
+            arguments = new double[arity];
+            doubleArguments[arity] = arguments;
+        }
+        return arguments;
+    }
+
+    /** @return 长度恰为 {@code arity} 的数组 */
+    @NotNull
+    long[] longArguments(int arity) {
+        if (longArguments.length <= arity) {
+            longArguments = Arrays.copyOf(longArguments, arity + 1);
+        }
+        long[] arguments = longArguments[arity];
+        if (arguments == null) {
+            arguments = new long[arity];
+            longArguments[arity] = arguments;
+        }
+        return arguments;
+    }
+
+    /** @return 长度恰为 {@code arity} 的数组 */
+    @NotNull
+    Number[] exactArguments(int arity) {
+        if (exactArguments.length <= arity) {
+            exactArguments = Arrays.copyOf(exactArguments, arity + 1);
+        }
+        Number[] arguments = exactArguments[arity];
+        if (arguments == null) {
+            arguments = new Number[arity];
+            exactArguments[arity] = arguments;
+        }
+        return arguments;
+    }
+}
@@ -28,7 +28,6 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -44,23 +43,71 @@ import team.idealstate.sugar.validate.annotation.NotNull;
 public final class Expression implements Cloneable {
     private static final char MINUS_SIGN = '-';
     private static final char DECIMAL_POINT = '.';
+    private static final char LEFT_PARENTHESIS = Parentheses.LEFT.getSymbol().charAt(0);
+    private static final char RIGHT_PARENTHESIS = Parentheses.RIGHT.getSymbol().charAt(0);
+    private static final char ARGUMENT_SEPARATOR = ',';
+    private static final char CONDITION = '?';
+    private static final char OTHERWISE = ':';
 
     @Getter
     private final String expression;
 
     private final Map<String, Operator> operatorTable;
+
+    @Getter
+    private final NumericMode numericMode;
+
+    @Getter
+    @ToString.Exclude
+    private final FunctionRegistry functionRegistry;
+
     private final transient Object lock = new Object();
     private transient volatile List<Object> compiled;
+    private transient volatile Program program;
+    private transient volatile ExpressionFunction function;
 
     public Expression(String expression) {
         this(expression, Arrays.asList(Operator.values()));
     }
 
     public Expression(String expression, Collection<? extends Operator> operators) {
+        this(expression, operators, NumericMode.EXACT);
+    }
+
+    /** @param numericMode {@link #calculate(Map)} 所使用的数值模式 */
+    public Expression(String expression, Collection<? extends Operator> operators, @NotNull NumericMode numericMode) {
+        this(expression, operators, numericMode, FunctionRegistry.DEFAULT);
+    }
+
+    /**
+     * @param numericMode {@link #calculate(Map)} 所使用的数值模式
+     * @param functionRegistry 编译时从中解析 {@code name(a, b, ...)} 调用的函数
+     */
+    public Expression(
+            String expression,
+            Collection<? extends Operator> operators,
+            @NotNull NumericMode numericMode,
+            @NotNull FunctionRegistry functionRegistry) {
         validateExpression(expression);
+        Validation.notNull(numericMode, "numericMode must not be null.");
+        Validation.notNull(functionRegistry, "functionRegistry must not be null.");
         this.expression = expression;
         this.operatorTable = new LinkedHashMap<>(operators.size());
         operators.forEach(operator -> operatorTable.put(operator.getSymbol(), operator));
+        this.numericMode = numericMode;
+        this.functionRegistry = functionRegistry;
+    }
+
+    /**
+     * 从 {@link ExpressionCache#DEFAULT} 中获取已编译的表达式，相同的文本与运算符集合共享同一个实例
+     *
+     * @throws ExpressionSyntaxException
+     */
+    @NotNull
+    public static Expression compileCached(
+            @NotNull String expression, @NotNull Collection<? extends Operator> operators)
+            throws ExpressionSyntaxException {
+        return ExpressionCache.DEFAULT.get(expression, operators);
     }
 
     private static void validateExpression(String expression) {
@@ -74,7 +121,10 @@ public final class Expression implements Cloneable {
     }
 
     /**
-     * 编译表达式
+     * 编译表达式，并折叠常量子树、移除恒等运算。
+     *
+     * <p>除运算符与括号外还支持 {@code name(a, b, ...)} 形式的函数调用，以及优先级最低、右结合的 {@code cond ? a : b}，
+     * 其中条件大于 0 时为真，未选中的分支不会被计算。
      *
      * @return this
      * @throws ExpressionSyntaxException
@@ -90,7 +140,7 @@ public final class Expression implements Cloneable {
             final int length = expression.length();
             Deque<Object> operationStack = new ArrayDeque<>(length);
             Deque<Symbol> symbolStack = new ArrayDeque<>(length);
-            StringBuilder symbolBuilder = new StringBuilder(length);
+            OperatorTrie operatorTrie = new OperatorTrie(operatorTable.values());
             StringBuilder numberBuilder = new StringBuilder(length);
             StringBuilder variableBuilder = new StringBuilder(length);
             int line = 0;
@@ -98,6 +148,7 @@ public final class Expression implements Cloneable {
             int lastPriority = Operator.MIN_PRIORITY;
             boolean allowMinusSign = true;
             boolean isDecimal = false;
+            int openParentheses = 0;
             for (int i = 0; i < length; i++) {
                 char current = expression.charAt(i);
                 if (current == '\n') {
@@ -137,19 +188,27 @@ public final class Expression implements Cloneable {
                     column++;
                     continue;
                 }
-                symbolBuilder.append(current);
-                String symbolStr = symbolBuilder.toString();
-                if (Parentheses.LEFT.isSymbol(symbolStr)) {
-                    symbolBuilder.setLength(0);
-                    symbolStack.push(Parentheses.LEFT);
+                if (current == LEFT_PARENTHESIS) {
+                    if (variableBuilder.length() > 0) {
+                        String name = variableBuilder.toString();
+                        variableBuilder.setLength(0);
+                        MathFunction function = functionRegistry.get(name);
+                        if (function == null) {
+                            throw new ExpressionSyntaxException(
+                                    expression, line, column, String.format("Unknown function '%s'!", name));
+                        }
+                        symbolStack.push(new CallFrame(function, operationStack.size()));
+                    } else {
+                        symbolStack.push(Parentheses.LEFT);
+                    }
+                    openParentheses++;
                     lastPriority = Operator.MIN_PRIORITY;
                     allowMinusSign = true;
                     column++;
                     continue;
                 }
-                if (Parentheses.RIGHT.isSymbol(symbolStr)) {
-                    symbolBuilder.setLength(0);
-                    if (symbolStack.isEmpty() || !symbolStack.contains(Parentheses.LEFT)) {
+                if (current == RIGHT_PARENTHESIS) {
+                    if (openParentheses == 0) {
                         throw new ExpressionSyntaxException(
                                 expression,
                                 line,
@@ -162,31 +221,60 @@ public final class Expression implements Cloneable {
                     if (numericVariable != null) {
                         operationStack.push(numericVariable);
                     }
-                    do {
-                        Symbol symbol = symbolStack.pop();
-                        if (symbol instanceof Operator) {
-                            operationStack.push(symbol);
-                            continue;
-                        }
-                        if (Parentheses.LEFT.equals(symbol)) {
-                            Symbol lastOperator = symbolStack.peek();
-                            if (lastOperator == null || Parentheses.LEFT.equals(lastOperator)) {
-                                lastPriority = Operator.MIN_PRIORITY;
-                                break;
-                            }
-                            if (lastOperator instanceof Operator) {
-                                lastPriority = ((Operator) lastOperator).getPriority();
-                                break;
-                            }
-                        }
+                    Symbol frame = popOperators(symbolStack, operationStack, true, line, column);
+                    if (frame instanceof CallFrame) {
+                        operationStack.push(((CallFrame) frame).complete(operationStack.size(), line, column));
+                    } else if (!Parentheses.LEFT.equals(frame)) {
                         throw new ExpressionSyntaxException(expression, line, column, "Invalid operator!");
-                    } while (!symbolStack.isEmpty());
+                    }
+                    symbolStack.pop();
+                    openParentheses--;
+                    Symbol lastOperator = symbolStack.peek();
+                    lastPriority = lastOperator instanceof Operator
+                            ? ((Operator) lastOperator).getPriority()
+                            : Operator.MIN_PRIORITY;
                     allowMinusSign = false;
                     column++;
                     continue;
                 }
+                if (current == ARGUMENT_SEPARATOR || current == CONDITION || current == OTHERWISE) {
+                    Object numericVariable =
+                            makeNumericVariable(numberBuilder, variableBuilder, line, column, isDecimal, true);
+                    isDecimal = false;
+                    if (numericVariable != null) {
+                        operationStack.push(numericVariable);
+                    }
+                    if (current == CONDITION) {
+                        popOperators(symbolStack, operationStack, false, line, column);
+                        operationStack.push(Branch.IF);
+                        symbolStack.push(new ConditionalFrame());
+                    } else {
+                        Symbol frame = popOperators(
+                                symbolStack, operationStack, current == ARGUMENT_SEPARATOR, line, column);
+                        // then 分支中嵌套的条件表达式已完整，先结束后再选择外层尚在 then 分支的条件表达式
+                        while (current == OTHERWISE
+                                && frame instanceof ConditionalFrame
+                                && ((ConditionalFrame) frame).otherwise) {
+                            symbolStack.pop();
+                            operationStack.push(Branch.END);
+                            frame = popOperators(symbolStack, operationStack, false, line, column);
+                        }
+                        if (current == OTHERWISE && frame instanceof ConditionalFrame) {
+                            ((ConditionalFrame) frame).otherwise = true;
+                            operationStack.push(Branch.ELSE);
+                        } else if (current == ARGUMENT_SEPARATOR && frame instanceof CallFrame) {
+                            ((CallFrame) frame).separate(operationStack.size(), line, column);
+                        } else {
+                            throw new ExpressionSyntaxException(
+                                    expression, line, column, String.format("Invalid symbol '%s'!", current));
+                        }
+                    }
+                    lastPriority = Operator.MIN_PRIORITY;
+                    allowMinusSign = true;
+                    column++;
+                    continue;
+                }
                 if (Variable.isNameContent(current)) {
-                    symbolBuilder.setLength(0);
                     if (numberBuilder.length() > 0) {
                         throw new ExpressionSyntaxException(expression, line, column, "Invalid number!");
                     }
@@ -198,24 +286,21 @@ public final class Expression implements Cloneable {
                     column++;
                     continue;
                 }
-                if (Operator.KEYWORDS.contains(current)) {
-                    for (int j = i + 1; j < length; j++) {
-                        char c = expression.charAt(j);
-                        if (Operator.KEYWORDS.contains(c)) {
-                            symbolBuilder.append(c);
-                            i = j;
-                        } else {
-                            break;
-                        }
+                int symbolEnd = i + 1;
+                if (OperatorTrie.isKeyword(current)) {
+                    while (symbolEnd < length && OperatorTrie.isKeyword(expression.charAt(symbolEnd))) {
+                        symbolEnd++;
                     }
                 }
-                symbolStr = symbolBuilder.toString();
-                symbolBuilder.setLength(0);
-                Operator operator = operatorTable.get(symbolStr);
+                Operator operator = operatorTrie.get(expression, i, symbolEnd);
                 if (operator == null) {
                     throw new ExpressionSyntaxException(
-                            expression, line, column, String.format("Invalid operator '%s'!", symbolStr));
+                            expression,
+                            line,
+                            column,
+                            String.format("Invalid operator '%s'!", expression.substring(i, symbolEnd)));
                 }
+                i = symbolEnd - 1;
                 Object numericVariable =
                         makeNumericVariable(numberBuilder, variableBuilder, line, column, isDecimal, true);
                 isDecimal = false;
@@ -228,7 +313,7 @@ public final class Expression implements Cloneable {
                     if (symbol instanceof Operator) {
                         operationStack.push(symbol);
                         Symbol lastOperator = symbolStack.peek();
-                        if (lastOperator == null) {
+                        if (!(lastOperator instanceof Operator)) {
                             //                            // 冗余操作
                             //                            lastPriority = Operator.MIN_PRIORITY;
                             break;
@@ -246,11 +331,7 @@ public final class Expression implements Cloneable {
                 column++;
             }
             column--;
-            if (symbolBuilder.length() != 0) {
-                throw new ExpressionSyntaxException(
-                        expression, line, column, String.format("Invalid symbol '%s'!", symbolBuilder));
-            }
-            if (symbolStack.contains(Parentheses.LEFT)) {
+            if (openParentheses > 0) {
                 throw new ExpressionSyntaxException(
                         expression, line, column, String.format("Invalid symbol stack '%s'!", symbolStack));
             }
@@ -258,23 +339,24 @@ public final class Expression implements Cloneable {
             if (numericVariable != null) {
                 operationStack.push(numericVariable);
             }
-            for (Symbol symbol : symbolStack) {
-                operationStack.push(symbol);
-            }
-            symbolStack.clear();
+            popOperators(symbolStack, operationStack, true, line, column);
             if (operationStack.isEmpty()) {
                 throw new ExpressionSyntaxException(
                         expression, line, column, String.format("Invalid operation stack '%s'!", operationStack));
             }
-            int countNumericVariable = 0;
-            int countOperator = 0;
+            // 各记号对操作数栈深度的净影响之和
+            int depth = 0;
             Iterator<Object> iterator = operationStack.descendingIterator();
             while (iterator.hasNext()) {
                 Object symbol = iterator.next();
                 if (symbol instanceof Operator) {
-                    countOperator++;
+                    depth--;
                 } else if (symbol instanceof Variable || symbol instanceof Number) {
-                    countNumericVariable++;
+                    depth++;
+                } else if (symbol instanceof FunctionCall) {
+                    depth -= ((FunctionCall) symbol).getArity() - 1;
+                } else if (symbol instanceof Branch) {
+                    depth -= Branch.END.equals(symbol) ? 0 : 1;
                 } else {
                     throw new ExpressionSyntaxException(
                             expression, line, column, String.format("Invalid symbol '%s'!", symbol));
@@ -283,15 +365,157 @@ public final class Expression implements Cloneable {
 
             List<Object> result = new ArrayList<>(operationStack);
             Collections.reverse(result);
-            if (countNumericVariable != countOperator + 1) {
+            if (depth != 1) {
                 throw new ExpressionSyntaxException(
                         expression, line, column, String.format("Invalid operation stack '%s'!", result));
             }
+            result = ExpressionOptimizer.optimize(result, numericMode);
+            this.program = Program.of(expression, result, line, column);
             this.compiled = Collections.unmodifiableList(result);
         }
         return this;
     }
 
+    /**
+     * 将运算符依次弹出到后缀表达式中，直到遇到括号、函数调用或条件表达式
+     *
+     * @param closeConditionals 是否结束已进入 else 分支的条件表达式，结束前仍处于 then 分支时抛出异常
+     * @return 栈顶未弹出的符号
+     */
+    private Symbol popOperators(
+            Deque<Symbol> symbolStack,
+            Deque<Object> operationStack,
+            boolean closeConditionals,
+            int line,
+            int column) {
+        Symbol symbol;
+        while ((symbol = symbolStack.peek()) != null) {
+            if (symbol instanceof Operator) {
+                operationStack.push(symbolStack.pop());
+                continue;
+            }
+            if (closeConditionals && symbol instanceof ConditionalFrame) {
+                if (!((ConditionalFrame) symbol).otherwise) {
+                    throw new ExpressionSyntaxException(
+                            expression, line, column, String.format("Missing '%s'!", OTHERWISE));
+                }
+                symbolStack.pop();
+                operationStack.push(Branch.END);
+                continue;
+            }
+            break;
+        }
+        return symbol;
+    }
+
+    /**
+     * @return 按在表达式中首次出现的顺序排列的变量名，与 {@link #toFunction()} 的参数顺序一致
+     * @throws ExpressionSyntaxException
+     */
+    @NotNull
+    public List<String> getVariables() throws ExpressionSyntaxException {
+        compile();
+        return Collections.unmodifiableList(Arrays.asList(program.variables));
+    }
+
+    /**
+     * 用于调试，列出优化后的指令
+     *
+     * @return 表达式、数值模式、操作数栈的最大深度与逐行的指令
+     * @throws ExpressionSyntaxException
+     */
+    @NotNull
+    public String explain() throws ExpressionSyntaxException {
+        compile();
+        Program program = this.program;
+        return String.format(
+                "%s (%s, max depth %s)\n%s", expression, numericMode, program.maxDepth, program.explain());
+    }
+
+    /**
+     * 生成以 {@link NumericMode#DOUBLE} 计算的字节码函数，同一表达式只生成一次
+     *
+     * @return 变量按在表达式中首次出现的顺序传入的函数
+     * @throws ExpressionSyntaxException
+     */
+    @NotNull
+    public ExpressionFunction toFunction() throws ExpressionSyntaxException {
+        compile();
+        ExpressionFunction function = this.function;
+        if (function != null) {
+            return function;
+        }
+        synchronized (lock) {
+            function = this.function;
+            if (function == null) {
+                function = ExpressionFunctionGenerator.generate(expression, program);
+                this.function = function;
+            }
+        }
+        return function;
+    }
+
+    /**
+     * 将变量绑定到槽位
+     *
+     * @param names 各槽位对应的变量名，须包含表达式中的全部变量
+     * @return 按槽位下标取值的表达式
+     * @throws ExpressionException 存在未绑定的变量时
+     */
+    @NotNull
+    public BoundExpression bind(@NotNull String... names) throws ExpressionException {
+        Validation.notNull(names, "names must not be null.");
+        for (int i = 0; i < names.length; i++) {
+            Validation.notNull(names[i], "name must not be null.");
+            for (int j = 0; j < i; j++) {
+                Validation.is(!names[i].equals(names[j]), "names must not be duplicated.");
+            }
+        }
+        compile();
+        return new BoundExpression(expression, names, numericMode, program);
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 批量计算 {@code out.length} 行
+     *
+     * @param columns 按变量首次出现的顺序排列的变量列，每列对应一个变量的各行取值
+     * @param out 各行的计算结果
+     * @throws ExpressionException
+     */
+    public void evaluateBatch(@NotNull double[][] columns, @NotNull double[] out) throws ExpressionException {
+        Validation.notNull(out, "out must not be null.");
+        evaluateBatch(columns, 0, out.length, out, false);
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 批量计算 {@code [offset, offset + length)} 范围内的各行
+     *
+     * @param columns 按变量首次出现的顺序排列的变量列，每列对应一个变量的各行取值
+     * @param out 各行的计算结果，写入与输入相同的位置
+     * @throws ExpressionException
+     */
+    public void evaluateBatch(@NotNull double[][] columns, int offset, int length, @NotNull double[] out)
+            throws ExpressionException {
+        evaluateBatch(columns, offset, length, out, false);
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 批量计算 {@code [offset, offset + length)} 范围内的各行。
+     *
+     * <p>每个运算符在整段数据上以紧凑的循环执行，{@code parallel} 为 true 时较大的批次将拆分到
+     * {@link java.util.concurrent.ForkJoinPool#commonPool()} 中计算。
+     *
+     * @param columns 按变量首次出现的顺序排列的变量列，每列对应一个变量的各行取值
+     * @param out 各行的计算结果，写入与输入相同的位置
+     * @throws ExpressionException
+     */
+    public void evaluateBatch(
+            @NotNull double[][] columns, int offset, int length, @NotNull double[] out, boolean parallel)
+            throws ExpressionException {
+        compile();
+        program.evaluateBatch(columns, offset, length, out, parallel);
+    }
+
     private Object makeNumericVariable(
             StringBuilder numberBuilder, StringBuilder variableBuilder, int line, int column, boolean isDecimal) {
         return makeNumericVariable(numberBuilder, variableBuilder, line, column, isDecimal, false);
@@ -338,42 +562,131 @@ public final class Expression implements Cloneable {
      * 使用指定变量上下文的计算
      *
      * @param context 变量上下文
-     * @return 计算结果
+     * @return 计算结果，数值类型由 {@link #getNumericMode()} 决定
      * @throws ExpressionException
      */
     public Number calculate(@NotNull Map<String, Number> context) throws ExpressionException {
+        return calculate(context, EvaluationContext.local());
+    }
+
+    /**
+     * 使用调用方持有的求值上下文计算，求值过程不分配操作数栈
+     *
+     * @param context 变量上下文
+     * @param evaluationContext 求值上下文，同一时刻只能用于一次计算
+     * @return 计算结果，数值类型由 {@link #getNumericMode()} 决定
+     * @throws ExpressionException
+     */
+    public Number calculate(@NotNull Map<String, Number> context, @NotNull EvaluationContext evaluationContext)
+            throws ExpressionException {
+        switch (numericMode) {
+            case DOUBLE:
+                return calculateDouble(context, evaluationContext);
+            case LONG:
+                return calculateLong(context, evaluationContext);
+            default:
+                return calculateExact(context, evaluationContext);
+        }
+    }
+
+    /**
+     * 以 {@link NumericMode#DOUBLE} 计算，不受 {@link #getNumericMode()} 影响
+     *
+     * @param context 变量上下文
+     * @return 计算结果
+     * @throws ExpressionException
+     */
+    public double calculateDouble(@NotNull Map<String, Number> context) throws ExpressionException {
+        return calculateDouble(context, EvaluationContext.local());
+    }
+
+    /**
+     * @param evaluationContext 求值上下文，同一时刻只能用于一次计算
+     * @see #calculateDouble(Map)
+     */
+    public double calculateDouble(@NotNull Map<String, Number> context, @NotNull EvaluationContext evaluationContext)
+            throws ExpressionException {
         Validation.notNull(context, "Context must not be null.");
+        Validation.notNull(evaluationContext, "evaluationContext must not be null.");
         compile();
-        int size = compiled.size();
-        Deque<Number> operationStack = new ArrayDeque<>(size);
-        for (Object object : compiled) {
-            if (object instanceof Number) {
-                operationStack.push((Number) object);
-            } else if (object instanceof Variable) {
-                Number number = ((Variable) object).valueOf(context);
-                if (number == null) {
-                    throw new ExpressionCalculationException(
-                            expression, "Invalid variable value! (" + ((Variable) object).getName() + "=null)");
-                }
-                operationStack.push(number);
-            } else if (object instanceof Operator) {
-                Number second;
-                Number first;
-                try {
-                    second = operationStack.pop();
-                    first = operationStack.pop();
-                } catch (NoSuchElementException e) {
-                    throw new ExpressionCalculationException(expression, "Invalid expression!", e);
-                }
-                operationStack.push(((Operator) object).calculate(first, second));
-            } else {
-                throw new ExpressionCalculationException(expression, "Invalid expression!");
+        Program program = this.program;
+        evaluationContext.enter();
+        try {
+            double[] values = evaluationContext.doubleValues(program.variables.length);
+            for (int i = 0; i < program.variables.length; i++) {
+                values[i] = valueOf(program.variables[i], context).doubleValue();
+            }
+            return program.evaluateDouble(values, evaluationContext);
+        } finally {
+            evaluationContext.exit();
+        }
+    }
+
+    /**
+     * 以 {@link NumericMode#LONG} 计算，不受 {@link #getNumericMode()} 影响
+     *
+     * @param context 变量上下文
+     * @return 计算结果
+     * @throws ExpressionException
+     */
+    public long calculateLong(@NotNull Map<String, Number> context) throws ExpressionException {
+        return calculateLong(context, EvaluationContext.local());
+    }
+
+    /**
+     * @param evaluationContext 求值上下文，同一时刻只能用于一次计算
+     * @see #calculateLong(Map)
+     */
+    public long calculateLong(@NotNull Map<String, Number> context, @NotNull EvaluationContext evaluationContext)
+            throws ExpressionException {
+        Validation.notNull(context, "Context must not be null.");
+        Validation.notNull(evaluationContext, "evaluationContext must not be null.");
+        compile();
+        Program program = this.program;
+        evaluationContext.enter();
+        try {
+            long[] values = evaluationContext.longValues(program.variables.length);
+            for (int i = 0; i < program.variables.length; i++) {
+                values[i] = valueOf(program.variables[i], context).longValue();
             }
+            return program.evaluateLong(values, evaluationContext);
+        } catch (ArithmeticException e) {
+            throw new ExpressionCalculationException(expression, e);
+        } finally {
+            evaluationContext.exit();
+        }
+    }
+
+    @NotNull
+    private Number valueOf(@NotNull String variable, @NotNull Map<String, Number> context) {
+        Number number = context.get(variable);
+        if (number == null) {
+            throw new ExpressionCalculationException(
+                    expression, "Invalid variable value! (" + variable + "=null)");
         }
-        if (operationStack.size() == 1) {
-            return operationStack.pop();
+        return number;
+    }
+
+    private Number calculateExact(@NotNull Map<String, Number> context, @NotNull EvaluationContext evaluationContext)
+            throws ExpressionException {
+        Validation.notNull(context, "Context must not be null.");
+        Validation.notNull(evaluationContext, "evaluationContext must not be null.");
+        compile();
+        Program program = this.program;
+        evaluationContext.enter();
+        Number[] values = null;
+        try {
+            values = evaluationContext.exactValues(program.variables.length);
+            for (int i = 0; i < program.variables.length; i++) {
+                values[i] = valueOf(program.variables[i], context);
+            }
+            return program.evaluateExact(values, evaluationContext);
+        } finally {
+            if (values != null) {
+                Arrays.fill(values, 0, program.variables.length, null);
+            }
+            evaluationContext.exit();
         }
-        throw new ExpressionCalculationException(expression, "Invalid expression!");
     }
 
     /**
@@ -417,8 +730,72 @@ public final class Expression implements Cloneable {
     @Override
     @SuppressWarnings("MethodDoesntCallSuperMethod")
     public Expression clone() {
-        Expression expression = new Expression(this.expression, operatorTable.values());
+        Expression expression = new Expression(this.expression, operatorTable.values(), numericMode, functionRegistry);
         expression.compiled = Collections.unmodifiableList(this.compiled);
+        expression.program = this.program;
+        expression.function = this.function;
         return expression;
     }
+
+    /** 符号栈中未闭合的函数调用 */
+    private final class CallFrame implements Symbol {
+        private final MathFunction function;
+        /** 上一个参数开始时后缀表达式的长度 */
+        private int argumentStart;
+
+        private int separators = 0;
+
+        private CallFrame(MathFunction function, int argumentStart) {
+            this.function = function;
+            this.argumentStart = argumentStart;
+        }
+
+        private void separate(int size, int line, int column) {
+            if (size == argumentStart) {
+                throw new ExpressionSyntaxException(
+                        expression, line, column, String.format("Missing argument of function '%s'!", getSymbol()));
+            }
+            separators++;
+            argumentStart = size;
+        }
+
+        @NotNull
+        private FunctionCall complete(int size, int line, int column) {
+            int arity = separators + 1;
+            if (size == argumentStart) {
+                if (separators != 0) {
+                    throw new ExpressionSyntaxException(
+                            expression,
+                            line,
+                            column,
+                            String.format("Missing argument of function '%s'!", getSymbol()));
+                }
+                arity = 0;
+            }
+            if (!function.isArity(arity)) {
+                throw new ExpressionSyntaxException(
+                        expression,
+                        line,
+                        column,
+                        String.format("Function '%s' does not accept %s arguments!", getSymbol(), arity));
+            }
+            return new FunctionCall(function, arity);
+        }
+
+        @Override
+        public String getSymbol() {
+            return function.getName();
+        }
+    }
+
+    /** 符号栈中未结束的条件表达式 */
+    private static final class ConditionalFrame implements Symbol {
+        /** 是否已进入 else 分支 */
+        private boolean otherwise = false;
+
+        @Override
+        public String getSymbol() {
+            return String.valueOf(otherwise ? OTHERWISE : CONDITION);
+        }
+    }
 }
@@ -0,0 +1,175 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import team.idealstate.sugar.next.calculate.exception.ExpressionSyntaxException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 已编译表达式的缓存，以表达式文本、运算符集合与数值模式为键，相同的表达式共享同一个已编译的实例。
+ *
+ * <p>线程安全且容量有界，超出容量时按 CLOCK 算法淘汰：命中只标记引用位，淘汰时跳过并清除被标记的条目，
+ * 以近似 LRU 的顺序移除最久未被访问的表达式。
+ */
+public final class ExpressionCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+    /** {@link Expression#compileCached(String, Collection)} 使用的缓存 */
+    public static final ExpressionCache DEFAULT = new ExpressionCache(DEFAULT_MAXIMUM_SIZE);
+
+    @Getter
+    private final int maximumSize;
+
+    private final ConcurrentHashMap<Key, Entry> entries;
+    private final Queue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final Object evictionLock = new Object();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpressionCache(int maximumSize) {
+        Validation.is(maximumSize > 0, "maximumSize must be greater than 0.");
+        this.maximumSize = maximumSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maximumSize, DEFAULT_MAXIMUM_SIZE));
+    }
+
+    /**
+     * @return 以 {@link NumericMode#EXACT} 计算的已编译表达式
+     * @throws ExpressionSyntaxException
+     */
+    @NotNull
+    public Expression get(@NotNull String expression, @NotNull Collection<? extends Operator> operators)
+            throws ExpressionSyntaxException {
+        return get(expression, operators, NumericMode.EXACT);
+    }
+
+    /**
+     * @return 已编译的表达式，语法错误的表达式不会被缓存
+     * @throws ExpressionSyntaxException
+     */
+    @NotNull
+    public Expression get(
+            @NotNull String expression,
+            @NotNull Collection<? extends Operator> operators,
+            @NotNull NumericMode numericMode)
+            throws ExpressionSyntaxException {
+        Validation.notNull(expression, "expression must not be null.");
+        Validation.notNull(operators, "operators must not be null.");
+        Validation.notNull(numericMode, "numericMode must not be null.");
+        Set<Operator> operatorSet = EnumSet.noneOf(Operator.class);
+        operatorSet.addAll(operators);
+        Key key = new Key(expression, operatorSet, numericMode);
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.referenced = true;
+            hits.increment();
+            return entry.expression;
+        }
+        misses.increment();
+        Entry created = new Entry(key, new Expression(expression, operators, numericMode).compile());
+        entry = entries.putIfAbsent(key, created);
+        if (entry != null) {
+            entry.referenced = true;
+            return entry.expression;
+        }
+        clock.offer(created);
+        if (entries.size() > maximumSize) {
+            evict();
+        }
+        return created.expression;
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            while (entries.size() > maximumSize) {
+                Entry entry = clock.poll();
+                if (entry == null) {
+                    return;
+                }
+                if (entry.referenced) {
+                    entry.referenced = false;
+                    clock.offer(entry);
+                } else if (entries.remove(entry.key, entry)) {
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        synchronized (evictionLock) {
+            entries.clear();
+            clock.clear();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final String expression;
+        private final Set<Operator> operators;
+        private final NumericMode numericMode;
+
+        private Key(String expression, Set<Operator> operators, NumericMode numericMode) {
+            this.expression = expression;
+            this.operators = operators;
+            this.numericMode = numericMode;
+        }
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final Expression expression;
+        private volatile boolean referenced;
+
+        private Entry(Key key, Expression expression) {
+            this.key = key;
+            this.expression = expression;
+        }
+    }
+}
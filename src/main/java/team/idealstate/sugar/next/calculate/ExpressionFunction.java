@@ -0,0 +1,27 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 以 {@link NumericMode#DOUBLE} 计算表达式的函数，由 {@link Expression#toFunction()} 生成 */
+@FunctionalInterface
+public interface ExpressionFunction {
+
+    /** @param variables 按变量在表达式中首次出现的顺序排列的变量值 */
+    double applyAsDouble(@NotNull double[] variables);
+}
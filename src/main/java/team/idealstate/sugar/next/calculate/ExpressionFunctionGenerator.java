@@ -0,0 +1,268 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import team.idealstate.sugar.internal.org.objectweb.asm.ClassWriter;
+import team.idealstate.sugar.internal.org.objectweb.asm.Label;
+import team.idealstate.sugar.internal.org.objectweb.asm.MethodTooLargeException;
+import team.idealstate.sugar.internal.org.objectweb.asm.MethodVisitor;
+import team.idealstate.sugar.internal.org.objectweb.asm.Opcodes;
+import team.idealstate.sugar.internal.org.objectweb.asm.Type;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.bytecode.GeneratedClassLoader;
+import team.idealstate.sugar.next.calculate.exception.ExpressionCalculationException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 将 {@link Program} 生成为 {@link ExpressionFunction} 的实现类。
+ *
+ * <p>后缀表达式直接对应 JVM 的操作数栈，每条指令展开为一段不含循环与装箱的 double 运算，常量以 ldc 内联。 方法体超出 JVM 限制时退化为解释执行。
+ *
+ * <p>内置函数尽量内联为 {@link Math} 的调用，其余函数通过构造时传入的数组调用；条件表达式生成为跳转，未选中的分支不会被计算。
+ */
+abstract class ExpressionFunctionGenerator {
+
+    static final String SUFFIX = "$$SugarFunction$$";
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String FUNCTION = Type.getInternalName(ExpressionFunction.class);
+    private static final String MATH = Type.getInternalName(Math.class);
+    private static final String MATH_FUNCTION = Type.getInternalName(MathFunction.class);
+    private static final String FUNCTIONS = "functions";
+    private static final String FUNCTIONS_DESCRIPTOR = "[L" + MATH_FUNCTION + ";";
+    /** 暂存函数参数的第一个局部变量，0 与 1 分别为 this 与变量数组 */
+    private static final int FIRST_LOCAL = 2;
+    private static final Operator[] OPERATORS = Operator.values();
+
+    @NotNull
+    static ExpressionFunction generate(@NotNull String expression, @NotNull Program program) {
+        String name = ExpressionFunction.class.getName() + SUFFIX + COUNTER.incrementAndGet();
+        byte[] bytecode;
+        try {
+            bytecode = generateBytecode(name, program);
+        } catch (MethodTooLargeException e) {
+            Log.debug(() -> String.format(
+                    "ExpressionFunctionGenerator: Interpret expression '%s'. (%s)", expression, e.getMessage()));
+            return program::evaluateDouble;
+        }
+        Class<?> type = new GeneratedClassLoader(ExpressionFunction.class.getClassLoader()).define(name, bytecode);
+        try {
+            return (ExpressionFunction)
+                    type.getConstructor(MathFunction[].class).newInstance((Object) program.functions);
+        } catch (ReflectiveOperationException e) {
+            throw new ExpressionCalculationException(expression, "Failed to generate function!", e);
+        }
+    }
+
+    @NotNull
+    private static byte[] generateBytecode(@NotNull String name, @NotNull Program program) {
+        String internalName = name.replace('.', '/');
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return OBJECT;
+            }
+        };
+        writer.visit(
+                Opcodes.V1_8,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                internalName,
+                null,
+                OBJECT,
+                new String[] {FUNCTION});
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, FUNCTIONS, FUNCTIONS_DESCRIPTOR, null, null)
+                .visitEnd();
+        String constructorDescriptor = "(" + FUNCTIONS_DESCRIPTOR + ")V";
+        MethodVisitor visitor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", constructorDescriptor, null, null);
+        visitor.visitCode();
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitVarInsn(Opcodes.ALOAD, 1);
+        visitor.visitFieldInsn(Opcodes.PUTFIELD, internalName, FUNCTIONS, FUNCTIONS_DESCRIPTOR);
+        visitor.visitInsn(Opcodes.RETURN);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+        visitor = writer.visitMethod(Opcodes.ACC_PUBLIC, "applyAsDouble", "([D)D", null, null);
+        visitor.visitCode();
+        int[] code = program.code;
+        Label[] labels = new Label[code.length + 1];
+        for (int instruction : code) {
+            int kind = instruction & Program.KIND_MASK;
+            if (kind == Program.JUMP_IF_FALSE || kind == Program.JUMP) {
+                labels[instruction >>> Program.KIND_BITS] = new Label();
+            }
+        }
+        for (int position = 0; position < code.length; position++) {
+            if (labels[position] != null) {
+                visitor.visitLabel(labels[position]);
+            }
+            int instruction = code[position];
+            int index = instruction >>> Program.KIND_BITS;
+            switch (instruction & Program.KIND_MASK) {
+                case Program.CONSTANT:
+                    visitor.visitLdcInsn(program.doubleConstants[index]);
+                    break;
+                case Program.VARIABLE:
+                    visitor.visitVarInsn(Opcodes.ALOAD, 1);
+                    pushInt(visitor, index);
+                    visitor.visitInsn(Opcodes.DALOAD);
+                    break;
+                case Program.OPERATOR:
+                    generateOperator(visitor, OPERATORS[index]);
+                    break;
+                case Program.CALL:
+                    generateCall(visitor, internalName, program.functions[index], index, program.arities[index]);
+                    break;
+                case Program.JUMP_IF_FALSE:
+                    // 与 Expression#isTrue 一致，不大于 0（含 NaN）时为假
+                    visitor.visitInsn(Opcodes.DCONST_0);
+                    visitor.visitInsn(Opcodes.DCMPL);
+                    visitor.visitJumpInsn(Opcodes.IFLE, labels[index]);
+                    break;
+                default:
+                    visitor.visitJumpInsn(Opcodes.GOTO, labels[index]);
+            }
+        }
+        if (labels[code.length] != null) {
+            visitor.visitLabel(labels[code.length]);
+        }
+        visitor.visitInsn(Opcodes.DRETURN);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /** 比较运算与 Java 的语义一致，任一操作数为 NaN 时结果为 0 */
+    private static void generateOperator(@NotNull MethodVisitor visitor, @NotNull Operator operator) {
+        switch (operator) {
+            case ADD:
+                visitor.visitInsn(Opcodes.DADD);
+                return;
+            case SUBTRACT:
+                visitor.visitInsn(Opcodes.DSUB);
+                return;
+            case MULTIPLY:
+                visitor.visitInsn(Opcodes.DMUL);
+                return;
+            case DIVIDE:
+                visitor.visitInsn(Opcodes.DDIV);
+                return;
+            case MOD:
+                visitor.visitInsn(Opcodes.DREM);
+                return;
+            case POWER:
+                visitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH, "pow", "(DD)D", false);
+                return;
+            case EQUALS:
+                generateComparison(visitor, Opcodes.DCMPL, Opcodes.IFNE);
+                return;
+            case LESS_THAN:
+                generateComparison(visitor, Opcodes.DCMPG, Opcodes.IFGE);
+                return;
+            case GREATER_THAN:
+                generateComparison(visitor, Opcodes.DCMPL, Opcodes.IFLE);
+                return;
+            case LESS_THAN_OR_EQUALS:
+                generateComparison(visitor, Opcodes.DCMPG, Opcodes.IFGT);
+                return;
+            case GREATER_THAN_OR_EQUALS:
+                generateComparison(visitor, Opcodes.DCMPL, Opcodes.IFLT);
+                return;
+            default:
+                throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+    }
+
+    private static void generateCall(
+            @NotNull MethodVisitor visitor,
+            @NotNull String internalName,
+            @NotNull MathFunction function,
+            int index,
+            int arity) {
+        if (function instanceof BuiltinFunction) {
+            switch ((BuiltinFunction) function) {
+                case MIN:
+                case MAX:
+                    String name = function == BuiltinFunction.MIN ? "min" : "max";
+                    for (int i = 1; i < arity; i++) {
+                        visitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH, name, "(DD)D", false);
+                    }
+                    return;
+                case ABS:
+                case FLOOR:
+                case CEIL:
+                case SQRT:
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH, function.getName(), "(D)D", false);
+                    return;
+                case CLAMP:
+                    visitor.visitVarInsn(Opcodes.DSTORE, FIRST_LOCAL);
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH, "max", "(DD)D", false);
+                    visitor.visitVarInsn(Opcodes.DLOAD, FIRST_LOCAL);
+                    visitor.visitMethodInsn(Opcodes.INVOKESTATIC, MATH, "min", "(DD)D", false);
+                    return;
+                default:
+                    break;
+            }
+        }
+        // 参数已按顺序位于操作数栈上，先暂存到局部变量中再装入数组
+        for (int i = arity - 1; i >= 0; i--) {
+            visitor.visitVarInsn(Opcodes.DSTORE, FIRST_LOCAL + i * 2);
+        }
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, internalName, FUNCTIONS, FUNCTIONS_DESCRIPTOR);
+        pushInt(visitor, index);
+        visitor.visitInsn(Opcodes.AALOAD);
+        pushInt(visitor, arity);
+        visitor.visitIntInsn(Opcodes.NEWARRAY, Opcodes.T_DOUBLE);
+        for (int i = 0; i < arity; i++) {
+            visitor.visitInsn(Opcodes.DUP);
+            pushInt(visitor, i);
+            visitor.visitVarInsn(Opcodes.DLOAD, FIRST_LOCAL + i * 2);
+            visitor.visitInsn(Opcodes.DASTORE);
+        }
+        visitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, MATH_FUNCTION, "applyAsDouble", "([D)D", true);
+    }
+
+    /** @param falseJump 比较结果满足时跳转到结果为 0 的分支 */
+    private static void generateComparison(@NotNull MethodVisitor visitor, int compare, int falseJump) {
+        Label isFalse = new Label();
+        Label end = new Label();
+        visitor.visitInsn(compare);
+        visitor.visitJumpInsn(falseJump, isFalse);
+        visitor.visitInsn(Opcodes.DCONST_1);
+        visitor.visitJumpInsn(Opcodes.GOTO, end);
+        visitor.visitLabel(isFalse);
+        visitor.visitInsn(Opcodes.DCONST_0);
+        visitor.visitLabel(end);
+    }
+
+    private static void pushInt(@NotNull MethodVisitor visitor, int value) {
+        if (value <= 5) {
+            visitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            visitor.visitLdcInsn(value);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 编译后的优化：折叠常量子树、移除恒等运算并将较小的整数次幂展开为乘法。
+ *
+ * <p>常量按全部数值模式分别折叠（见 {@link FoldedConstant}），任一模式下抛出异常的子树保留到计算时处理；
+ * 优化不会移除或重排变量，因此变量的首次出现顺序保持不变。函数调用只折叠内置函数，条件恒定且被舍弃的分支不含变量时才选择分支。
+ */
+abstract class ExpressionOptimizer {
+
+    /** 展开为乘法的最大整数次幂 */
+    static final int MAX_POWER_EXPANSION = 4;
+
+    /** 精确模式下折叠整数次幂时结果有效位数的估计上限，超出时保留到计算时处理 */
+    static final int MAX_FOLDED_POWER_DIGITS = 1000;
+
+    private static final Set<Operator> COMPARISONS =
+            EnumSet.range(Operator.EQUALS, Operator.GREATER_THAN_OR_EQUALS);
+    private static final Node[] LEAF = new Node[0];
+
+    @NotNull
+    static List<Object> optimize(@NotNull List<Object> compiled, @NotNull NumericMode numericMode) {
+        Deque<Node> stack = new ArrayDeque<>(compiled.size());
+        for (Object token : compiled) {
+            if (token instanceof Operator) {
+                Node second = stack.pop();
+                Node first = stack.pop();
+                stack.push(simplify((Operator) token, first, second));
+            } else if (token instanceof FunctionCall) {
+                Node[] arguments = new Node[((FunctionCall) token).getArity()];
+                for (int i = arguments.length - 1; i >= 0; i--) {
+                    arguments[i] = stack.pop();
+                }
+                stack.push(simplify((FunctionCall) token, arguments));
+            } else if (Branch.END.equals(token)) {
+                Node otherwise = stack.pop();
+                Node then = stack.pop();
+                stack.push(simplify(stack.pop(), then, otherwise));
+            } else if (!(token instanceof Branch)) {
+                stack.push(new Node(token));
+            }
+        }
+        Node root = stack.pop();
+        if (numericMode == NumericMode.EXACT && root.isVariable() && compiled.size() > 1) {
+            // 精确模式下运算结果为 BigDecimal，化简为单个变量会改变结果类型
+            return compiled;
+        }
+        List<Object> optimized = new ArrayList<>(compiled.size());
+        root.flatten(optimized);
+        return optimized;
+    }
+
+    private static Node simplify(Operator operator, Node first, Node second) {
+        if (first.isConstant() && second.isConstant()) {
+            Number folded = fold(operator, (Number) first.token, (Number) second.token);
+            if (folded != null) {
+                return new Node(folded);
+            }
+        }
+        switch (operator) {
+            case ADD:
+                if (second.isIntegral(0)) {
+                    return first;
+                }
+                if (first.isIntegral(0)) {
+                    return second;
+                }
+                break;
+            case SUBTRACT:
+                if (second.isIntegral(0)) {
+                    return first;
+                }
+                break;
+            case MULTIPLY:
+                if (second.isIntegral(1)) {
+                    return first;
+                }
+                if (first.isIntegral(1)) {
+                    return second;
+                }
+                break;
+            case DIVIDE:
+                if (second.isIntegral(1)) {
+                    return first;
+                }
+                break;
+            case POWER:
+                if (second.isIntegral(1)) {
+                    return first;
+                }
+                if (first.isVariable()) {
+                    for (int exponent = 2; exponent <= MAX_POWER_EXPANSION; exponent++) {
+                        if (second.isIntegral(exponent)) {
+                            Node product = first;
+                            for (int i = 1; i < exponent; i++) {
+                                product = new Node(Operator.MULTIPLY, product, first);
+                            }
+                            return product;
+                        }
+                    }
+                }
+                break;
+            case EQUALS:
+            case GREATER_THAN_OR_EQUALS:
+                // 比较结果只会是 0 或 1
+                if (first.isComparison() && second.isIntegral(1)) {
+                    return first;
+                }
+                if (operator == Operator.EQUALS && second.isComparison() && first.isIntegral(1)) {
+                    return second;
+                }
+                break;
+            case GREATER_THAN:
+                if (first.isComparison() && second.isIntegral(0)) {
+                    return first;
+                }
+                break;
+            default:
+                break;
+        }
+        return new Node(operator, first, second);
+    }
+
+    private static Node simplify(FunctionCall call, Node[] arguments) {
+        if (call.getFunction() instanceof BuiltinFunction) {
+            Number[] exact = new Number[arguments.length];
+            double[] doubles = new double[arguments.length];
+            long[] longs = new long[arguments.length];
+            for (int i = 0; i < arguments.length; i++) {
+                if (!arguments[i].isConstant()) {
+                    return new Node(call, arguments);
+                }
+                Number constant = (Number) arguments[i].token;
+                exact[i] = FoldedConstant.exactOf(constant);
+                doubles[i] = constant.doubleValue();
+                longs[i] = constant.longValue();
+            }
+            MathFunction function = call.getFunction();
+            try {
+                return new Node(new FoldedConstant(
+                        function.apply(exact), function.applyAsDouble(doubles), function.applyAsLong(longs)));
+            } catch (ArithmeticException e) {
+                return new Node(call, arguments);
+            }
+        }
+        return new Node(call, arguments);
+    }
+
+    private static Node simplify(Node condition, Node then, Node otherwise) {
+        if (condition.isConstant()) {
+            Number constant = (Number) condition.token;
+            boolean exact = Operator.asBigDecimal(FoldedConstant.exactOf(constant)).signum() > 0;
+            if (exact == constant.doubleValue() > 0 && exact == constant.longValue() > 0) {
+                Node selected = exact ? then : otherwise;
+                if (!(exact ? otherwise : then).hasVariables()) {
+                    return selected;
+                }
+            }
+        }
+        return new Node(Branch.IF, condition, then, otherwise);
+    }
+
+    private static Number fold(Operator operator, Number first, Number second) {
+        if (operator == Operator.POWER && !isFoldablePower(first, second)) {
+            return null;
+        }
+        Number exact;
+        long longValue;
+        try {
+            exact = operator.calculate(FoldedConstant.exactOf(first), FoldedConstant.exactOf(second));
+            longValue = operator.calculate(first.longValue(), second.longValue());
+        } catch (ArithmeticException e) {
+            return null;
+        }
+        return new FoldedConstant(exact, operator.calculate(first.doubleValue(), second.doubleValue()), longValue);
+    }
+
+    /** 编译期间不计算结果过大的精确幂，如 {@code 10 ^ 99999999} */
+    private static boolean isFoldablePower(Number first, Number second) {
+        BigDecimal base = Operator.asBigDecimal(FoldedConstant.exactOf(first));
+        BigDecimal exponent = Operator.asBigDecimal(FoldedConstant.exactOf(second)).abs();
+        if (exponent.compareTo(BigDecimal.valueOf(MAX_FOLDED_POWER_DIGITS)) > 0) {
+            return false;
+        }
+        return (long) base.precision() * exponent.intValue() <= MAX_FOLDED_POWER_DIGITS;
+    }
+
+    /** 常量、变量、运算符、函数调用或以 {@link Branch#IF} 表示的条件表达式 */
+    private static final class Node {
+        private final Object token;
+        private final Node[] children;
+
+        private Node(Object token, Node... children) {
+            this.token = token;
+            this.children = children.length == 0 ? LEAF : children;
+        }
+
+        private boolean isConstant() {
+            return token instanceof Number;
+        }
+
+        private boolean isVariable() {
+            return token instanceof Variable;
+        }
+
+        private boolean isComparison() {
+            return token instanceof Operator && COMPARISONS.contains(token);
+        }
+
+        /** 各数值模式下都等于 {@code value} 的整数常量，与之运算不会改变精确模式下的标度 */
+        private boolean isIntegral(long value) {
+            if (!isConstant()) {
+                return false;
+            }
+            Number constant = (Number) token;
+            Number exact = FoldedConstant.exactOf(constant);
+            boolean integral = exact instanceof Integer
+                    || exact instanceof Long
+                    || exact instanceof BigInteger
+                    || (exact instanceof BigDecimal && ((BigDecimal) exact).scale() == 0);
+            return integral
+                    && Operator.asBigDecimal(exact).compareTo(BigDecimal.valueOf(value)) == 0
+                    && constant.longValue() == value
+                    && constant.doubleValue() == value;
+        }
+
+        private boolean hasVariables() {
+            Deque<Node> pending = new ArrayDeque<>();
+            pending.push(this);
+            while (!pending.isEmpty()) {
+                Node node = pending.pop();
+                if (node.isVariable()) {
+                    return true;
+                }
+                for (Node child : node.children) {
+                    pending.push(child);
+                }
+            }
+            return false;
+        }
+
+        /** 以迭代的方式展开为后缀表达式，避免过长的表达式导致栈溢出 */
+        private void flatten(List<Object> output) {
+            // 元素为待展开的 Node 或待输出的记号
+            Deque<Object> pending = new ArrayDeque<>();
+            pending.push(this);
+            while (!pending.isEmpty()) {
+                Object next = pending.pop();
+                if (!(next instanceof Node)) {
+                    output.add(next);
+                    continue;
+                }
+                Node node = (Node) next;
+                if (Branch.IF.equals(node.token)) {
+                    pending.push(Branch.END);
+                    pending.push(node.children[2]);
+                    pending.push(Branch.ELSE);
+                    pending.push(node.children[1]);
+                    pending.push(Branch.IF);
+                    pending.push(node.children[0]);
+                    continue;
+                }
+                pending.push(node.token);
+                for (int i = node.children.length - 1; i >= 0; i--) {
+                    pending.push(node.children[i]);
+                }
+            }
+        }
+    }
+}
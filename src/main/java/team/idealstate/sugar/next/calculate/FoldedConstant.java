@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import lombok.Getter;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 编译期折叠得到的常量，分别保存各数值模式下的折叠结果 */
+@Getter
+final class FoldedConstant extends Number {
+    private static final long serialVersionUID = 1L;
+
+    /** {@link NumericMode#EXACT} 下的结果 */
+    private final Number exact;
+
+    private final double doubleValue;
+    private final long longValue;
+
+    FoldedConstant(@NotNull Number exact, double doubleValue, long longValue) {
+        this.exact = exact;
+        this.doubleValue = doubleValue;
+        this.longValue = longValue;
+    }
+
+    @NotNull
+    static Number exactOf(@NotNull Number constant) {
+        return constant instanceof FoldedConstant ? ((FoldedConstant) constant).exact : constant;
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue;
+    }
+
+    @Override
+    public long longValue() {
+        return longValue;
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue;
+    }
+
+    @Override
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    @Override
+    public String toString() {
+        return exact.toString();
+    }
+}
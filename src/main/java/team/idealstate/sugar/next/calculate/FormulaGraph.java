@@ -0,0 +1,274 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import team.idealstate.sugar.next.calculate.exception.ExpressionException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 由具名表达式组成的有向无环图，表达式中引用的其他公式名即为依赖，其余变量为输入。
+ *
+ * <p>输入变化时只将直接依赖它的公式标记为脏，读取时按拓扑序重新计算脏公式，结果未变化的公式不会继续向下游传播。
+ * 实例持有计算状态，非线程安全。
+ */
+public final class FormulaGraph {
+
+    /** 输入在前，公式按拓扑序在后 */
+    private final String[] names;
+
+    private final Map<String, Integer> indexes;
+    private final int inputCount;
+    private final BoundExpression[] formulas;
+    /** 各公式的槽位对应的节点下标 */
+    private final int[][] arguments;
+    /** 各节点的下游公式 */
+    private final int[][] dependents;
+
+    private final Number[][] slots;
+    private final Number[] values;
+    private final boolean[] dirty;
+    /** 最靠前的脏公式，不存在时为 {@code names.length} */
+    private int firstDirty;
+
+    /**
+     * @param formulas 公式名与表达式
+     * @throws ExpressionException 表达式存在语法错误时
+     * @throws IllegalArgumentException 公式之间存在循环依赖时
+     */
+    public FormulaGraph(@NotNull Map<String, Expression> formulas) throws ExpressionException {
+        Validation.notNull(formulas, "formulas must not be null.");
+        Map<String, List<String>> dependencies = new LinkedHashMap<>(formulas.size());
+        Set<String> inputs = new LinkedHashSet<>();
+        for (Map.Entry<String, Expression> entry : formulas.entrySet()) {
+            Validation.notNull(entry.getKey(), "name must not be null.");
+            Validation.notNull(entry.getValue(), "expression must not be null.");
+            List<String> variables = entry.getValue().getVariables();
+            dependencies.put(entry.getKey(), variables);
+            for (String variable : variables) {
+                if (!formulas.containsKey(variable)) {
+                    inputs.add(variable);
+                }
+            }
+        }
+        List<String> order = sort(dependencies);
+        this.inputCount = inputs.size();
+        int size = inputCount + order.size();
+        this.names = new String[size];
+        this.indexes = new LinkedHashMap<>(size);
+        int index = 0;
+        for (String input : inputs) {
+            names[index] = input;
+            indexes.put(input, index++);
+        }
+        for (String formula : order) {
+            names[index] = formula;
+            indexes.put(formula, index++);
+        }
+        this.formulas = new BoundExpression[size];
+        this.arguments = new int[size][];
+        this.slots = new Number[size][];
+        List<List<Integer>> dependents = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            dependents.add(new ArrayList<>());
+        }
+        for (int i = inputCount; i < size; i++) {
+            Expression expression = formulas.get(names[i]);
+            List<String> variables = dependencies.get(names[i]);
+            this.formulas[i] = expression.bind(variables.toArray(new String[0]));
+            int[] argument = new int[variables.size()];
+            for (int j = 0; j < argument.length; j++) {
+                argument[j] = indexes.get(variables.get(j));
+                dependents.get(argument[j]).add(i);
+            }
+            this.arguments[i] = argument;
+            this.slots[i] = new Number[argument.length];
+        }
+        this.dependents = new int[size][];
+        for (int i = 0; i < size; i++) {
+            this.dependents[i] = dependents.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        this.values = new Number[size];
+        this.dirty = new boolean[size];
+        Arrays.fill(dirty, inputCount, size, true);
+        this.firstDirty = inputCount;
+    }
+
+    /** Kahn 算法，存在环时报告其中一条环路 */
+    @NotNull
+    private static List<String> sort(@NotNull Map<String, List<String>> dependencies) {
+        Map<String, Integer> pending = new LinkedHashMap<>(dependencies.size());
+        Map<String, List<String>> dependents = new LinkedHashMap<>(dependencies.size());
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            int count = 0;
+            for (String variable : entry.getValue()) {
+                if (dependencies.containsKey(variable)) {
+                    dependents.computeIfAbsent(variable, key -> new ArrayList<>()).add(entry.getKey());
+                    count++;
+                }
+            }
+            pending.put(entry.getKey(), count);
+        }
+        List<String> order = new ArrayList<>(dependencies.size());
+        Deque<String> ready = new ArrayDeque<>();
+        pending.forEach((name, count) -> {
+            if (count == 0) {
+                ready.add(name);
+            }
+        });
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            order.add(name);
+            for (String dependent : dependents.getOrDefault(name, Collections.emptyList())) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        if (order.size() != dependencies.size()) {
+            throw new IllegalArgumentException(
+                    String.format("Circular dependency between formulas! (%s)", cycleOf(dependencies, pending)));
+        }
+        return order;
+    }
+
+    @NotNull
+    private static String cycleOf(
+            @NotNull Map<String, List<String>> dependencies, @NotNull Map<String, Integer> pending) {
+        // 剩余的公式都位于环上或依赖环，沿着未完成的依赖前进必然回到走过的公式
+        List<String> path = new ArrayList<>();
+        String current = null;
+        for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+            if (entry.getValue() > 0) {
+                current = entry.getKey();
+                break;
+            }
+        }
+        while (!path.contains(current)) {
+            path.add(current);
+            for (String variable : dependencies.get(current)) {
+                Integer count = pending.get(variable);
+                if (count != null && count > 0) {
+                    current = variable;
+                    break;
+                }
+            }
+        }
+        List<String> cycle = new ArrayList<>(path.subList(path.indexOf(current), path.size()));
+        cycle.add(current);
+        return String.join(" <- ", cycle);
+    }
+
+    /** @return 非公式的变量名 */
+    @NotNull
+    public List<String> getInputs() {
+        return Collections.unmodifiableList(Arrays.asList(names).subList(0, inputCount));
+    }
+
+    /** @return 按拓扑序排列的公式名，每个公式都位于其依赖之后 */
+    @NotNull
+    public List<String> getFormulas() {
+        return Collections.unmodifiableList(Arrays.asList(names).subList(inputCount, names.length));
+    }
+
+    /**
+     * 设置输入的值，并将直接依赖它的公式标记为脏
+     *
+     * @param input 输入名
+     * @param value 输入值
+     */
+    public void set(@NotNull String input, @NotNull Number value) {
+        Validation.notNull(input, "input must not be null.");
+        Validation.notNull(value, "value must not be null.");
+        Integer index = indexes.get(input);
+        Validation.is(index != null && index < inputCount, "input must be an input of the graph.");
+        if (Objects.equals(values[index], value)) {
+            return;
+        }
+        values[index] = value;
+        markDependents(index);
+    }
+
+    /** @see #set(String, Number) */
+    public void setAll(@NotNull Map<String, ? extends Number> inputs) {
+        Validation.notNull(inputs, "inputs must not be null.");
+        inputs.forEach(this::set);
+    }
+
+    /**
+     * @param name 输入名或公式名
+     * @return 输入的值或公式的最新结果，未设置的输入为 null
+     * @throws ExpressionException 重新计算失败时
+     */
+    public Number get(@NotNull String name) throws ExpressionException {
+        Validation.notNull(name, "name must not be null.");
+        Integer index = indexes.get(name);
+        Validation.is(index != null, "name must be an input or a formula of the graph.");
+        if (index >= firstDirty) {
+            recompute();
+        }
+        return values[index];
+    }
+
+    /**
+     * 按拓扑序重新计算所有脏公式
+     *
+     * @return 重新计算的公式数量
+     * @throws ExpressionException 计算失败时，失败的公式与其下游保持为脏
+     */
+    public int recompute() throws ExpressionException {
+        int count = 0;
+        for (int i = firstDirty; i < names.length; i++) {
+            if (!dirty[i]) {
+                continue;
+            }
+            firstDirty = i;
+            int[] argument = arguments[i];
+            Number[] slot = slots[i];
+            for (int j = 0; j < argument.length; j++) {
+                slot[j] = values[argument[j]];
+            }
+            Number value = formulas[i].evaluate(slot);
+            dirty[i] = false;
+            count++;
+            if (!Objects.equals(values[i], value)) {
+                values[i] = value;
+                markDependents(i);
+            }
+        }
+        firstDirty = names.length;
+        return count;
+    }
+
+    private void markDependents(int index) {
+        for (int dependent : dependents[index]) {
+            dirty[dependent] = true;
+            firstDirty = Math.min(firstDirty, dependent);
+        }
+    }
+}
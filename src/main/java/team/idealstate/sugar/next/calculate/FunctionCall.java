@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 后缀表达式中的函数调用，从操作数栈中取出 {@link #arity} 个参数 */
+@Getter
+@EqualsAndHashCode
+final class FunctionCall {
+    private final MathFunction function;
+    private final int arity;
+
+    FunctionCall(@NotNull MathFunction function, int arity) {
+        this.function = function;
+        this.arity = arity;
+    }
+
+    @Override
+    public String toString() {
+        return function.getName() + "/" + arity;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/**
+ * 表达式可调用的函数，新建的注册表包含全部内置函数（min、max、abs、clamp、floor、ceil、round、sqrt）。
+ *
+ * <p>函数在表达式编译时解析，之后注册或移除的函数不影响已编译的表达式。
+ */
+public final class FunctionRegistry {
+
+    /** 未指定注册表的表达式所使用的注册表 */
+    public static final FunctionRegistry DEFAULT = new FunctionRegistry();
+
+    private final Map<String, MathFunction> functions = new ConcurrentHashMap<>();
+
+    public FunctionRegistry() {
+        for (BuiltinFunction function : BuiltinFunction.values()) {
+            register(function);
+        }
+    }
+
+    /**
+     * 注册函数，同名的函数将被替换
+     *
+     * @return this
+     */
+    @NotNull
+    public FunctionRegistry register(@NotNull MathFunction function) {
+        Validation.notNull(function, "function must not be null.");
+        String name = function.getName();
+        Variable.validateName(name);
+        functions.put(name, function);
+        return this;
+    }
+
+    @Nullable
+    public MathFunction unregister(@NotNull String name) {
+        Validation.notNull(name, "name must not be null.");
+        return functions.remove(name);
+    }
+
+    @Nullable
+    public MathFunction get(@NotNull String name) {
+        Validation.notNull(name, "name must not be null.");
+        return functions.get(name);
+    }
+
+    @NotNull
+    public Collection<MathFunction> getFunctions() {
+        return Collections.unmodifiableCollection(functions.values());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.math.BigDecimal;
+import java.util.function.ToDoubleFunction;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 可在表达式中以 {@code name(a, b, ...)} 调用的函数，通过 {@link FunctionRegistry} 注册。
+ *
+ * <p>参数数量在编译时校验，各数值模式分别调用对应的方法；未覆盖 long 与精确模式的方法时以 double 计算。
+ */
+public interface MathFunction {
+
+    /** 不限制参数数量时 {@link #getMaxArity()} 的返回值 */
+    int VARIADIC = -1;
+
+    @NotNull
+    static MathFunction of(
+            @NotNull String name, int minArity, int maxArity, @NotNull ToDoubleFunction<double[]> function) {
+        Validation.notNull(name, "name must not be null.");
+        Validation.notNull(function, "function must not be null.");
+        Validation.is(minArity >= 0, "minArity must not be negative.");
+        Validation.is(maxArity == VARIADIC || maxArity >= minArity, "maxArity must not be less than minArity.");
+        return new MathFunction() {
+            @NotNull
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public int getMinArity() {
+                return minArity;
+            }
+
+            @Override
+            public int getMaxArity() {
+                return maxArity;
+            }
+
+            @Override
+            public double applyAsDouble(@NotNull double[] arguments) {
+                return function.applyAsDouble(arguments);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    /** @return 须为合法的变量名 */
+    @NotNull
+    String getName();
+
+    int getMinArity();
+
+    /** @return 参数数量的上限，不限制时为 {@link #VARIADIC} */
+    int getMaxArity();
+
+    default boolean isArity(int arity) {
+        return arity >= getMinArity() && (getMaxArity() == VARIADIC || arity <= getMaxArity());
+    }
+
+    /** {@link NumericMode#DOUBLE} */
+    double applyAsDouble(@NotNull double[] arguments);
+
+    /** {@link NumericMode#LONG} */
+    default long applyAsLong(@NotNull long[] arguments) {
+        double[] doubles = new double[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            doubles[i] = arguments[i];
+        }
+        return (long) applyAsDouble(doubles);
+    }
+
+    /**
+     * {@link NumericMode#EXACT}
+     *
+     * @throws ArithmeticException 以 double 计算的结果为 NaN 或无穷时
+     */
+    @NotNull
+    default Number apply(@NotNull Number[] arguments) {
+        double[] doubles = new double[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            doubles[i] = arguments[i].doubleValue();
+        }
+        double value = applyAsDouble(doubles);
+        if (!Double.isFinite(value)) {
+            throw new ArithmeticException(String.format("%s returned a non-finite value: %s", getName(), value));
+        }
+        return BigDecimal.valueOf(value);
+    }
+}
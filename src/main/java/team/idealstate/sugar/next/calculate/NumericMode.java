@@ -0,0 +1,27 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+/** 表达式的数值模式 */
+public enum NumericMode {
+    /** 以 double 计算，幂运算使用 {@link Math#pow(double, double)} */
+    DOUBLE,
+    /** 以 long 计算，小数常量与变量向零取整，除法向零取整 */
+    LONG,
+    /** 以 {@link java.math.BigDecimal} 精确计算，除法按 {@link Operator#ROUNDING_MODE} 舍入 */
+    EXACT
+}
@@ -153,4 +153,90 @@ public enum Operator implements Symbol {
                 throw new IllegalArgumentException("Unknown operator: " + this);
         }
     }
+
+    /** @return 比较运算的结果为 1 或 0 */
+    public double calculate(double first, double second) {
+        switch (this) {
+            case ADD:
+                return first + second;
+            case SUBTRACT:
+                return first - second;
+            case MULTIPLY:
+                return first * second;
+            case DIVIDE:
+                return first / second;
+            case MOD:
+                return first % second;
+            case POWER:
+                return Math.pow(first, second);
+            case EQUALS:
+                return first == second ? 1 : 0;
+            case LESS_THAN:
+                return first < second ? 1 : 0;
+            case GREATER_THAN:
+                return first > second ? 1 : 0;
+            case LESS_THAN_OR_EQUALS:
+                return first <= second ? 1 : 0;
+            case GREATER_THAN_OR_EQUALS:
+                return first >= second ? 1 : 0;
+            default:
+                throw new IllegalArgumentException("Unknown operator: " + this);
+        }
+    }
+
+    /**
+     * 除法与负指数的幂向零取整，溢出时按 long 运算回绕。
+     *
+     * @return 比较运算的结果为 1 或 0
+     * @throws ArithmeticException 除数为 0 时
+     */
+    public long calculate(long first, long second) {
+        switch (this) {
+            case ADD:
+                return first + second;
+            case SUBTRACT:
+                return first - second;
+            case MULTIPLY:
+                return first * second;
+            case DIVIDE:
+                return first / second;
+            case MOD:
+                return first % second;
+            case POWER:
+                return pow(first, second);
+            case EQUALS:
+                return first == second ? 1 : 0;
+            case LESS_THAN:
+                return first < second ? 1 : 0;
+            case GREATER_THAN:
+                return first > second ? 1 : 0;
+            case LESS_THAN_OR_EQUALS:
+                return first <= second ? 1 : 0;
+            case GREATER_THAN_OR_EQUALS:
+                return first >= second ? 1 : 0;
+            default:
+                throw new IllegalArgumentException("Unknown operator: " + this);
+        }
+    }
+
+    private static long pow(long base, long exponent) {
+        if (exponent < 0) {
+            if (base == 0) {
+                throw new ArithmeticException("/ by zero");
+            }
+            if (base == 1) {
+                return 1;
+            }
+            return base == -1 ? ((exponent & 1) == 0 ? 1 : -1) : 0;
+        }
+        long result = 1;
+        while (exponent != 0) {
+            if ((exponent & 1) != 0) {
+                result *= base;
+            }
+            base *= base;
+            exponent >>= 1;
+        }
+        return result;
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.Arrays;
+import java.util.Collection;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 由运算符符号构建的前缀树，按字符逐个匹配，不必为候选符号创建字符串 */
+final class OperatorTrie {
+    private static final int ASCII = 128;
+    /** ASCII 字符是否属于 {@link Operator#KEYWORDS} */
+    private static final boolean[] KEYWORDS = new boolean[ASCII];
+
+    static {
+        for (Character keyword : Operator.KEYWORDS) {
+            if (keyword < ASCII) {
+                KEYWORDS[keyword] = true;
+            }
+        }
+    }
+
+    private final Node root = new Node();
+
+    OperatorTrie(@NotNull Collection<? extends Operator> operators) {
+        for (Operator operator : operators) {
+            String symbol = operator.getSymbol();
+            Node node = root;
+            for (int i = 0; i < symbol.length(); i++) {
+                node = node.childOrCreate(symbol.charAt(i));
+            }
+            node.operator = operator;
+        }
+    }
+
+    static boolean isKeyword(char c) {
+        return c < ASCII ? KEYWORDS[c] : Operator.KEYWORDS.contains(c);
+    }
+
+    /** @return 符号恰好为 {@code [start, end)} 的运算符，不存在时为 null */
+    Operator get(@NotNull CharSequence sequence, int start, int end) {
+        Node node = root;
+        for (int i = start; i < end && node != null; i++) {
+            node = node.child(sequence.charAt(i));
+        }
+        return node == null ? null : node.operator;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Operator operator;
+
+        private Node child(char key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(char key) {
+            Node child = child(key);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = key;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
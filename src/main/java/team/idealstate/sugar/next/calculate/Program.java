@@ -0,0 +1,624 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import team.idealstate.sugar.next.calculate.exception.ExpressionCalculationException;
+import team.idealstate.sugar.next.calculate.exception.ExpressionSyntaxException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 扁平化的后缀表达式，常量与变量预先转换为下标，供各数值模式以基本类型的操作数栈解释执行。
+ *
+ * <p>每条指令的低 {@link #KIND_BITS} 位为指令类型，其余位为常量、变量、运算符或调用点的下标，跳转指令则为目标指令的位置。
+ * 条件跳转弹出栈顶的值，不大于 0 时跳转。
+ */
+final class Program {
+    static final int KIND_BITS = 3;
+    static final int KIND_MASK = (1 << KIND_BITS) - 1;
+    static final int CONSTANT = 0;
+    static final int VARIABLE = 1;
+    static final int OPERATOR = 2;
+    static final int CALL = 3;
+    static final int JUMP_IF_FALSE = 4;
+    static final int JUMP = 5;
+
+    /** 批量计算时每段的行数，使各层操作数缓冲区可驻留于缓存 */
+    static final int BATCH_CHUNK_SIZE = 1024;
+    /** 并行批量计算时单个任务的最小行数 */
+    static final int PARALLEL_THRESHOLD = 16 * BATCH_CHUNK_SIZE;
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    final int[] code;
+    final Number[] constants;
+    final double[] doubleConstants;
+    final long[] longConstants;
+    /** 按首次出现的顺序排列的变量名 */
+    final String[] variables;
+    /** 各调用点的函数 */
+    final MathFunction[] functions;
+    /** 各调用点的参数数量 */
+    final int[] arities;
+    /** 执行过程中操作数栈的最大深度 */
+    final int maxDepth;
+    /** 是否只含常量、变量与运算符，可逐列批量计算 */
+    final boolean linear;
+
+    private Program(
+            int[] code,
+            Number[] constants,
+            double[] doubleConstants,
+            long[] longConstants,
+            String[] variables,
+            MathFunction[] functions,
+            int[] arities,
+            int maxDepth) {
+        this.code = code;
+        this.constants = constants;
+        this.doubleConstants = doubleConstants;
+        this.longConstants = longConstants;
+        this.variables = variables;
+        this.functions = functions;
+        this.arities = arities;
+        this.maxDepth = maxDepth;
+        boolean linear = true;
+        for (int instruction : code) {
+            linear &= (instruction & KIND_MASK) <= OPERATOR;
+        }
+        this.linear = linear;
+    }
+
+    @NotNull
+    static Program of(@NotNull String expression, @NotNull List<Object> compiled, int line, int column) {
+        int[] code = new int[compiled.size()];
+        int length = 0;
+        List<Number> constants = new ArrayList<>();
+        Map<String, Integer> variables = new LinkedHashMap<>();
+        List<FunctionCall> calls = new ArrayList<>();
+        Deque<int[]> branches = new ArrayDeque<>();
+        int depth = 0;
+        int maxDepth = 0;
+        for (Object token : compiled) {
+            if (token instanceof Operator) {
+                if (depth < 2) {
+                    throw new ExpressionSyntaxException(
+                            expression, line, column, String.format("Missing operand of operator '%s'!", token));
+                }
+                depth--;
+                code[length++] = ((Operator) token).ordinal() << KIND_BITS | OPERATOR;
+                continue;
+            }
+            if (token instanceof FunctionCall) {
+                int arity = ((FunctionCall) token).getArity();
+                if (depth < arity) {
+                    throw new ExpressionSyntaxException(
+                            expression, line, column, String.format("Missing argument of function '%s'!", token));
+                }
+                depth -= arity;
+                maxDepth = Math.max(maxDepth, ++depth);
+                code[length++] = calls.size() << KIND_BITS | CALL;
+                calls.add((FunctionCall) token);
+                continue;
+            }
+            if (token instanceof Branch) {
+                // {跳转指令的位置, 分支开始时的深度}
+                switch ((Branch) token) {
+                    case IF:
+                        if (depth < 1) {
+                            throw new ExpressionSyntaxException(expression, line, column, "Missing condition!");
+                        }
+                        depth--;
+                        branches.push(new int[] {length, depth});
+                        code[length++] = JUMP_IF_FALSE;
+                        break;
+                    case ELSE:
+                        int[] branch = branches.peek();
+                        if (branch == null || depth != branch[1] + 1) {
+                            throw new ExpressionSyntaxException(expression, line, column, "Invalid condition!");
+                        }
+                        code[branch[0]] = (length + 1) << KIND_BITS | JUMP_IF_FALSE;
+                        branch[0] = length;
+                        depth--;
+                        code[length++] = JUMP;
+                        break;
+                    default:
+                        branch = branches.poll();
+                        if (branch == null || depth != branch[1] + 1) {
+                            throw new ExpressionSyntaxException(expression, line, column, "Invalid condition!");
+                        }
+                        code[branch[0]] = length << KIND_BITS | JUMP;
+                }
+                continue;
+            }
+            if (token instanceof Variable) {
+                String name = ((Variable) token).getName();
+                Integer index = variables.get(name);
+                if (index == null) {
+                    index = variables.size();
+                    variables.put(name, index);
+                }
+                code[length++] = index << KIND_BITS | VARIABLE;
+            } else {
+                code[length++] = constants.size() << KIND_BITS | CONSTANT;
+                constants.add((Number) token);
+            }
+            maxDepth = Math.max(maxDepth, ++depth);
+        }
+        if (depth != 1 || !branches.isEmpty()) {
+            throw new ExpressionSyntaxException(expression, line, column, "Invalid expression!");
+        }
+        double[] doubleConstants = new double[constants.size()];
+        long[] longConstants = new long[constants.size()];
+        Number[] exactConstants = new Number[constants.size()];
+        for (int i = 0; i < constants.size(); i++) {
+            Number constant = constants.get(i);
+            exactConstants[i] = FoldedConstant.exactOf(constant);
+            doubleConstants[i] = constant.doubleValue();
+            longConstants[i] = constant.longValue();
+        }
+        MathFunction[] functions = new MathFunction[calls.size()];
+        int[] arities = new int[calls.size()];
+        for (int i = 0; i < calls.size(); i++) {
+            functions[i] = calls.get(i).getFunction();
+            arities[i] = calls.get(i).getArity();
+        }
+        return new Program(
+                Arrays.copyOf(code, length),
+                exactConstants,
+                doubleConstants,
+                longConstants,
+                variables.keySet().toArray(new String[0]),
+                functions,
+                arities,
+                maxDepth);
+    }
+
+    /**
+     * @param names 槽位对应的变量名，须包含全部变量
+     * @return 变量下标替换为槽位下标的程序
+     */
+    @NotNull
+    Program bind(@NotNull String expression, @NotNull String[] names) {
+        int[] slots = new int[variables.length];
+        for (int i = 0; i < variables.length; i++) {
+            slots[i] = -1;
+            for (int j = 0; j < names.length; j++) {
+                if (variables[i].equals(names[j])) {
+                    slots[i] = j;
+                    break;
+                }
+            }
+            if (slots[i] == -1) {
+                throw new ExpressionCalculationException(expression, "Unbound variable! (" + variables[i] + ")");
+            }
+        }
+        int[] code = this.code.clone();
+        for (int i = 0; i < code.length; i++) {
+            if ((code[i] & KIND_MASK) == VARIABLE) {
+                code[i] = slots[code[i] >>> KIND_BITS] << KIND_BITS | VARIABLE;
+            }
+        }
+        return new Program(
+                code, constants, doubleConstants, longConstants, names.clone(), functions, arities, maxDepth);
+    }
+
+    /** @return 逐行列出的指令 */
+    @NotNull
+    String explain() {
+        StringBuilder builder = new StringBuilder(code.length * 16);
+        for (int i = 0; i < code.length; i++) {
+            int index = code[i] >>> KIND_BITS;
+            builder.append(String.format("%04d ", i));
+            switch (code[i] & KIND_MASK) {
+                case CONSTANT:
+                    builder.append("CONSTANT ").append(constants[index]);
+                    break;
+                case VARIABLE:
+                    builder.append("VARIABLE ").append(variables[index]);
+                    break;
+                case OPERATOR:
+                    builder.append("OPERATOR ").append(OPERATORS[index].getSymbol());
+                    break;
+                case CALL:
+                    builder.append("CALL ").append(functions[index].getName()).append('/').append(arities[index]);
+                    break;
+                case JUMP_IF_FALSE:
+                    builder.append(String.format("JUMP_IF_FALSE %04d", index));
+                    break;
+                default:
+                    builder.append(String.format("JUMP %04d", index));
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    /** @param values 按 {@link #variables} 顺序排列的变量值 */
+    double evaluateDouble(@NotNull double[] values) {
+        EvaluationContext context = EvaluationContext.local();
+        context.enter();
+        try {
+            return evaluateDouble(values, context);
+        } finally {
+            context.exit();
+        }
+    }
+
+    /**
+     * 栈深度已在 {@link #of(String, List, int, int)} 中校验，求值时不再分配
+     *
+     * @param values 按 {@link #variables} 顺序排列的变量值
+     * @param context 已进入的求值上下文
+     */
+    double evaluateDouble(@NotNull double[] values, @NotNull EvaluationContext context) {
+        double[] stack = context.doubleStack(maxDepth);
+        int top = -1;
+        int position = 0;
+        while (position < code.length) {
+            int instruction = code[position++];
+            int index = instruction >>> KIND_BITS;
+            switch (instruction & KIND_MASK) {
+                case CONSTANT:
+                    stack[++top] = doubleConstants[index];
+                    break;
+                case VARIABLE:
+                    stack[++top] = values[index];
+                    break;
+                case OPERATOR:
+                    double second = stack[top--];
+                    stack[top] = OPERATORS[index].calculate(stack[top], second);
+                    break;
+                case CALL:
+                    double[] arguments = context.doubleArguments(arities[index]);
+                    top -= arguments.length;
+                    System.arraycopy(stack, top + 1, arguments, 0, arguments.length);
+                    stack[++top] = functions[index].applyAsDouble(arguments);
+                    break;
+                case JUMP_IF_FALSE:
+                    // NaN 与生成的字节码及 Branch 一致视为假
+                    if (!(stack[top--] > 0)) {
+                        position = index;
+                    }
+                    break;
+                default:
+                    position = index;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * @param values 按 {@link #variables} 顺序排列的变量值
+     * @throws ArithmeticException 除数为 0 时
+     */
+    long evaluateLong(@NotNull long[] values) {
+        EvaluationContext context = EvaluationContext.local();
+        context.enter();
+        try {
+            return evaluateLong(values, context);
+        } finally {
+            context.exit();
+        }
+    }
+
+    /**
+     * @param values 按 {@link #variables} 顺序排列的变量值
+     * @param context 已进入的求值上下文
+     * @throws ArithmeticException 除数为 0 时
+     */
+    long evaluateLong(@NotNull long[] values, @NotNull EvaluationContext context) {
+        long[] stack = context.longStack(maxDepth);
+        int top = -1;
+        int position = 0;
+        while (position < code.length) {
+            int instruction = code[position++];
+            int index = instruction >>> KIND_BITS;
+            switch (instruction & KIND_MASK) {
+                case CONSTANT:
+                    stack[++top] = longConstants[index];
+                    break;
+                case VARIABLE:
+                    stack[++top] = values[index];
+                    break;
+                case OPERATOR:
+                    long second = stack[top--];
+                    stack[top] = OPERATORS[index].calculate(stack[top], second);
+                    break;
+                case CALL:
+                    long[] arguments = context.longArguments(arities[index]);
+                    top -= arguments.length;
+                    System.arraycopy(stack, top + 1, arguments, 0, arguments.length);
+                    stack[++top] = functions[index].applyAsLong(arguments);
+                    break;
+                case JUMP_IF_FALSE:
+                    if (stack[top--] <= 0) {
+                        position = index;
+                    }
+                    break;
+                default:
+                    position = index;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * @param values 按 {@link #variables} 顺序排列的变量值
+     * @throws ArithmeticException 除数为 0 时
+     */
+    @NotNull
+    Number evaluateExact(@NotNull Number[] values) {
+        EvaluationContext context = EvaluationContext.local();
+        context.enter();
+        try {
+            return evaluateExact(values, context);
+        } finally {
+            context.exit();
+        }
+    }
+
+    /**
+     * @param values 按 {@link #variables} 顺序排列的变量值
+     * @param context 已进入的求值上下文
+     * @throws ArithmeticException 除数为 0 时
+     */
+    @NotNull
+    Number evaluateExact(@NotNull Number[] values, @NotNull EvaluationContext context) {
+        Number[] stack = context.exactStack(maxDepth);
+        try {
+            return evaluateExact(values, context, stack);
+        } finally {
+            // 不持有本次计算的中间结果
+            Arrays.fill(stack, 0, maxDepth, null);
+        }
+    }
+
+    @NotNull
+    private Number evaluateExact(@NotNull Number[] values, @NotNull EvaluationContext context, Number[] stack) {
+        int top = -1;
+        int position = 0;
+        while (position < code.length) {
+            int instruction = code[position++];
+            int index = instruction >>> KIND_BITS;
+            switch (instruction & KIND_MASK) {
+                case CONSTANT:
+                    stack[++top] = constants[index];
+                    break;
+                case VARIABLE:
+                    stack[++top] = values[index];
+                    break;
+                case OPERATOR:
+                    Number second = stack[top--];
+                    stack[top] = OPERATORS[index].calculate(stack[top], second);
+                    break;
+                case CALL:
+                    Number[] arguments = context.exactArguments(arities[index]);
+                    top -= arguments.length;
+                    System.arraycopy(stack, top + 1, arguments, 0, arguments.length);
+                    stack[++top] = functions[index].apply(arguments);
+                    Arrays.fill(arguments, null);
+                    break;
+                case JUMP_IF_FALSE:
+                    if (Operator.asBigDecimal(stack[top--]).signum() <= 0) {
+                        position = index;
+                    }
+                    break;
+                default:
+                    position = index;
+            }
+        }
+        return stack[0];
+    }
+
+    /**
+     * 逐列计算 {@code [offset, offset + length)} 范围内的各行，结果写入 {@code out} 的相同位置；含函数调用或分支时逐行计算。
+     *
+     * @param columns 按 {@link #variables} 顺序排列的变量列
+     * @param parallel 是否将较大的批次拆分到 {@link ForkJoinPool#commonPool()} 中计算
+     */
+    void evaluateBatch(@NotNull double[][] columns, int offset, int length, @NotNull double[] out, boolean parallel) {
+        Validation.notNull(columns, "columns must not be null.");
+        Validation.notNull(out, "out must not be null.");
+        Validation.is(columns.length >= variables.length, "columns must cover all variables.");
+        Validation.is(offset >= 0 && length >= 0, "offset and length must not be negative.");
+        Validation.is(offset + length <= out.length, "out is too short.");
+        for (double[] column : columns) {
+            Validation.notNull(column, "column must not be null.");
+            Validation.is(offset + length <= column.length, "column is too short.");
+        }
+        if (parallel && length >= 2 * PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new BatchTask(this, columns, offset, length, out));
+            return;
+        }
+        evaluateBatch(columns, offset, length, out);
+    }
+
+    private void evaluateBatch(double[][] columns, int offset, int length, double[] out) {
+        if (!linear) {
+            evaluateRows(columns, offset, length, out);
+            return;
+        }
+        int chunkSize = Math.min(length, BATCH_CHUNK_SIZE);
+        double[][] constantColumns = new double[doubleConstants.length][];
+        double[][] buffers = new double[maxDepth][chunkSize];
+        double[][] sources = new double[maxDepth][];
+        int[] bases = new int[maxDepth];
+        for (int start = offset, end = offset + length; start < end; start += chunkSize) {
+            int size = Math.min(chunkSize, end - start);
+            int top = -1;
+            for (int instruction : code) {
+                int index = instruction >>> KIND_BITS;
+                switch (instruction & KIND_MASK) {
+                    case CONSTANT:
+                        double[] constantColumn = constantColumns[index];
+                        if (constantColumn == null) {
+                            constantColumn = new double[chunkSize];
+                            Arrays.fill(constantColumn, doubleConstants[index]);
+                            constantColumns[index] = constantColumn;
+                        }
+                        sources[++top] = constantColumn;
+                        bases[top] = 0;
+                        break;
+                    case VARIABLE:
+                        sources[++top] = columns[index];
+                        bases[top] = start;
+                        break;
+                    default:
+                        top--;
+                        apply(
+                                OPERATORS[index],
+                                sources[top],
+                                bases[top],
+                                sources[top + 1],
+                                bases[top + 1],
+                                buffers[top],
+                                size);
+                        sources[top] = buffers[top];
+                        bases[top] = 0;
+                }
+            }
+            System.arraycopy(sources[0], bases[0], out, start, size);
+        }
+    }
+
+    /** 含函数调用或分支的程序逐行计算，未选中的分支不会被计算 */
+    private void evaluateRows(double[][] columns, int offset, int length, double[] out) {
+        double[] values = new double[variables.length];
+        EvaluationContext context = EvaluationContext.local();
+        context.enter();
+        try {
+            for (int row = offset, end = offset + length; row < end; row++) {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = columns[i][row];
+                }
+                out[row] = evaluateDouble(values, context);
+            }
+        } finally {
+            context.exit();
+        }
+    }
+
+    /** 每个运算符各自展开为独立的循环，便于 JIT 向量化 */
+    private static void apply(
+            Operator operator,
+            double[] first,
+            int firstBase,
+            double[] second,
+            int secondBase,
+            double[] result,
+            int length) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] + second[secondBase + i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] - second[secondBase + i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] * second[secondBase + i];
+                }
+                break;
+            case DIVIDE:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] / second[secondBase + i];
+                }
+                break;
+            case MOD:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] % second[secondBase + i];
+                }
+                break;
+            case POWER:
+                for (int i = 0; i < length; i++) {
+                    result[i] = Math.pow(first[firstBase + i], second[secondBase + i]);
+                }
+                break;
+            case EQUALS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] == second[secondBase + i] ? 1 : 0;
+                }
+                break;
+            case LESS_THAN:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] < second[secondBase + i] ? 1 : 0;
+                }
+                break;
+            case GREATER_THAN:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] > second[secondBase + i] ? 1 : 0;
+                }
+                break;
+            case LESS_THAN_OR_EQUALS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] <= second[secondBase + i] ? 1 : 0;
+                }
+                break;
+            case GREATER_THAN_OR_EQUALS:
+                for (int i = 0; i < length; i++) {
+                    result[i] = first[firstBase + i] >= second[secondBase + i] ? 1 : 0;
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+    }
+
+    private static final class BatchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Program program;
+        private final transient double[][] columns;
+        private final int offset;
+        private final int length;
+        private final transient double[] out;
+
+        private BatchTask(Program program, double[][] columns, int offset, int length, double[] out) {
+            this.program = program;
+            this.columns = columns;
+            this.offset = offset;
+            this.length = length;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (length < 2 * PARALLEL_THRESHOLD) {
+                program.evaluateBatch(columns, offset, length, out);
+                return;
+            }
+            int half = length >>> 1;
+            invokeAll(
+                    new BatchTask(program, columns, offset, half, out),
+                    new BatchTask(program, columns, offset + half, length - half, out));
+        }
+    }
+}
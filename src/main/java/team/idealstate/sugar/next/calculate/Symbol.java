@@ -18,14 +18,12 @@ package team.idealstate.sugar.next.calculate;
 
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public interface Symbol {
 
+    /** @return 不可修改的运算符与括号字符集合 */
     static Set<Character> getKeywords() {
-        return Stream.concat(Operator.KEYWORDS.stream(), Parentheses.KEYWORDS.stream())
-                .collect(Collectors.toSet());
+        return SymbolKeywords.KEYWORDS;
     }
 
     String getSymbol();
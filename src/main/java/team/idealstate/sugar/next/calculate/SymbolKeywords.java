@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.calculate;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/** {@link Symbol#getKeywords()} 的缓存，首次使用时才初始化，避免与 {@link Operator} 的初始化相互依赖 */
+abstract class SymbolKeywords {
+
+    static final Set<Character> KEYWORDS;
+
+    static {
+        Set<Character> keywords = new HashSet<>(Operator.KEYWORDS);
+        keywords.addAll(Parentheses.KEYWORDS);
+        KEYWORDS = Collections.unmodifiableSet(keywords);
+    }
+}
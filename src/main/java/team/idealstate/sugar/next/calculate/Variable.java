@@ -16,13 +16,7 @@
 
 package team.idealstate.sugar.next.calculate;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.regex.Pattern;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
@@ -31,28 +25,27 @@ import lombok.ToString;
 @EqualsAndHashCode
 @ToString
 public final class Variable implements Cloneable {
-    private static final Set<Character> NAMING_HEADER_RULE;
-    private static final Set<Character> NAMING_RULE;
-    private static final Pattern CHINESE_CHAR = Pattern.compile("[\\u4e00-\\u9fa5]");
+    private static final int ASCII = 128;
+    private static final char CHINESE_CHAR_MIN = '\u4e00';
+    private static final char CHINESE_CHAR_MAX = '\u9fa5';
+    /** ASCII 字符是否可作为变量名的首个字符 */
+    private static final boolean[] NAMING_HEADER_RULE = new boolean[ASCII];
+    /** ASCII 字符是否可作为变量名的内容 */
+    private static final boolean[] NAMING_RULE = new boolean[ASCII];
 
     static {
-        List<Character> a2z = Arrays.asList(
-                'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm', 'n', 'o', 'p', 'q', 'r', 's', 't', 'u',
-                'v', 'w', 'x', 'y', 'z');
-        List<Character> A2Z = Arrays.asList(
-                'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M', 'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U',
-                'V', 'W', 'X', 'Y', 'Z');
-        List<Character> o29 = Arrays.asList('0', '1', '2', '3', '4', '5', '6', '7', '8', '9');
-        List<Character> other = Arrays.asList('_', '$');
-        Set<Character> rule = new HashSet<>(a2z.size() + A2Z.size() + other.size());
-        rule.addAll(a2z);
-        rule.addAll(A2Z);
-        rule.addAll(other);
-        NAMING_HEADER_RULE = Collections.unmodifiableSet(rule);
-        rule = new HashSet<>(NAMING_HEADER_RULE.size() + o29.size());
-        rule.addAll(NAMING_HEADER_RULE);
-        rule.addAll(o29);
-        NAMING_RULE = Collections.unmodifiableSet(rule);
+        for (char c = 'a'; c <= 'z'; c++) {
+            NAMING_HEADER_RULE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            NAMING_HEADER_RULE[c] = true;
+        }
+        NAMING_HEADER_RULE['_'] = true;
+        NAMING_HEADER_RULE['$'] = true;
+        System.arraycopy(NAMING_HEADER_RULE, 0, NAMING_RULE, 0, ASCII);
+        for (char c = '0'; c <= '9'; c++) {
+            NAMING_RULE[c] = true;
+        }
     }
 
     private final String name;
@@ -64,29 +57,30 @@ public final class Variable implements Cloneable {
         this.value = value;
     }
 
+    /**
+     * 运算符与括号不允许包含变量名的字符（见 {@link Operator}），因此无需再排除 {@link Symbol#getKeywords()}。
+     */
     public static boolean isNameHeader(char header) {
-        return (NAMING_HEADER_RULE.contains(header)
-                        || CHINESE_CHAR.matcher(String.valueOf(header)).find())
-                && !Symbol.getKeywords().contains(header);
+        return header < ASCII ? NAMING_HEADER_RULE[header] : isChineseChar(header);
     }
 
     public static boolean isNameContent(char content) {
-        return (NAMING_RULE.contains(content)
-                        || CHINESE_CHAR.matcher(String.valueOf(content)).find())
-                && !Symbol.getKeywords().contains(content);
+        return content < ASCII ? NAMING_RULE[content] : isChineseChar(content);
     }
 
     public static boolean hasNameContent(String content) {
         for (int i = 0; i < content.length(); i++) {
-            char c = content.charAt(i);
-            if (NAMING_RULE.contains(c)
-                    || CHINESE_CHAR.matcher(String.valueOf(c)).find()) {
+            if (isNameContent(content.charAt(i))) {
                 return true;
             }
         }
         return false;
     }
 
+    private static boolean isChineseChar(char c) {
+        return c >= CHINESE_CHAR_MIN && c <= CHINESE_CHAR_MAX;
+    }
+
     public static void validateName(CharSequence name) {
         if (name == null || name.length() == 0 || !isNameHeader(name.charAt(0))) {
             throw new IllegalArgumentException("Invalid variable name [" + name + "]! (column: 0)");
@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public abstract class ExecutorUtils {
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+    private static final boolean VIRTUAL_THREAD_SUPPORTED = newVirtualThreadFactory("probe-") != null;
+
+    /** @return 当前运行时是否支持虚拟线程（Java 21+） */
+    public static boolean isVirtualThreadSupported() {
+        return VIRTUAL_THREAD_SUPPORTED;
+    }
+
+    /** @return 支持时创建虚拟线程，否则创建守护平台线程，线程名为 name 加上序号 */
+    @NotNull
+    public static ThreadFactory newThreadFactory(@NotNull String name) {
+        Validation.notNullOrBlank(name, "name must not be null or blank.");
+        String prefix = name + "-";
+        if (VIRTUAL_THREAD_SUPPORTED) {
+            ThreadFactory threadFactory = newVirtualThreadFactory(prefix);
+            if (threadFactory != null) {
+                return threadFactory;
+            }
+        }
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * @param concurrency 最大并发执行的任务数量
+     * @param queueCapacity 等待执行的任务的最大数量，超出时拒绝提交
+     * @return 有界的执行器，空闲线程会在一段时间后退出
+     */
+    @NotNull
+    public static ExecutorService newBoundedExecutor(@NotNull String name, int concurrency, int queueCapacity) {
+        Validation.is(concurrency > 0, "concurrency must be greater than 0.");
+        Validation.is(queueCapacity > 0, "queueCapacity must be greater than 0.");
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                concurrency,
+                concurrency,
+                KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                newThreadFactory(name),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory newVirtualThreadFactory(@NotNull String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
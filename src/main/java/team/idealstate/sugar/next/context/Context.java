@@ -23,6 +23,7 @@ import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.util.List;
 import team.idealstate.sugar.next.context.exception.ContextException;
+import team.idealstate.sugar.next.eventbus.Event;
 import team.idealstate.sugar.next.eventbus.EventBus;
 import team.idealstate.sugar.validate.annotation.NotNull;
 import team.idealstate.sugar.validate.annotation.Nullable;
@@ -35,6 +36,10 @@ public interface Context {
     String RESOURCE_CONTEXT = "context:";
     String PROPERTY_ENVIRONMENT_KEY = "sugar.next.environment";
 
+    /**
+     * @param eventBus 外部事件总线，上下文会创建自己的事件总线，并从外部事件总线转发其订阅的事件类型
+     * @see #exportEvent(Class)
+     */
     @NotNull
     static Context of(
             @NotNull ContextHolder contextHolder,
@@ -122,4 +127,14 @@ public interface Context {
 
     @NotNull
     <T> List<Bean<T>> getBeans(@NotNull Class<T> beanType);
+
+    /**
+     * 将本上下文事件总线上发布的 eventType 及其子类型的事件转发到外部事件总线，在本上下文的订阅者之后投递，直到上下文被销毁。
+     *
+     * @throws UnsupportedOperationException 默认实现不支持转发
+     */
+    default void exportEvent(@NotNull Class<? extends Event> eventType) {
+        throw new UnsupportedOperationException(
+                String.format("%s does not support exporting events.", getClass().getName()));
+    }
 }
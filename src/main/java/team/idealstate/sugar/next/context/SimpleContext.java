@@ -47,6 +47,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -69,6 +70,7 @@ import team.idealstate.sugar.next.bytecode.exception.BytecodeParsingException;
 import team.idealstate.sugar.next.context.annotation.component.Component;
 import team.idealstate.sugar.next.context.annotation.component.Configuration;
 import team.idealstate.sugar.next.context.annotation.component.Serialization;
+import team.idealstate.sugar.next.context.annotation.component.Subscriber;
 import team.idealstate.sugar.next.context.annotation.component.Supplier;
 import team.idealstate.sugar.next.context.annotation.feature.DependsOn;
 import team.idealstate.sugar.next.context.annotation.feature.Environment;
@@ -95,7 +97,12 @@ import team.idealstate.sugar.next.context.lifecycle.Destroyable;
 import team.idealstate.sugar.next.context.lifecycle.Initializable;
 import team.idealstate.sugar.next.context.util.AutowiredUtils;
 import team.idealstate.sugar.next.databind.Property;
+import team.idealstate.sugar.next.eventbus.Event;
+import team.idealstate.sugar.next.eventbus.EventBridge;
 import team.idealstate.sugar.next.eventbus.EventBus;
+import team.idealstate.sugar.next.eventbus.EventHandlerBinding;
+import team.idealstate.sugar.next.eventbus.EventSubscriber;
+import team.idealstate.sugar.next.eventbus.Order;
 import team.idealstate.sugar.next.function.Lazy;
 import team.idealstate.sugar.next.function.closure.Function;
 import team.idealstate.sugar.next.function.closure.Provider;
@@ -121,8 +128,20 @@ final class SimpleContext implements Context {
     @NonNull
     private final ContextLifecycle contextLifecycle;
 
+    /** 上下文的事件总线所桥接的外部事件总线，通常是 {@link EventBus#instance()} */
     @NonNull
-    private final EventBus eventBus;
+    private final EventBus parentEventBus;
+
+    /** 上下文独占的事件总线，销毁时整体丢弃 */
+    private volatile EventBus eventBus;
+
+    /** 将外部事件总线上本上下文订阅的事件类型按订阅者的顺序转发到 {@link #eventBus} */
+    private volatile EventBridge eventBridge;
+
+    /** 将 {@link #eventBus} 上导出的事件类型转发到外部事件总线 */
+    private volatile EventBridge exportBridge;
+
+    private final Set<Class<? extends Event>> exportedEvents = new CopyOnWriteArraySet<>();
 
     private volatile int status = STATUS_DESTROYED;
     private final Lock lock = new ReentrantLock();
@@ -484,6 +503,16 @@ final class SimpleContext implements Context {
         });
     }
 
+    @Override
+    public void exportEvent(@NotNull Class<? extends Event> eventType) {
+        Validation.notNull(eventType, "eventType must not be null.");
+        exportedEvents.add(eventType);
+        EventBridge exportBridge = this.exportBridge;
+        if (exportBridge != null) {
+            exportBridge.forward(eventType);
+        }
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     private <M extends Annotation, T> T doCreate(
             @NotNull BeanFactory<M> beanFactory,
@@ -587,6 +616,22 @@ final class SimpleContext implements Context {
                 Log.debug(() -> String.format(
                         "(%s ms) initialized bean. (beanName='%s')", System.currentTimeMillis() - start[1], beanName));
             }
+            Subscriber subscriber = marked.getAnnotation(Subscriber.class);
+            if (subscriber != null) {
+                start[1] = System.currentTimeMillis();
+                Log.debug(() -> String.format("subscribe events. (beanName='%s')", beanName));
+                if (proxy instanceof EventSubscriber) {
+                    eventBus.subscribe(this, subscriber.event(), (EventSubscriber) proxy);
+                    eventBridge.forward(
+                            subscriber.event(), proxy instanceof Order ? ((Order) proxy).getOrder() : Order.LAST);
+                }
+                for (EventHandlerBinding binding : EventHandlerBinding.bind(proxy, marked)) {
+                    binding.subscribe(eventBus, this);
+                    eventBridge.forward(binding.getEventType(), binding.getOrder());
+                }
+                Log.debug(() -> String.format(
+                        "(%s ms) subscribed events. (beanName='%s')", System.currentTimeMillis() - start[1], beanName));
+            }
             Log.debug(() -> String.format(
                     "(%s ms) created bean. (beanName='%s', runtimeType='%s')",
                     System.currentTimeMillis() - start[0], beanName, proxy.getClass()));
@@ -617,6 +662,13 @@ final class SimpleContext implements Context {
 
     private void doBeforeInitialize() {
         getEnvironment();
+        this.eventBus = EventBus.create();
+        this.eventBridge = EventBridge.of(parentEventBus, eventBus);
+        EventBridge exportBridge = EventBridge.of(eventBus, parentEventBus);
+        this.exportBridge = exportBridge;
+        for (Class<? extends Event> eventType : exportedEvents) {
+            exportBridge.forward(eventType);
+        }
     }
 
     private void doInitialize() {
@@ -970,6 +1022,8 @@ final class SimpleContext implements Context {
 
     private void doDestroy() {
         try {
+            eventBridge.close();
+            exportBridge.close();
             int count = 0;
             List<Object> instances = new ArrayList<>(this.instances);
             Collections.reverse(instances);
@@ -993,6 +1047,10 @@ final class SimpleContext implements Context {
             markedMap.clear();
             instances.clear();
             inProgress.clear();
+            eventBridge = null;
+            exportBridge = null;
+            exportedEvents.clear();
+            eventBus = null;
         }
     }
 
@@ -39,4 +39,10 @@ public @interface Configuration {
      * @see Context#getResource(String, Class, ClassLoader)
      */
     String release() default "";
+
+    /**
+     * @return 是否在配置文件旁保存二进制快照（{@code <uri>.bin}），配置文件未变化时直接从快照加载
+     * @see team.idealstate.sugar.next.databind.codec.binary.BinaryCodec
+     */
+    boolean snapshot() default false;
 }
@@ -16,10 +16,12 @@
 
 package team.idealstate.sugar.next.context.aware;
 
+import team.idealstate.sugar.next.context.Context;
 import team.idealstate.sugar.next.eventbus.EventBus;
 import team.idealstate.sugar.validate.annotation.NotNull;
 
 public interface EventBusAware extends Aware {
 
+    /** @param eventBus 上下文的事件总线，发布的事件只有经 {@link Context#exportEvent(Class)} 导出的类型才会到达外部事件总线 */
     void setEventBus(@NotNull EventBus eventBus);
 }
@@ -16,10 +16,97 @@
 
 package team.idealstate.sugar.next.context.factory;
 
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import team.idealstate.sugar.next.context.Bean;
+import team.idealstate.sugar.next.context.Context;
 import team.idealstate.sugar.next.context.annotation.component.Component;
+import team.idealstate.sugar.next.context.exception.ContextException;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+import team.idealstate.sugar.next.database.TransactionInterceptor;
+import team.idealstate.sugar.next.database.TransactionManager;
+import team.idealstate.sugar.next.database.annotation.Transaction;
+import team.idealstate.sugar.next.function.Lazy;
+import team.idealstate.sugar.next.proxy.ProxyFactory;
+import team.idealstate.sugar.next.proxy.exception.ProxyException;
+import team.idealstate.sugar.validate.annotation.NotNull;
 
 public class ComponentBeanFactory extends AutowiredConstructorBeanFactory<Component> {
+
+    private final Map<DatabaseSessionFactory, TransactionManager> transactionManagers = new ConcurrentHashMap<>();
+
     public ComponentBeanFactory() {
         super(Component.class);
     }
+
+    @NotNull
+    @Override
+    protected <T> T doProxy(
+            @NotNull Context context,
+            @NotNull String beanName,
+            @NotNull Component metadata,
+            @NotNull T instance,
+            @NotNull Class<T> marked) {
+        Class<?> type = instance.getClass();
+        if (!isTransactional(type)) {
+            return instance;
+        }
+        Lazy<TransactionManager> transactionManager = Lazy.of(() -> getTransactionManager(context, type));
+        try {
+            return ProxyFactory.instance().proxy(instance, method -> {
+                Transaction transaction = method.getAnnotation(Transaction.class);
+                if (transaction == null) {
+                    return null;
+                }
+                return Collections.singletonList(new TransactionInterceptor(
+                        transactionManager,
+                        transaction.batch() ? DatabaseSessionFactory.BATCH_EXECUTION_MODE : transaction.executionMode(),
+                        transaction.isolationLevel()));
+            });
+        } catch (ProxyException e) {
+            throw new ContextException(
+                    String.format(
+                            "%s: '%s' has @Transaction methods but cannot be proxied.",
+                            getMetadataType().getSimpleName(), type.getName()),
+                    e);
+        }
+    }
+
+    /** 包括非 public 的方法，以便无法被代理覆盖的 @Transaction 方法使组件创建失败，而不是在没有事务的情况下执行 */
+    private static boolean isTransactional(@NotNull Class<?> type) {
+        for (Method method : type.getMethods()) {
+            if (method.isAnnotationPresent(Transaction.class)) {
+                return true;
+            }
+        }
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (!Modifier.isStatic(modifiers)
+                        && !Modifier.isPrivate(modifiers)
+                        && method.isAnnotationPresent(Transaction.class)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @NotNull
+    private TransactionManager getTransactionManager(@NotNull Context context, @NotNull Class<?> type) {
+        Bean<TransactionManager> transactionManager = context.getBean(TransactionManager.class);
+        if (transactionManager != null) {
+            return transactionManager.getInstance();
+        }
+        Bean<DatabaseSessionFactory> databaseSessionFactory = context.getBean(DatabaseSessionFactory.class);
+        if (databaseSessionFactory == null) {
+            throw new ContextException(String.format(
+                    "%s: No TransactionManager or DatabaseSessionFactory found with '%s'.",
+                    getMetadataType().getSimpleName(), type.getName()));
+        }
+        return transactionManagers.computeIfAbsent(databaseSessionFactory.getInstance(), TransactionManager::of);
+    }
 }
@@ -33,6 +33,7 @@ import team.idealstate.sugar.next.context.annotation.component.Configuration;
 import team.idealstate.sugar.next.context.annotation.component.Serialization;
 import team.idealstate.sugar.next.context.exception.ContextException;
 import team.idealstate.sugar.next.databind.codec.Codec;
+import team.idealstate.sugar.next.databind.codec.binary.BinaryCodec;
 import team.idealstate.sugar.next.io.IOUtils;
 import team.idealstate.sugar.string.StringUtils;
 import team.idealstate.sugar.validate.Validation;
@@ -60,16 +61,16 @@ public class ConfigurationBeanFactory extends AbstractBeanFactory<Configuration>
                     getMetadataType().getSimpleName(), uri, e.getMessage()));
             return false;
         }
+        String extension = uri.substring(uri.lastIndexOf('.') + 1);
+        String release = metadata.release().replace("\\", "/");
+        String releaseExtension = release.substring(release.lastIndexOf('.') + 1);
+        boolean isSupported = BinaryCodec.EXTENSION.equals(extension);
+        boolean isSupportedRelease = BinaryCodec.EXTENSION.equals(releaseExtension);
         List<Bean<Codec>> beans = context.getBeans(Codec.class);
-        if (beans.isEmpty()) {
+        if (beans.isEmpty() && !isSupported) {
             throw new ContextException(String.format(
                     "%s: No codec found with '%s'.", getMetadataType().getSimpleName(), marked.getName()));
         }
-        String extension = uri.substring(uri.lastIndexOf('.') + 1);
-        String release = metadata.release().replace("\\", "/");
-        String releaseExtension = release.substring(release.lastIndexOf('.') + 1);
-        boolean isSupported = false;
-        boolean isSupportedRelease = false;
         for (Bean<Codec> bean : beans) {
             Annotation annotation = bean.getMetadata();
             if (!(annotation instanceof Serialization)) {
@@ -142,6 +143,13 @@ public class ConfigurationBeanFactory extends AbstractBeanFactory<Configuration>
                     String.format(
                             "%s: Invalid file configuration uri '%s'.",
                             getMetadataType().getSimpleName(), uri));
+            File snapshot = metadata.snapshot() ? getFile(context, uri) : null;
+            if (snapshot != null && snapshot.isFile()) {
+                Object loaded = ConfigurationSnapshot.load(snapshot, marked);
+                if (loaded != null) {
+                    return (T) loaded;
+                }
+            }
             InputStream resource = context.getResource(uri, marked, markedClassLoader);
             String release;
             if (resource == null
@@ -181,24 +189,36 @@ public class ConfigurationBeanFactory extends AbstractBeanFactory<Configuration>
                                 getMetadataType().getSimpleName(), uri));
                 extension = uri.substring(uri.lastIndexOf('.') + 1);
             }
-            List<Bean<Codec>> beans = context.getBeans(Codec.class);
-            for (Bean<Codec> bean : beans) {
-                Annotation annotation = bean.getMetadata();
-                if (!(annotation instanceof Serialization)) {
-                    continue;
-                }
-                Codec codec = bean.getInstance();
-                if (((Serialization) annotation).value().equals(extension)) {
-                    return (T) functional(resource).use(Object.class, input -> codec.deserialize(input, marked));
-                }
+            Codec codec = getCodec(context, extension);
+            if (codec == null) {
+                throw new ContextException(String.format(
+                        "%s: No codec found with '%s'.", getMetadataType().getSimpleName(), marked.getName()));
             }
-            throw new ContextException(String.format(
-                    "%s: No codec found with '%s'.", getMetadataType().getSimpleName(), marked.getName()));
+            T configuration = (T) functional(resource).use(Object.class, input -> codec.deserialize(input, marked));
+            if (snapshot != null && snapshot.isFile() && configuration != null) {
+                ConfigurationSnapshot.store(snapshot, configuration);
+            }
+            return configuration;
         } catch (IOException e) {
             throw new ContextException(e);
         }
     }
 
+    @Nullable
+    private static Codec getCodec(@NotNull Context context, @NotNull String extension) {
+        List<Bean<Codec>> beans = context.getBeans(Codec.class);
+        for (Bean<Codec> bean : beans) {
+            Annotation annotation = bean.getMetadata();
+            if (!(annotation instanceof Serialization)) {
+                continue;
+            }
+            if (((Serialization) annotation).value().equals(extension)) {
+                return bean.getInstance();
+            }
+        }
+        return BinaryCodec.EXTENSION.equals(extension) ? BinaryCodec.INSTANCE : null;
+    }
+
     @Nullable
     private static File getFile(@NotNull Context context, String uri) {
         URI location;
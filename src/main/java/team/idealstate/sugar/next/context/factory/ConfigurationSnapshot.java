@@ -0,0 +1,135 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.context.factory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.databind.codec.binary.BinaryCodec;
+import team.idealstate.sugar.next.databind.codec.exception.CodecException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.next.io.IOUtils;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/**
+ * 配置文件的二进制快照，保存在配置文件旁的 {@code <file>.bin} 中。
+ *
+ * <p>快照头记录了配置文件的长度、修改时间与 CRC32，长度与修改时间一致时直接加载， 仅修改时间变化时再比较 CRC32。
+ * 快照无法解码时视为过期，由调用方回退到配置文件。
+ */
+public final class ConfigurationSnapshot {
+
+    private static final int MAGIC = 0x53434647;
+
+    private ConfigurationSnapshot() {}
+
+    /**
+     * @param source 配置文件
+     * @param type 配置类型
+     * @return 快照有效时为快照中的配置，不存在、已过期或已损坏时为 null
+     */
+    @Nullable
+    public static Object load(@NotNull File source, @NotNull Class<?> type) {
+        Validation.notNull(source, "source must not be null.");
+        Validation.notNull(type, "type must not be null.");
+        File snapshot = snapshotOf(source);
+        if (!snapshot.isFile()) {
+            return null;
+        }
+        try {
+            // 完整读入后剩余长度已知，损坏的长度字段不会导致过量分配
+            ByteArrayInputStream bytes = new ByteArrayInputStream(Files.readAllBytes(snapshot.toPath()));
+            DataInputStream input = new DataInputStream(bytes);
+            if (input.readInt() != MAGIC) {
+                return null;
+            }
+            long length = input.readLong();
+            long lastModified = input.readLong();
+            long checksum = input.readLong();
+            if (length != source.length()) {
+                return null;
+            }
+            if (lastModified != source.lastModified() && checksum != checksumOf(source)) {
+                return null;
+            }
+            return BinaryCodec.INSTANCE.deserialize(bytes, type);
+        } catch (IOException | RuntimeException e) {
+            Log.debug(() -> String.format(
+                    "ConfigurationSnapshot: Ignore snapshot '%s'. (%s)", snapshot.getPath(), e.getMessage()));
+            return null;
+        }
+    }
+
+    /**
+     * 写入快照，失败时只记录警告
+     *
+     * @param source 配置文件
+     * @param value 从配置文件读取的配置
+     */
+    public static void store(@NotNull File source, @NotNull Object value) {
+        Validation.notNull(source, "source must not be null.");
+        Validation.notNull(value, "value must not be null.");
+        File snapshot = snapshotOf(source);
+        File temporary = new File(snapshot.getPath() + ".tmp");
+        try {
+            long lastModified = source.lastModified();
+            long length = source.length();
+            long checksum = checksumOf(source);
+            try (DataOutputStream output =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))) {
+                output.writeInt(MAGIC);
+                output.writeLong(length);
+                output.writeLong(lastModified);
+                output.writeLong(checksum);
+                BinaryCodec.INSTANCE.serialize(value, output);
+            }
+            Files.move(temporary.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | CodecException e) {
+            //noinspection ResultOfMethodCallIgnored
+            temporary.delete();
+            Log.warn(String.format(
+                    "ConfigurationSnapshot: Failed to store snapshot '%s'. (%s)", snapshot.getPath(), e.getMessage()));
+        }
+    }
+
+    /** @return 配置文件对应的快照文件 */
+    @NotNull
+    public static File snapshotOf(@NotNull File source) {
+        return new File(source.getPath() + "." + BinaryCodec.EXTENSION);
+    }
+
+    private static long checksumOf(@NotNull File source) throws IOException {
+        CRC32 crc32 = new CRC32();
+        byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(source.toPath())) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                crc32.update(buffer, 0, read);
+            }
+        }
+        return crc32.getValue();
+    }
+}
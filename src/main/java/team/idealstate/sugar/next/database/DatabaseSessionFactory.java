@@ -23,6 +23,9 @@ public interface DatabaseSessionFactory {
     int DEFAULT_EXECUTION_MODE = Integer.MIN_VALUE;
     int DEFAULT_ISOLATION_LEVEL = Integer.MIN_VALUE;
 
+    /** 批量执行模式，写操作应缓存为 JDBC 批处理，在提交时统一执行 */
+    int BATCH_EXECUTION_MODE = Integer.MIN_VALUE + 1;
+
     /** @return 数据库会话，应使用默认的会话参数 */
     @NotNull
     default DatabaseSession openSession() {
@@ -35,6 +38,7 @@ public interface DatabaseSessionFactory {
      * @return 数据库会话，会话参数是否生效应查看其实现类，这只是标准而不是必须的
      * @see #DEFAULT_EXECUTION_MODE 实现类的默认执行模式应该使用此值
      * @see #DEFAULT_ISOLATION_LEVEL 实现类的默认隔离级别应该使用此值
+     * @see #BATCH_EXECUTION_MODE 实现类的批量执行模式应该使用此值
      */
     @NotNull
     DatabaseSession openSession(int executionMode, int isolationLevel);
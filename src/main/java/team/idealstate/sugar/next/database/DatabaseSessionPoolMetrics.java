@@ -0,0 +1,44 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database;
+
+/** 数据库会话池的运行指标，所有值均为读取时的快照 */
+public interface DatabaseSessionPoolMetrics {
+
+    int getMaxSize();
+
+    /** @return 已借出的会话数量 */
+    int getActive();
+
+    /** @return 池中空闲的会话数量 */
+    int getIdle();
+
+    /** @return 正在等待借出的调用者数量 */
+    int getPending();
+
+    /** @return 等待超时的次数 */
+    long getTimeouts();
+
+    /** @return 空闲时校验失败而被关闭的会话数量 */
+    long getEvictions();
+
+    /**
+     * @param percentile 百分位，取值范围 [0, 100]
+     * @return 最近借出会话的等待时间（纳秒）在该百分位上的值，没有样本时为 0
+     */
+    long getWaitTimePercentile(double percentile);
+}
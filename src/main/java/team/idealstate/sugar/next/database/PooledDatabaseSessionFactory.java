@@ -0,0 +1,357 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.database.exception.DatabaseException;
+import team.idealstate.sugar.next.function.closure.Condition;
+import team.idealstate.sugar.next.stacktrace.StackTraceUtils;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/**
+ * 池化的 {@link DatabaseSessionFactory}，按 (executionMode, isolationLevel) 分别缓存空闲会话。
+ *
+ * <p>借出的会话数量不超过 maxSize，超出时以公平顺序等待直到超时；从池中取出空闲会话时使用 validator 校验， 校验失败的会话会被关闭并重新获取。
+ *
+ * <p>归还会话时会先回滚未提交的事务，回滚失败的会话会被关闭而不是放回池中。
+ */
+public final class PooledDatabaseSessionFactory
+        implements DatabaseSessionFactory, DatabaseSessionPoolMetrics, Closeable {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000L;
+    private static final int WAIT_SAMPLES = 1024;
+
+    private final DatabaseSessionFactory databaseSessionFactory;
+    private final int maxSize;
+    private final long timeoutNanos;
+    private final Condition<DatabaseSession> validator;
+    private final Semaphore permits;
+    private final Map<Long, Pool> pools = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLongArray waitSamples = new AtomicLongArray(WAIT_SAMPLES);
+    private final AtomicLong waitSampleIndex = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public PooledDatabaseSessionFactory(@NotNull DatabaseSessionFactory databaseSessionFactory, int maxSize) {
+        this(databaseSessionFactory, maxSize, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS, null);
+    }
+
+    /**
+     * @param maxSize 同时借出的会话的最大数量，同时也是每组会话参数下空闲会话的最大数量
+     * @param timeout 借出会话时的最长等待时间
+     * @param validator 空闲会话的校验器，为 null 时不校验
+     */
+    public PooledDatabaseSessionFactory(
+            @NotNull DatabaseSessionFactory databaseSessionFactory,
+            int maxSize,
+            long timeout,
+            @NotNull TimeUnit unit,
+            @Nullable Condition<DatabaseSession> validator) {
+        Validation.notNull(databaseSessionFactory, "databaseSessionFactory must not be null.");
+        Validation.is(maxSize > 0, "maxSize must be greater than 0.");
+        Validation.is(timeout >= 0, "timeout must not be negative.");
+        Validation.notNull(unit, "unit must not be null.");
+        this.databaseSessionFactory = databaseSessionFactory;
+        this.maxSize = maxSize;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.validator = validator;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /** 预先打开指定数量的会话放入池中，数量不会超过 maxSize */
+    public void prewarm(int executionMode, int isolationLevel, int count) {
+        ensureOpen();
+        Pool pool = poolOf(executionMode, isolationLevel);
+        for (int i = 0; i < count && pool.idle.get() < maxSize; i++) {
+            DatabaseSession databaseSession = databaseSessionFactory.openSession(executionMode, isolationLevel);
+            Validation.notNull(databaseSession, "databaseSession must not be null.");
+            pool.release(databaseSession);
+        }
+    }
+
+    @NotNull
+    @Override
+    public DatabaseSession openSession(int executionMode, int isolationLevel) {
+        ensureOpen();
+        long start = System.nanoTime();
+        pending.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for a database session.", e);
+        } finally {
+            pending.decrementAndGet();
+        }
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new DatabaseException(String.format(
+                    "Timed out waiting for a database session after %s ms.",
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+        }
+        recordWait(System.nanoTime() - start);
+        Pool pool = poolOf(executionMode, isolationLevel);
+        try {
+            DatabaseSession databaseSession;
+            while ((databaseSession = pool.acquire()) != null) {
+                if (isValid(databaseSession)) {
+                    return new PooledDatabaseSession(pool, databaseSession);
+                }
+                evictions.incrementAndGet();
+                closeQuietly(databaseSession);
+            }
+            databaseSession = databaseSessionFactory.openSession(executionMode, isolationLevel);
+            Validation.notNull(databaseSession, "databaseSession must not be null.");
+            return new PooledDatabaseSession(pool, databaseSession);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /** 校验所有空闲会话并关闭校验失败的会话，适合由调用方定期执行 */
+    public void validateIdle() {
+        for (Pool pool : pools.values()) {
+            List<DatabaseSession> valid = new ArrayList<>(pool.idle.get());
+            DatabaseSession databaseSession;
+            while ((databaseSession = pool.acquire()) != null) {
+                if (isValid(databaseSession)) {
+                    valid.add(databaseSession);
+                } else {
+                    evictions.incrementAndGet();
+                    closeQuietly(databaseSession);
+                }
+            }
+            for (int i = valid.size() - 1; i >= 0; i--) {
+                pool.release(valid.get(i));
+            }
+        }
+    }
+
+    @NotNull
+    public DatabaseSessionPoolMetrics getMetrics() {
+        return this;
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getActive() {
+        return maxSize - permits.availablePermits();
+    }
+
+    @Override
+    public int getIdle() {
+        int idle = 0;
+        for (Pool pool : pools.values()) {
+            idle += pool.idle.get();
+        }
+        return idle;
+    }
+
+    @Override
+    public int getPending() {
+        return pending.get();
+    }
+
+    @Override
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    @Override
+    public long getWaitTimePercentile(double percentile) {
+        Validation.is(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100.");
+        int size = (int) Math.min(waitSampleIndex.get(), WAIT_SAMPLES);
+        if (size == 0) {
+            return 0L;
+        }
+        long[] samples = new long[size];
+        for (int i = 0; i < size; i++) {
+            samples[i] = waitSamples.get(i);
+        }
+        Arrays.sort(samples);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return samples[Math.max(0, Math.min(size - 1, index))];
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Pool pool : pools.values()) {
+            DatabaseSession databaseSession;
+            while ((databaseSession = pool.acquire()) != null) {
+                closeQuietly(databaseSession);
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        int index = (int) (waitSampleIndex.getAndIncrement() % WAIT_SAMPLES);
+        waitSamples.set(index, nanos);
+    }
+
+    private boolean isValid(@NotNull DatabaseSession databaseSession) {
+        if (validator == null) {
+            return true;
+        }
+        try {
+            return validator.test(databaseSession);
+        } catch (RuntimeException e) {
+            Log.debug(() -> String.format(
+                    "PooledDatabaseSessionFactory: Validation failed. (%s)", StackTraceUtils.makeThrowableDetails(e)));
+            return false;
+        }
+    }
+
+    private static boolean reset(@NotNull DatabaseSession databaseSession) {
+        try {
+            databaseSession.rollback();
+            return true;
+        } catch (RuntimeException e) {
+            Log.debug(() -> String.format(
+                    "PooledDatabaseSessionFactory: Failed to reset session. (%s)",
+                    StackTraceUtils.makeThrowableDetails(e)));
+            return false;
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new DatabaseException("PooledDatabaseSessionFactory is closed.");
+        }
+    }
+
+    @NotNull
+    private Pool poolOf(int executionMode, int isolationLevel) {
+        long key = ((long) executionMode << 32) | (isolationLevel & 0xFFFFFFFFL);
+        return pools.computeIfAbsent(key, it -> new Pool());
+    }
+
+    private static void closeQuietly(@NotNull DatabaseSession databaseSession) {
+        try {
+            databaseSession.close();
+        } catch (RuntimeException e) {
+            Log.warn(String.format(
+                    "PooledDatabaseSessionFactory: Failed to close session. (%s)",
+                    StackTraceUtils.makeThrowableDetails(e)));
+        }
+    }
+
+    private final class Pool {
+        private final ConcurrentLinkedDeque<DatabaseSession> sessions = new ConcurrentLinkedDeque<>();
+        private final AtomicInteger idle = new AtomicInteger();
+
+        @Nullable
+        private DatabaseSession acquire() {
+            DatabaseSession databaseSession = sessions.pollFirst();
+            if (databaseSession != null) {
+                idle.decrementAndGet();
+            }
+            return databaseSession;
+        }
+
+        private void release(@NotNull DatabaseSession databaseSession) {
+            if (closed || idle.incrementAndGet() > maxSize) {
+                idle.decrementAndGet();
+                closeQuietly(databaseSession);
+                return;
+            }
+            sessions.offerFirst(databaseSession);
+        }
+    }
+
+    private final class PooledDatabaseSession implements DatabaseSession {
+        private final Pool pool;
+        private final DatabaseSession databaseSession;
+        private final AtomicBoolean returned = new AtomicBoolean(false);
+
+        private PooledDatabaseSession(@NotNull Pool pool, @NotNull DatabaseSession databaseSession) {
+            this.pool = pool;
+            this.databaseSession = databaseSession;
+        }
+
+        @NotNull
+        @Override
+        public <T> T getRepository(@NotNull Class<T> repositoryType) {
+            ensureBorrowed();
+            return databaseSession.getRepository(repositoryType);
+        }
+
+        @Override
+        public void commit() {
+            ensureBorrowed();
+            databaseSession.commit();
+        }
+
+        @Override
+        public void rollback() {
+            ensureBorrowed();
+            databaseSession.rollback();
+        }
+
+        /** 回滚未提交的事务后将会话归还到池中而不是关闭，回滚失败的会话会被关闭 */
+        @Override
+        public void close() {
+            if (!returned.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (reset(databaseSession)) {
+                    pool.release(databaseSession);
+                } else {
+                    evictions.incrementAndGet();
+                    closeQuietly(databaseSession);
+                }
+            } finally {
+                permits.release();
+            }
+        }
+
+        private void ensureBorrowed() {
+            if (returned.get()) {
+                throw new DatabaseException("Database session has been returned to the pool.");
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.next.database.exception.TransactionException;
+import team.idealstate.sugar.next.function.closure.Function;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+@RequiredArgsConstructor
+final class SimpleTransactionManager implements TransactionManager {
+
+    @NonNull
+    private final DatabaseSessionFactory databaseSessionFactory;
+
+    @Nullable
+    private final Executor executor;
+
+    private final ThreadLocal<TransactionSession> current = new ThreadLocal<>();
+
+    @NotNull
+    @Override
+    public Executor getExecutor() {
+        return executor == null ? TransactionManager.super.getExecutor() : executor;
+    }
+
+    @NotNull
+    @Override
+    public TransactionSession openTransaction(int executionMode, int isolationLevel) {
+        TransactionSession transactionSession = current.get();
+        if (transactionSession != null) {
+            return transactionSession;
+        }
+        DatabaseSession databaseSession = databaseSessionFactory.openSession(executionMode, isolationLevel);
+        Validation.notNull(databaseSession, "databaseSession must not be null.");
+        transactionSession = new TransactionSession(databaseSession, current::remove);
+        current.set(transactionSession);
+        return transactionSession;
+    }
+
+    /** 提交期间解除调用线程绑定的事务会话，使在调用线程中直接运行的任务（如直接执行器或 CallerRunsPolicy）也开启独立的事务会话 */
+    @NotNull
+    @Override
+    public <R> CompletableFuture<R> submit(
+            int executionMode, int isolationLevel, @NotNull Function<TransactionSession, R> function) {
+        TransactionSession suspended = current.get();
+        if (suspended == null) {
+            return TransactionManager.super.submit(executionMode, isolationLevel, function);
+        }
+        current.remove();
+        try {
+            return TransactionManager.super.submit(executionMode, isolationLevel, function);
+        } finally {
+            current.set(suspended);
+        }
+    }
+
+    @NotNull
+    @Override
+    public <T> T getRepository(@NotNull Class<T> repositoryType) throws TransactionException {
+        Validation.notNull(repositoryType, "repositoryType must not be null.");
+        TransactionSession transactionSession = current.get();
+        if (transactionSession == null) {
+            throw new TransactionException("No transaction session is bound to the current thread.");
+        }
+        return transactionSession.getRepository(repositoryType);
+    }
+}
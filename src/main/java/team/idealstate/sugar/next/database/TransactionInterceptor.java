@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.next.function.closure.Provider;
+import team.idealstate.sugar.next.proxy.MethodInterceptor;
+import team.idealstate.sugar.next.proxy.MethodInvocation;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 为 {@link team.idealstate.sugar.next.database.annotation.Transaction} 方法开启或复用当前线程绑定的事务会话 */
+@RequiredArgsConstructor
+public final class TransactionInterceptor implements MethodInterceptor {
+
+    @NonNull
+    private final Provider<TransactionManager> transactionManager;
+
+    private final int executionMode;
+    private final int isolationLevel;
+
+    @Override
+    public Object intercept(@NotNull MethodInvocation invocation) throws Throwable {
+        TransactionManager transactionManager = this.transactionManager.provide();
+        Validation.notNull(transactionManager, "transactionManager must not be null.");
+        TransactionSession transactionSession =
+                transactionManager.openTransaction(executionMode, isolationLevel).open();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            transactionSession.rollback();
+            throw e;
+        } finally {
+            transactionSession.close();
+        }
+    }
+}
@@ -16,12 +16,35 @@
 
 package team.idealstate.sugar.next.database;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import team.idealstate.sugar.next.database.exception.TransactionException;
+import team.idealstate.sugar.next.function.closure.Function;
+import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
 
 /** 此接口应交给自动化框架使用，而不是开发者手动使用 */
 public interface TransactionManager {
 
+    /** @return 将事务会话绑定到当前线程的事务管理器 */
+    @NotNull
+    static TransactionManager of(@NotNull DatabaseSessionFactory databaseSessionFactory) {
+        return new SimpleTransactionManager(databaseSessionFactory, null);
+    }
+
+    /** @param executor 执行 {@link #submit(int, int, Function)} 的执行器 */
+    @NotNull
+    static TransactionManager of(@NotNull DatabaseSessionFactory databaseSessionFactory, @NotNull Executor executor) {
+        Validation.notNull(executor, "executor must not be null.");
+        return new SimpleTransactionManager(databaseSessionFactory, executor);
+    }
+
+    /** @return 执行异步事务的执行器，默认为共享的有界执行器（支持时使用虚拟线程） */
+    @NotNull
+    default Executor getExecutor() {
+        return TransactionExecutor.INSTANCE;
+    }
+
     /** @see #openTransaction(int, int) */
     @NotNull
     default TransactionSession openTransaction() {
@@ -42,4 +65,73 @@ public interface TransactionManager {
      */
     @NotNull
     <T> T getRepository(@NotNull Class<T> repositoryType) throws TransactionException;
+
+    /**
+     * 在 {@link #getExecutor()} 中开启一个独立的事务会话执行 function。
+     *
+     * <p>默认实现在执行器于调用线程中直接运行任务时（如直接执行器或 CallerRunsPolicy）会复用调用线程绑定的事务会话，
+     * 实现类应在提交期间解除该绑定，{@link #of(DatabaseSessionFactory)} 返回的实现已如此处理。
+     *
+     * @return function 的结果，事务提交后才会完成；function 抛出异常时回滚事务并以该异常完成
+     */
+    @NotNull
+    default <R> CompletableFuture<R> submit(
+            int executionMode, int isolationLevel, @NotNull Function<TransactionSession, R> function) {
+        Validation.notNull(function, "function must not be null.");
+        CompletableFuture<R> future = new CompletableFuture<>();
+        try {
+            getExecutor().execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    R result;
+                    TransactionSession transactionSession =
+                            openTransaction(executionMode, isolationLevel).open();
+                    try {
+                        result = function.call(transactionSession);
+                    } catch (Throwable e) {
+                        transactionSession.rollback();
+                        throw e;
+                    } finally {
+                        transactionSession.close();
+                    }
+                    future.complete(result);
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * @param callbackExecutor 完成结果的执行器，例如游戏服务器的主线程调度器
+     * @see #submit(int, int, Function)
+     */
+    @NotNull
+    default <R> CompletableFuture<R> submit(
+            int executionMode,
+            int isolationLevel,
+            @NotNull Function<TransactionSession, R> function,
+            @NotNull Executor callbackExecutor) {
+        Validation.notNull(callbackExecutor, "callbackExecutor must not be null.");
+        CompletableFuture<R> callback = new CompletableFuture<>();
+        submit(executionMode, isolationLevel, function).whenComplete((result, throwable) -> {
+            try {
+                callbackExecutor.execute(() -> {
+                    if (throwable != null) {
+                        callback.completeExceptionally(throwable);
+                    } else {
+                        callback.complete(result);
+                    }
+                });
+            } catch (RuntimeException e) {
+                callback.completeExceptionally(e);
+            }
+        });
+        return callback;
+    }
 }
@@ -16,6 +16,7 @@
 
 package team.idealstate.sugar.next.database;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import team.idealstate.sugar.logging.Log;
@@ -36,18 +37,24 @@ public final class TransactionSession implements DatabaseSession {
         return databaseSession.getRepository(repositoryType);
     }
 
-    private int count = 0;
+    private final AtomicInteger count = new AtomicInteger();
 
     /** @return 应返回 this，自动化框架应在每个使用事务的方法栈调用仅一次此方法， 以更新当前事务会话的引用计数， 确保事务会话在顶层方法栈调用结束后被关闭 */
     @NotNull
     public TransactionSession open() {
-        count++;
+        int count = this.count.incrementAndGet();
         Log.debug(() -> String.format("(%s) Opening transaction.", count));
         return this;
     }
 
+    /** @return 当前事务会话的引用计数 */
+    public int getCount() {
+        return count.get();
+    }
+
     @Override
     public void commit() {
+        int count = this.count.get();
         Log.debug(() -> String.format("(%s) Committing transaction.", count));
         if (count <= 1 && !rollback) {
             databaseSession.commit();
@@ -56,25 +63,34 @@ public final class TransactionSession implements DatabaseSession {
     }
 
     private volatile boolean rollback = false;
+    private volatile boolean rolledBack = false;
 
     @Override
     public void rollback() {
         rollback = true;
+        int count = this.count.get();
         Log.debug(() -> String.format("(%s) Rolling back transaction, but not committed yet.", count));
         if (count <= 1) {
             databaseSession.rollback();
+            rolledBack = true;
             Log.debug(() -> String.format("(%s) Rolled back transaction.", count));
         }
     }
 
     @Override
     public void close() {
-        count--;
+        int count = this.count.decrementAndGet();
         Log.debug(() -> String.format("(%s) Closing transaction.", count));
         if (count <= 0) {
             try {
                 closer.run();
-                commit();
+                if (!rollback) {
+                    commit();
+                } else if (!rolledBack) {
+                    // 内层事务标记了回滚，但异常被外层吞掉时仍需在顶层回滚
+                    databaseSession.rollback();
+                    rolledBack = true;
+                }
             } finally {
                 databaseSession.close();
                 Log.debug(() -> String.format("(%s) Closed transaction.", count));
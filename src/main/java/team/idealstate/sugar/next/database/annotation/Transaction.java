@@ -31,4 +31,9 @@ public @interface Transaction {
     int executionMode() default DatabaseSessionFactory.DEFAULT_EXECUTION_MODE;
 
     int isolationLevel() default DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL;
+
+    /**
+     * @return 是否以 {@link DatabaseSessionFactory#BATCH_EXECUTION_MODE} 开启事务，为 true 时忽略 {@link #executionMode()}
+     */
+    boolean batch() default false;
 }
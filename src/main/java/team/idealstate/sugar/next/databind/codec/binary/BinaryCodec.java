@@ -0,0 +1,249 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.databind.codec.binary;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import team.idealstate.sugar.next.context.annotation.component.Serialization;
+import team.idealstate.sugar.next.databind.codec.Codec;
+import team.idealstate.sugar.next.databind.codec.exception.CodecException;
+import team.idealstate.sugar.next.io.IOUtils;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 内置的二进制编解码器，按 {@link BinarySchema} 缓存的字段布局读写对象，适用于配置快照等场景。
+ *
+ * <p>读取时只接受从目标类型的字段声明（含泛型参数与数组元素）可达的类型，以及构造时额外信任的类型；
+ * 字段声明为接口、抽象类或 {@link Object} 而实际值为其他类型时，须将实际类型加入信任列表。
+ *
+ * <p>{@link Writer} 与 {@link Reader} 版本以 Base64 文本承载二进制数据。
+ */
+@Serialization(BinaryCodec.EXTENSION)
+public final class BinaryCodec implements Codec {
+
+    public static final String EXTENSION = "bin";
+    public static final BinaryCodec INSTANCE = new BinaryCodec();
+
+    static final int MAGIC = 0x53424E31;
+    static final int MAX_DEPTH = 256;
+    /** 单个数组、集合、映射或字符串的最大长度 */
+    static final int MAX_LENGTH = 16 * 1024 * 1024;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_TRUE = 1;
+    static final byte TAG_FALSE = 2;
+    static final byte TAG_BYTE = 3;
+    static final byte TAG_SHORT = 4;
+    static final byte TAG_CHAR = 5;
+    static final byte TAG_INT = 6;
+    static final byte TAG_LONG = 7;
+    static final byte TAG_FLOAT = 8;
+    static final byte TAG_DOUBLE = 9;
+    static final byte TAG_STRING = 10;
+    static final byte TAG_BIG_INTEGER = 11;
+    static final byte TAG_BIG_DECIMAL = 12;
+    static final byte TAG_ENUM = 13;
+    static final byte TAG_ARRAY = 14;
+    static final byte TAG_LIST = 15;
+    static final byte TAG_SET = 16;
+    static final byte TAG_MAP = 17;
+    static final byte TAG_OBJECT = 18;
+
+    private final List<Class<?>> trustedTypes;
+    private final ClassValue<Map<String, Class<?>>> reachableTypes = new ClassValue<Map<String, Class<?>>>() {
+        @Override
+        protected Map<String, Class<?>> computeValue(Class<?> type) {
+            if (trustedTypes.isEmpty()) {
+                return BinarySchema.reachableTypesOf(type);
+            }
+            List<Class<?>> roots = new ArrayList<>(trustedTypes.size() + 1);
+            roots.add(type);
+            roots.addAll(trustedTypes);
+            return Collections.unmodifiableMap(BinarySchema.reachableTypes(roots));
+        }
+    };
+
+    public BinaryCodec() {
+        this.trustedTypes = Collections.emptyList();
+    }
+
+    /** @param trustedTypes 除目标类型可达的类型之外，额外允许出现在数据中的类型 */
+    public BinaryCodec(@NotNull Class<?>... trustedTypes) {
+        Validation.notNull(trustedTypes, "trustedTypes must not be null.");
+        for (Class<?> trustedType : trustedTypes) {
+            Validation.notNull(trustedType, "trustedType must not be null.");
+        }
+        this.trustedTypes = Collections.unmodifiableList(Arrays.asList(trustedTypes.clone()));
+    }
+
+    @Override
+    public void serialize(Object object, @NotNull File file) throws CodecException {
+        Validation.notNull(file, "file must not be null.");
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(file.toPath()))) {
+            serialize(object, outputStream);
+        } catch (IOException e) {
+            throw new CodecException(e);
+        }
+    }
+
+    @Override
+    public void serialize(Object object, @NotNull Writer writer) throws CodecException {
+        Validation.notNull(writer, "writer must not be null.");
+        try {
+            writer.write(Base64.getEncoder().encodeToString(serialize(object)));
+            writer.flush();
+        } catch (IOException e) {
+            throw new CodecException(e);
+        }
+    }
+
+    @Override
+    public void serialize(Object object, @NotNull OutputStream outputStream) throws CodecException {
+        Validation.notNull(outputStream, "outputStream must not be null.");
+        BinaryWriter writer = new BinaryWriter(outputStream);
+        try {
+            writer.writeHeader();
+            writer.writeValue(object);
+            writer.flush();
+        } catch (IOException e) {
+            throw new CodecException(e);
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object object) throws CodecException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(IOUtils.DEFAULT_BUFFER_SIZE);
+        serialize(object, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public <T> T deserialize(@NotNull File file, @NotNull Class<T> type) throws CodecException {
+        Validation.notNull(file, "file must not be null.");
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file.toPath()))) {
+            return deserialize(inputStream, type, file.length());
+        } catch (IOException e) {
+            throw new CodecException(e);
+        }
+    }
+
+    @Override
+    public <T> T deserialize(@NotNull Reader reader, @NotNull Class<T> type) throws CodecException {
+        Validation.notNull(reader, "reader must not be null.");
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[IOUtils.DEFAULT_BUFFER_SIZE];
+        try {
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                builder.append(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new CodecException(e);
+        }
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(builder.toString().trim());
+        } catch (IllegalArgumentException e) {
+            throw new CodecException(e);
+        }
+        return deserialize(data, type);
+    }
+
+    /** {@link ByteArrayInputStream} 的剩余长度已知，其余输入流只受 {@link #MAX_LENGTH} 限制 */
+    @Override
+    public <T> T deserialize(@NotNull InputStream inputStream, @NotNull Class<T> type) throws CodecException {
+        Validation.notNull(inputStream, "inputStream must not be null.");
+        long limit = Long.MAX_VALUE;
+        if (inputStream instanceof ByteArrayInputStream) {
+            limit = ((ByteArrayInputStream) inputStream).available();
+        }
+        return deserialize(inputStream, type, limit);
+    }
+
+    private <T> T deserialize(@NotNull InputStream inputStream, @NotNull Class<T> type, long limit)
+            throws CodecException {
+        Validation.notNull(type, "type must not be null.");
+        BinaryReader reader = new BinaryReader(inputStream, reachableTypes.get(type), limit);
+        Object value;
+        try {
+            reader.readHeader();
+            value = reader.readValue(type);
+        } catch (IOException e) {
+            throw new CodecException(e);
+        } catch (CodecException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // 损坏的数据可能在类型转换、构造容器等环节失败
+            throw new CodecException(e);
+        }
+        if (value != null && !wrap(type).isInstance(value)) {
+            throw new CodecException(String.format(
+                    "Value of type '%s' is not assignable to '%s'.",
+                    value.getClass().getName(), type.getName()));
+        }
+        //noinspection unchecked
+        return (T) value;
+    }
+
+    @Override
+    public <T> T deserialize(@NotNull byte[] data, @NotNull Class<T> type) throws CodecException {
+        Validation.notNull(data, "data must not be null.");
+        return deserialize(new ByteArrayInputStream(data), type);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        switch (BinarySchema.kindOf(type)) {
+            case BinarySchema.KIND_BOOLEAN:
+                return Boolean.class;
+            case BinarySchema.KIND_BYTE:
+                return Byte.class;
+            case BinarySchema.KIND_SHORT:
+                return Short.class;
+            case BinarySchema.KIND_CHAR:
+                return Character.class;
+            case BinarySchema.KIND_INT:
+                return Integer.class;
+            case BinarySchema.KIND_LONG:
+                return Long.class;
+            case BinarySchema.KIND_FLOAT:
+                return Float.class;
+            case BinarySchema.KIND_DOUBLE:
+                return Double.class;
+            default:
+                return type;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.databind.codec.binary;
+
+import static team.idealstate.sugar.next.databind.codec.binary.BinaryCodec.*;
+
+import java.io.DataInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import team.idealstate.sugar.next.databind.codec.exception.CodecException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 二进制数据的读取器。
+ *
+ * <p>类型名只在 {@code trustedTypes} 中查找，不会加载任意类；长度在分配前与剩余输入及 {@link BinaryCodec#MAX_LENGTH} 比较，
+ * 损坏或截断的数据只会导致 {@link CodecException} 或 {@link IOException}。
+ */
+final class BinaryReader {
+
+    private final CountingInputStream counter;
+    private final DataInputStream input;
+    private final Map<String, Class<?>> trustedTypes;
+    private final long limit;
+    private final List<Class<?>> types = new ArrayList<>();
+    private final Set<Class<?>> schemas = new HashSet<>();
+    private int depth = 0;
+
+    /**
+     * @param trustedTypes 允许出现在数据中的类型，按类名索引
+     * @param limit 输入的总字节数，未知时为 {@link Long#MAX_VALUE}
+     */
+    BinaryReader(@NotNull InputStream inputStream, @NotNull Map<String, Class<?>> trustedTypes, long limit) {
+        this.counter = new CountingInputStream(inputStream);
+        this.input = new DataInputStream(counter);
+        this.trustedTypes = trustedTypes;
+        this.limit = limit;
+    }
+
+    void readHeader() throws IOException {
+        int magic = input.readInt();
+        if (magic != MAGIC) {
+            throw new CodecException(String.format("Invalid binary snapshot header 0x%08x.", magic));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Object readValue(@NotNull Class<?> expected) throws IOException {
+        byte tag = input.readByte();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return (int) unzigzag(readVarLong());
+            case TAG_LONG:
+                return unzigzag(readVarLong());
+            case TAG_DOUBLE:
+                return input.readDouble();
+            case TAG_STRING:
+                return readString();
+            case TAG_FLOAT:
+                return input.readFloat();
+            case TAG_SHORT:
+                return input.readShort();
+            case TAG_BYTE:
+                return input.readByte();
+            case TAG_CHAR:
+                return input.readChar();
+            case TAG_BIG_INTEGER:
+                return new BigInteger(readBytes());
+            case TAG_BIG_DECIMAL:
+                int scale = (int) unzigzag(readVarLong());
+                return new BigDecimal(new BigInteger(readBytes()), scale);
+            case TAG_ENUM:
+                Class enumType = readType();
+                if (!enumType.isEnum()) {
+                    throw new CodecException(String.format("Type '%s' is not an enum.", enumType.getName()));
+                }
+                String name = readString();
+                try {
+                    return Enum.valueOf(enumType, name);
+                } catch (IllegalArgumentException e) {
+                    throw new CodecException(
+                            String.format("Enum '%s' has no constant '%s'.", enumType.getName(), name), e);
+                }
+            case TAG_ARRAY:
+                Class<?> arrayType = readType();
+                if (!arrayType.isArray()) {
+                    throw new CodecException(String.format("Type '%s' is not an array.", arrayType.getName()));
+                }
+                enter();
+                Object array = readArray(arrayType.getComponentType());
+                exit();
+                return array;
+            case TAG_LIST:
+                enter();
+                Collection<Object> list = (Collection<Object>) newContainer(expected, ArrayList.class);
+                readCollection(list);
+                exit();
+                return list;
+            case TAG_SET:
+                enter();
+                Collection<Object> set = (Collection<Object>) newContainer(expected, LinkedHashSet.class);
+                readCollection(set);
+                exit();
+                return set;
+            case TAG_MAP:
+                enter();
+                Map<Object, Object> map = (Map<Object, Object>) newContainer(expected, LinkedHashMap.class);
+                int size = readLength(2);
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(Object.class), readValue(Object.class));
+                }
+                exit();
+                return map;
+            case TAG_OBJECT:
+                Class<?> type = readType();
+                BinarySchema schema = BinarySchema.of(type);
+                if (schemas.add(type)) {
+                    long fingerprint = input.readLong();
+                    if (fingerprint != schema.getFingerprint()) {
+                        throw new CodecException(String.format("Schema of type '%s' has changed.", type.getName()));
+                    }
+                }
+                enter();
+                Object object = readObject(schema);
+                exit();
+                return object;
+            default:
+                throw new CodecException(String.format("Invalid binary tag %s.", tag));
+        }
+    }
+
+    private Object readObject(BinarySchema schema) throws IOException {
+        Object object = schema.newInstance();
+        try {
+            for (BinarySchema.BinaryField field : schema.getFields()) {
+                switch (field.getKind()) {
+                    case BinarySchema.KIND_BOOLEAN:
+                        field.getSetter().invokeExact(object, input.readBoolean());
+                        break;
+                    case BinarySchema.KIND_BYTE:
+                        field.getSetter().invokeExact(object, input.readByte());
+                        break;
+                    case BinarySchema.KIND_SHORT:
+                        field.getSetter().invokeExact(object, input.readShort());
+                        break;
+                    case BinarySchema.KIND_CHAR:
+                        field.getSetter().invokeExact(object, input.readChar());
+                        break;
+                    case BinarySchema.KIND_INT:
+                        field.getSetter().invokeExact(object, (int) unzigzag(readVarLong()));
+                        break;
+                    case BinarySchema.KIND_LONG:
+                        field.getSetter().invokeExact(object, unzigzag(readVarLong()));
+                        break;
+                    case BinarySchema.KIND_FLOAT:
+                        field.getSetter().invokeExact(object, input.readFloat());
+                        break;
+                    case BinarySchema.KIND_DOUBLE:
+                        field.getSetter().invokeExact(object, input.readDouble());
+                        break;
+                    default:
+                        Object value = readValue(field.getType());
+                        if (value != null && !field.getType().isInstance(value)) {
+                            throw new CodecException(String.format(
+                                    "Value of type '%s' is not assignable to field '%s' of type '%s'.",
+                                    value.getClass().getName(),
+                                    field.getName(),
+                                    schema.getType().getName()));
+                        }
+                        field.getSetter().invokeExact(object, value);
+                }
+            }
+        } catch (IOException | CodecException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CodecException(
+                    String.format("Failed to write fields of type '%s'.", schema.getType().getName()), e);
+        }
+        return object;
+    }
+
+    private Object readArray(Class<?> componentType) throws IOException {
+        byte kind = BinarySchema.kindOf(componentType);
+        int length = readLength(sizeOf(kind));
+        switch (kind) {
+            case BinarySchema.KIND_BOOLEAN:
+                boolean[] booleans = new boolean[length];
+                for (int i = 0; i < length; i++) {
+                    booleans[i] = input.readBoolean();
+                }
+                return booleans;
+            case BinarySchema.KIND_BYTE:
+                byte[] bytes = new byte[length];
+                input.readFully(bytes);
+                return bytes;
+            case BinarySchema.KIND_SHORT:
+                short[] shorts = new short[length];
+                for (int i = 0; i < length; i++) {
+                    shorts[i] = input.readShort();
+                }
+                return shorts;
+            case BinarySchema.KIND_CHAR:
+                char[] chars = new char[length];
+                for (int i = 0; i < length; i++) {
+                    chars[i] = input.readChar();
+                }
+                return chars;
+            case BinarySchema.KIND_INT:
+                int[] ints = new int[length];
+                for (int i = 0; i < length; i++) {
+                    ints[i] = (int) unzigzag(readVarLong());
+                }
+                return ints;
+            case BinarySchema.KIND_LONG:
+                long[] longs = new long[length];
+                for (int i = 0; i < length; i++) {
+                    longs[i] = unzigzag(readVarLong());
+                }
+                return longs;
+            case BinarySchema.KIND_FLOAT:
+                float[] floats = new float[length];
+                for (int i = 0; i < length; i++) {
+                    floats[i] = input.readFloat();
+                }
+                return floats;
+            case BinarySchema.KIND_DOUBLE:
+                double[] doubles = new double[length];
+                for (int i = 0; i < length; i++) {
+                    doubles[i] = input.readDouble();
+                }
+                return doubles;
+            default:
+                Object[] objects = (Object[]) Array.newInstance(componentType, length);
+                for (int i = 0; i < length; i++) {
+                    objects[i] = readValue(componentType);
+                }
+                return objects;
+        }
+    }
+
+    private void readCollection(Collection<Object> collection) throws IOException {
+        int size = readLength(1);
+        for (int i = 0; i < size; i++) {
+            collection.add(readValue(Object.class));
+        }
+    }
+
+    private static Object newContainer(Class<?> expected, Class<?> defaultType) {
+        if (expected.isAssignableFrom(defaultType)) {
+            try {
+                return defaultType.getConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new CodecException(e);
+            }
+        }
+        if (expected.isInterface() || Modifier.isAbstract(expected.getModifiers())) {
+            throw new CodecException(String.format("Unsupported container type '%s'.", expected.getName()));
+        }
+        try {
+            return expected.getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new CodecException(String.format("Unsupported container type '%s'.", expected.getName()), e);
+        }
+    }
+
+    private Class<?> readType() throws IOException {
+        int index = readLength(0);
+        if (index > 0) {
+            if (index > types.size()) {
+                throw new CodecException(String.format("Invalid type reference %s.", index));
+            }
+            return types.get(index - 1);
+        }
+        String name = readString();
+        Class<?> type = trustedTypes.get(name);
+        if (type == null) {
+            throw new CodecException(String.format("Type '%s' is not trusted.", name));
+        }
+        types.add(type);
+        return type;
+    }
+
+    private String readString() throws IOException {
+        return new String(readBytes(), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readBytes() throws IOException {
+        byte[] bytes = new byte[readLength(1)];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    /** @param elementSize 每个元素至少占用的字节数 */
+    private int readLength(int elementSize) throws IOException {
+        long length = readVarLong();
+        if (length < 0 || length > MAX_LENGTH || length * elementSize > limit - counter.count) {
+            throw new CodecException(String.format("Invalid length %s.", length));
+        }
+        return (int) length;
+    }
+
+    /** 引用类型至少占用一个标签字节，变长整数至少占用一个字节 */
+    private static int sizeOf(byte kind) {
+        switch (kind) {
+            case BinarySchema.KIND_SHORT:
+            case BinarySchema.KIND_CHAR:
+                return 2;
+            case BinarySchema.KIND_FLOAT:
+                return 4;
+            case BinarySchema.KIND_DOUBLE:
+                return 8;
+            default:
+                return 1;
+        }
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new CodecException("Malformed variable-length number.");
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw new CodecException("Object graph is too deep.");
+        }
+    }
+
+    private void exit() {
+        depth--;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        private CountingInputStream(@NotNull InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(@NotNull byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long length) throws IOException {
+            long skipped = super.skip(length);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
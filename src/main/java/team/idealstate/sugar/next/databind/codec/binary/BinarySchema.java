@@ -0,0 +1,264 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.databind.codec.binary;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.Getter;
+import team.idealstate.sugar.next.databind.codec.exception.CodecException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 由类结构推导出的二进制布局，每个类仅推导一次 */
+@Getter
+final class BinarySchema {
+
+    static final byte KIND_BOOLEAN = 0;
+    static final byte KIND_BYTE = 1;
+    static final byte KIND_SHORT = 2;
+    static final byte KIND_CHAR = 3;
+    static final byte KIND_INT = 4;
+    static final byte KIND_LONG = 5;
+    static final byte KIND_FLOAT = 6;
+    static final byte KIND_DOUBLE = 7;
+    static final byte KIND_REFERENCE = 8;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final ClassValue<BinarySchema> SCHEMAS = new ClassValue<BinarySchema>() {
+        @Override
+        protected BinarySchema computeValue(Class<?> type) {
+            return new BinarySchema(type);
+        }
+    };
+
+    private static final ClassValue<Map<String, Class<?>>> REACHABLE_TYPES = new ClassValue<Map<String, Class<?>>>() {
+        @Override
+        protected Map<String, Class<?>> computeValue(Class<?> type) {
+            return Collections.unmodifiableMap(reachableTypes(Collections.singletonList(type)));
+        }
+    };
+
+    private final Class<?> type;
+    private final long fingerprint;
+    private final BinaryField[] fields;
+
+    @Getter(AccessLevel.NONE)
+    private final MethodHandle constructor;
+
+    private BinarySchema(@NotNull Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            throw new CodecException(String.format("Type '%s' is not a concrete class.", type.getName()));
+        }
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<BinaryField> fields = new ArrayList<>(16);
+        LinkedList<Class<?>> hierarchy = new LinkedList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            hierarchy.addFirst(current);
+        }
+        long fingerprint = hash(FNV_OFFSET_BASIS, type.getName());
+        try {
+            for (Class<?> declaring : hierarchy) {
+                Field[] declaredFields = declaring.getDeclaredFields();
+                Arrays.sort(declaredFields, Comparator.comparing(Field::getName));
+                for (Field field : declaredFields) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    fields.add(new BinaryField(field, lookup));
+                    fingerprint = hash(fingerprint, field.getName());
+                    fingerprint = hash(fingerprint, field.getType().getName());
+                }
+            }
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            this.constructor =
+                    lookup.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException e) {
+            throw new CodecException(String.format("Type '%s' has no default constructor.", type.getName()), e);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new CodecException(String.format("Type '%s' is not accessible.", type.getName()), e);
+        }
+        this.fingerprint = fingerprint;
+        this.fields = fields.toArray(new BinaryField[0]);
+    }
+
+    @NotNull
+    static BinarySchema of(@NotNull Class<?> type) {
+        return SCHEMAS.get(type);
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= ';';
+        return hash * FNV_PRIME;
+    }
+
+    /** @return 从 {@code type} 出发，经由字段声明的类型（含泛型参数与数组元素）可达的类型，按类名索引 */
+    @NotNull
+    static Map<String, Class<?>> reachableTypesOf(@NotNull Class<?> type) {
+        return REACHABLE_TYPES.get(type);
+    }
+
+    @NotNull
+    static Map<String, Class<?>> reachableTypes(@NotNull Collection<Class<?>> roots) {
+        Map<String, Class<?>> types = new HashMap<>();
+        Deque<Type> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            Type current = pending.poll();
+            if (current instanceof ParameterizedType) {
+                pending.add(((ParameterizedType) current).getRawType());
+                pending.addAll(Arrays.asList(((ParameterizedType) current).getActualTypeArguments()));
+            } else if (current instanceof GenericArrayType) {
+                pending.add(((GenericArrayType) current).getGenericComponentType());
+                pending.add(erasure(current));
+            } else if (current instanceof WildcardType) {
+                pending.addAll(Arrays.asList(((WildcardType) current).getUpperBounds()));
+            } else if (current instanceof TypeVariable) {
+                pending.addAll(Arrays.asList(((TypeVariable<?>) current).getBounds()));
+            } else if (current instanceof Class) {
+                Class<?> type = (Class<?>) current;
+                if (type.isPrimitive() || types.putIfAbsent(type.getName(), type) != null) {
+                    continue;
+                }
+                if (type.isArray()) {
+                    pending.add(type.getComponentType());
+                } else if (isStructured(type)) {
+                    try {
+                        for (BinaryField field : of(type).getFields()) {
+                            pending.add(field.getGenericType());
+                        }
+                    } catch (CodecException ignored) {
+                        // 无法读写的类型在读取时报告
+                    }
+                }
+            }
+        }
+        return types;
+    }
+
+    /** 按字段读写的类型 */
+    private static boolean isStructured(@NotNull Class<?> type) {
+        return type != Object.class
+                && !type.isInterface()
+                && !type.isEnum()
+                && !Modifier.isAbstract(type.getModifiers())
+                && !type.getName().startsWith("java.")
+                && !Collection.class.isAssignableFrom(type)
+                && !Map.class.isAssignableFrom(type)
+                && type != BigInteger.class
+                && type != BigDecimal.class;
+    }
+
+    @NotNull
+    private static Class<?> erasure(@NotNull Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        } else if (type instanceof ParameterizedType) {
+            return erasure(((ParameterizedType) type).getRawType());
+        } else if (type instanceof GenericArrayType) {
+            Class<?> component = erasure(((GenericArrayType) type).getGenericComponentType());
+            return Array.newInstance(component, 0).getClass();
+        } else if (type instanceof TypeVariable) {
+            Type[] bounds = ((TypeVariable<?>) type).getBounds();
+            return bounds.length == 0 ? Object.class : erasure(bounds[0]);
+        } else if (type instanceof WildcardType) {
+            return erasure(((WildcardType) type).getUpperBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    static byte kindOf(Class<?> type) {
+        if (type == boolean.class) {
+            return KIND_BOOLEAN;
+        } else if (type == byte.class) {
+            return KIND_BYTE;
+        } else if (type == short.class) {
+            return KIND_SHORT;
+        } else if (type == char.class) {
+            return KIND_CHAR;
+        } else if (type == int.class) {
+            return KIND_INT;
+        } else if (type == long.class) {
+            return KIND_LONG;
+        } else if (type == float.class) {
+            return KIND_FLOAT;
+        } else if (type == double.class) {
+            return KIND_DOUBLE;
+        }
+        return KIND_REFERENCE;
+    }
+
+    @NotNull
+    Object newInstance() {
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new CodecException(String.format("Failed to instantiate type '%s'.", type.getName()), e);
+        }
+    }
+
+    @Getter
+    static final class BinaryField {
+        private final String name;
+        private final Class<?> type;
+        private final Type genericType;
+        private final byte kind;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private BinaryField(@NotNull Field field, @NotNull MethodHandles.Lookup lookup) throws IllegalAccessException {
+            this.name = field.getName();
+            this.type = field.getType();
+            this.genericType = field.getGenericType();
+            this.kind = kindOf(type);
+            Class<?> handleType = type.isPrimitive() ? type : Object.class;
+            this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(handleType, Object.class));
+            this.setter = lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, handleType));
+        }
+    }
+}
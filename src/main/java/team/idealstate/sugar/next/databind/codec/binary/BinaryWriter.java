@@ -0,0 +1,277 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.databind.codec.binary;
+
+import static team.idealstate.sugar.next.databind.codec.binary.BinaryCodec.*;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import team.idealstate.sugar.next.databind.codec.exception.CodecException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class BinaryWriter {
+
+    private final DataOutputStream output;
+    private final Map<Class<?>, Integer> types = new IdentityHashMap<>();
+    private final Set<Class<?>> schemas = new HashSet<>();
+    private int depth = 0;
+
+    BinaryWriter(@NotNull OutputStream outputStream) {
+        this.output = outputStream instanceof DataOutputStream
+                ? (DataOutputStream) outputStream
+                : new DataOutputStream(outputStream);
+    }
+
+    void writeHeader() throws IOException {
+        output.writeInt(MAGIC);
+    }
+
+    void flush() throws IOException {
+        output.flush();
+    }
+
+    void writeValue(Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TAG_NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == Boolean.class) {
+            output.writeByte((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (type == Integer.class) {
+            output.writeByte(TAG_INT);
+            writeVarLong(zigzag((Integer) value));
+        } else if (type == Long.class) {
+            output.writeByte(TAG_LONG);
+            writeVarLong(zigzag((Long) value));
+        } else if (type == Double.class) {
+            output.writeByte(TAG_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (type == String.class) {
+            output.writeByte(TAG_STRING);
+            writeString((String) value);
+        } else if (type == Float.class) {
+            output.writeByte(TAG_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (type == Short.class) {
+            output.writeByte(TAG_SHORT);
+            output.writeShort((Short) value);
+        } else if (type == Byte.class) {
+            output.writeByte(TAG_BYTE);
+            output.writeByte((Byte) value);
+        } else if (type == Character.class) {
+            output.writeByte(TAG_CHAR);
+            output.writeChar((Character) value);
+        } else if (type == BigInteger.class) {
+            output.writeByte(TAG_BIG_INTEGER);
+            writeBytes(((BigInteger) value).toByteArray());
+        } else if (type == BigDecimal.class) {
+            output.writeByte(TAG_BIG_DECIMAL);
+            BigDecimal decimal = (BigDecimal) value;
+            writeVarLong(zigzag(decimal.scale()));
+            writeBytes(decimal.unscaledValue().toByteArray());
+        } else if (value instanceof Enum) {
+            output.writeByte(TAG_ENUM);
+            writeType(((Enum<?>) value).getDeclaringClass());
+            writeString(((Enum<?>) value).name());
+        } else if (type.isArray()) {
+            output.writeByte(TAG_ARRAY);
+            writeType(type);
+            enter();
+            writeArray(value, type.getComponentType());
+            exit();
+        } else if (value instanceof Set) {
+            output.writeByte(TAG_SET);
+            enter();
+            writeCollection((Collection<?>) value);
+            exit();
+        } else if (value instanceof Collection) {
+            output.writeByte(TAG_LIST);
+            enter();
+            writeCollection((Collection<?>) value);
+            exit();
+        } else if (value instanceof Map) {
+            output.writeByte(TAG_MAP);
+            enter();
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(entry.getKey());
+                writeValue(entry.getValue());
+            }
+            exit();
+        } else {
+            output.writeByte(TAG_OBJECT);
+            BinarySchema schema = BinarySchema.of(type);
+            writeType(type);
+            if (schemas.add(type)) {
+                output.writeLong(schema.getFingerprint());
+            }
+            enter();
+            writeObject(value, schema);
+            exit();
+        }
+    }
+
+    private void writeObject(Object value, BinarySchema schema) throws IOException {
+        try {
+            for (BinarySchema.BinaryField field : schema.getFields()) {
+                switch (field.getKind()) {
+                    case BinarySchema.KIND_BOOLEAN:
+                        output.writeBoolean((boolean) field.getGetter().invokeExact(value));
+                        break;
+                    case BinarySchema.KIND_BYTE:
+                        output.writeByte((byte) field.getGetter().invokeExact(value));
+                        break;
+                    case BinarySchema.KIND_SHORT:
+                        output.writeShort((short) field.getGetter().invokeExact(value));
+                        break;
+                    case BinarySchema.KIND_CHAR:
+                        output.writeChar((char) field.getGetter().invokeExact(value));
+                        break;
+                    case BinarySchema.KIND_INT:
+                        writeVarLong(zigzag((int) field.getGetter().invokeExact(value)));
+                        break;
+                    case BinarySchema.KIND_LONG:
+                        writeVarLong(zigzag((long) field.getGetter().invokeExact(value)));
+                        break;
+                    case BinarySchema.KIND_FLOAT:
+                        output.writeFloat((float) field.getGetter().invokeExact(value));
+                        break;
+                    case BinarySchema.KIND_DOUBLE:
+                        output.writeDouble((double) field.getGetter().invokeExact(value));
+                        break;
+                    default:
+                        writeValue((Object) field.getGetter().invokeExact(value));
+                }
+            }
+        } catch (IOException | CodecException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new CodecException(
+                    String.format("Failed to read fields of type '%s'.", value.getClass().getName()), e);
+        }
+    }
+
+    private void writeArray(Object array, Class<?> componentType) throws IOException {
+        int length = Array.getLength(array);
+        writeVarLong(length);
+        switch (BinarySchema.kindOf(componentType)) {
+            case BinarySchema.KIND_BOOLEAN:
+                for (boolean element : (boolean[]) array) {
+                    output.writeBoolean(element);
+                }
+                break;
+            case BinarySchema.KIND_BYTE:
+                output.write((byte[]) array);
+                break;
+            case BinarySchema.KIND_SHORT:
+                for (short element : (short[]) array) {
+                    output.writeShort(element);
+                }
+                break;
+            case BinarySchema.KIND_CHAR:
+                for (char element : (char[]) array) {
+                    output.writeChar(element);
+                }
+                break;
+            case BinarySchema.KIND_INT:
+                for (int element : (int[]) array) {
+                    writeVarLong(zigzag(element));
+                }
+                break;
+            case BinarySchema.KIND_LONG:
+                for (long element : (long[]) array) {
+                    writeVarLong(zigzag(element));
+                }
+                break;
+            case BinarySchema.KIND_FLOAT:
+                for (float element : (float[]) array) {
+                    output.writeFloat(element);
+                }
+                break;
+            case BinarySchema.KIND_DOUBLE:
+                for (double element : (double[]) array) {
+                    output.writeDouble(element);
+                }
+                break;
+            default:
+                for (Object element : (Object[]) array) {
+                    writeValue(element);
+                }
+        }
+    }
+
+    private void writeCollection(Collection<?> collection) throws IOException {
+        writeVarLong(collection.size());
+        for (Object element : collection) {
+            writeValue(element);
+        }
+    }
+
+    private void writeType(Class<?> type) throws IOException {
+        Integer index = types.get(type);
+        if (index != null) {
+            writeVarLong(index + 1);
+            return;
+        }
+        types.put(type, types.size());
+        writeVarLong(0);
+        writeString(type.getName());
+    }
+
+    private void writeString(String value) throws IOException {
+        writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        writeVarLong(bytes.length);
+        output.write(bytes);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw new CodecException("Object graph is too deep, maybe it contains a reference cycle.");
+        }
+    }
+
+    private void exit() {
+        depth--;
+    }
+}
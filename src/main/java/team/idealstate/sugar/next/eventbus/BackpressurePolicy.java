@@ -0,0 +1,27 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+/** 环形缓冲区已满时对新发布事件的处理方式 */
+public enum BackpressurePolicy {
+    /** 按 {@link WaitStrategy} 等待直到有空位 */
+    BLOCK,
+    /** 丢弃新发布的事件 */
+    DROP_NEWEST,
+    /** 丢弃缓冲区中最早的事件以腾出空位 */
+    DROP_OLDEST;
+}
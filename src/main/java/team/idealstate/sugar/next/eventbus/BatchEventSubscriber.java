@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.util.Collections;
+import java.util.List;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 可一次接收一批同类型事件的订阅者，由 {@link EventBus#publishAll(java.util.Collection)} 按批投递。
+ *
+ * <p>批内事件按发布顺序排列，列表只读且仅在本次调用期间有效。
+ */
+public interface BatchEventSubscriber<T extends Event> extends EventSubscriber<T> {
+
+    void onEvents(@NotNull List<T> events) throws Throwable;
+
+    @Override
+    default void onEvent(T event) throws Throwable {
+        onEvents(Collections.singletonList(event));
+    }
+}
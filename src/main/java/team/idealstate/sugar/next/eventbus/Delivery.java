@@ -0,0 +1,34 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 由订阅者实现以指定投递方式，未实现时按 {@link DeliveryMode#SYNC} 投递，投递方式在订阅时确定。
+ *
+ * <p>{@link Cancelable} 事件始终在发布线程上按顺序同步投递。
+ */
+public interface Delivery {
+
+    Delivery SYNC = () -> DeliveryMode.SYNC;
+    Delivery ASYNC = () -> DeliveryMode.ASYNC;
+    Delivery PARALLEL = () -> DeliveryMode.PARALLEL;
+
+    @NotNull
+    DeliveryMode getDeliveryMode();
+}
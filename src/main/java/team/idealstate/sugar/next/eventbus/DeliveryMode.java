@@ -0,0 +1,26 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+public enum DeliveryMode {
+    /** 在发布线程上按顺序投递 */
+    SYNC,
+    /** 提交到执行器后立即返回，结果不计入发布状态 */
+    ASYNC,
+    /** 与其他并行订阅者同时投递，发布方等待全部完成并汇总状态 */
+    PARALLEL;
+}
@@ -0,0 +1,124 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.next.eventbus.exception.EventBusException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/**
+ * 将源事件总线上选定类型的事件转发到目标事件总线，例如在上下文的事件总线与全局事件总线之间。
+ *
+ * <p>{@link #forward(Class)} 以 {@link Order#LAST} 的顺序转发，目标事件总线的订阅者在源事件总线的订阅者之后执行，适合将事件向外传递；
+ * {@link #forward(Class, int)} 为目标事件总线上的每个订阅顺序分别转发，只投递给该顺序的订阅者，使两侧的订阅者按顺序交错执行。
+ *
+ * <p>转发同步进行，目标事件总线上的取消经由事件本身带回源事件总线，投递失败时转发也视为失败。同一线程上正在被转发的事件不会再次转发，因此双向桥接同一类型不会形成循环。
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EventBridge {
+
+    private static final ThreadLocal<Set<Event>> FORWARDING =
+            ThreadLocal.withInitial(() -> Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    @NonNull
+    private final EventBus source;
+
+    @NonNull
+    private final EventBus target;
+
+    @Getter(AccessLevel.NONE)
+    private final EventSubscriber<Event> forwarder = event -> forward(event, null);
+
+    /** 每个订阅顺序一个转发者，同一转发者可转发多个类型 */
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, EventSubscriber<Event>> orderedForwarders = new ConcurrentHashMap<>();
+
+    @NotNull
+    public static EventBridge of(@NotNull EventBus source, @NotNull EventBus target) {
+        Validation.notNull(source, "source cannot be null.");
+        Validation.notNull(target, "target cannot be null.");
+        Validation.is(source != target, "source and target cannot be the same event bus.");
+        return new EventBridge(source, target);
+    }
+
+    /** 转发 eventType 及其子类型的事件，已转发的类型重复调用无效 */
+    @NotNull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EventBridge forward(@NotNull Class<? extends Event> eventType) {
+        Validation.notNull(eventType, "event type cannot be null.");
+        source.subscribe(this, (Class) eventType, (EventSubscriber) forwarder, Order.LAST, DeliveryMode.SYNC, false);
+        return this;
+    }
+
+    /**
+     * 在源事件总线上以 order 的顺序转发 eventType 及其子类型的事件，只投递给目标事件总线上顺序为 order 的订阅者。
+     *
+     * <p>应为目标事件总线上该类型的每个订阅顺序各调用一次，且不应再对该类型调用 {@link #forward(Class)}，否则会重复投递。
+     *
+     * @throws EventBusException 目标事件总线不是由 {@link EventBus#create()} 或 {@link EventBus#of(Executor)} 创建时抛出
+     */
+    @NotNull
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EventBridge forward(@NotNull Class<? extends Event> eventType, int order) {
+        Validation.notNull(eventType, "event type cannot be null.");
+        if (!(target instanceof SimpleEventBus)) {
+            throw new EventBusException(String.format(
+                    "Event bus '%s' does not support ordered forwarding.", target.getClass().getName()));
+        }
+        EventSubscriber<Event> forwarder =
+                orderedForwarders.computeIfAbsent(order, key -> event -> forward(event, key));
+        source.subscribe(this, (Class) eventType, (EventSubscriber) forwarder, order, DeliveryMode.SYNC, false);
+        return this;
+    }
+
+    /** 停止转发全部类型 */
+    public void close() {
+        if (source.unsubscribeAll(this) == 0) {
+            // 源事件总线的订阅不归属于 owner 时逐个取消
+            source.unsubscribe(forwarder);
+            orderedForwarders.values().forEach(source::unsubscribe);
+        }
+    }
+
+    private void forward(@NotNull Event event, @Nullable Integer order) {
+        Set<Event> forwarding = FORWARDING.get();
+        if (!forwarding.add(event)) {
+            return;
+        }
+        EventState state;
+        try {
+            state = order == null ? target.publish(event) : ((SimpleEventBus) target).publish(event, order);
+        } finally {
+            forwarding.remove(event);
+        }
+        if (state == EventState.FAILURE) {
+            throw new EventBusException(String.format("Failed to forward event \"%s\".", event));
+        }
+    }
+}
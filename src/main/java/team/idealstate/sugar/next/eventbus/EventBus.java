@@ -16,17 +16,151 @@
 
 package team.idealstate.sugar.next.eventbus;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
 
 public interface EventBus {
     static EventBus instance() {
         return SimpleEventBus.INSTANCE;
     }
 
+    /** @return 独立于 {@link #instance()} 的事件总线，使用共享的执行器 */
+    @NotNull
+    static EventBus create() {
+        return new SimpleEventBus();
+    }
+
+    /** @param executor 投递 {@link DeliveryMode#ASYNC} 与 {@link DeliveryMode#PARALLEL} 订阅者及异步发布所用的执行器 */
+    @NotNull
+    static EventBus of(@NotNull Executor executor) {
+        Validation.notNull(executor, "executor cannot be null.");
+        return new SimpleEventBus(executor);
+    }
+
+    /** @return 经由环形缓冲区交给单个消费者线程分发的事件总线，不再使用时需要关闭 */
+    @NotNull
+    static RingBufferEventBus ringBuffer(
+            int capacity, @NotNull WaitStrategy waitStrategy, @NotNull BackpressurePolicy backpressurePolicy) {
+        return new RingBufferEventBus(capacity, 1, waitStrategy, backpressurePolicy);
+    }
+
     @NotNull
     EventState publish(@NotNull Event event);
 
+    /** @return 在执行器上发布事件，{@link Cancelable} 事件仍在调用线程上同步发布 */
+    @NotNull
+    default CompletionStage<EventState> publishAsync(@NotNull Event event) {
+        return CompletableFuture.completedFuture(publish(event));
+    }
+
+    /**
+     * 批量发布事件，同类型的事件只查找一次订阅者，{@link BatchEventSubscriber} 会按批接收。
+     *
+     * @return 与 events 迭代顺序一一对应的发布状态
+     */
+    @NotNull
+    default List<EventState> publishAll(@NotNull Collection<? extends Event> events) {
+        Validation.notNull(events, "events cannot be null.");
+        List<EventState> states = new ArrayList<>(events.size());
+        for (Event event : events) {
+            states.add(publish(event));
+        }
+        return states;
+    }
+
     <T extends Event> boolean subscribe(@NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber);
 
+    /**
+     * 以给定的顺序与投递方式订阅，订阅者自身实现的 {@link Order} 与 {@link Delivery} 不再生效。
+     *
+     * <p>默认实现忽略给定的顺序与投递方式，以 {@link #subscribe(Class, EventSubscriber)} 订阅。
+     *
+     * @param ignoreCancelled 为 false 时 {@link Cancelable} 事件被取消后仍会投递给该订阅者
+     */
+    default <T extends Event> boolean subscribe(
+            @NotNull Class<T> eventType,
+            @NotNull EventSubscriber<T> subscriber,
+            int order,
+            @NotNull DeliveryMode deliveryMode,
+            boolean ignoreCancelled) {
+        Validation.notNull(deliveryMode, "delivery mode cannot be null.");
+        return subscribe(eventType, subscriber);
+    }
+
+    /**
+     * 订阅并归属于 owner，owner 通过 {@link #unsubscribeAll(Object)} 一次取消名下的全部订阅。
+     *
+     * <p>默认实现以 {@link #subscribe(Class, EventSubscriber)} 订阅，返回的订阅经由 {@link #unsubscribe(EventSubscriber)}
+     * 取消，不归属于 owner。
+     *
+     * @return 订阅句柄，订阅者已订阅该类型时返回已有的订阅
+     */
+    @NotNull
+    default <T extends Event> Subscription subscribe(
+            @NotNull Object owner, @NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        Validation.notNull(owner, "owner cannot be null.");
+        Validation.notNull(eventType, "event type cannot be null.");
+        Validation.notNull(subscriber, "subscriber cannot be null.");
+        subscribe(eventType, subscriber);
+        return new SimpleSubscription(this, eventType, subscriber);
+    }
+
+    /**
+     * 默认实现以 {@link #subscribe(Class, EventSubscriber, int, DeliveryMode, boolean)} 订阅，返回的订阅不归属于 owner。
+     *
+     * @see #subscribe(Class, EventSubscriber, int, DeliveryMode, boolean)
+     */
+    @NotNull
+    default <T extends Event> Subscription subscribe(
+            @NotNull Object owner,
+            @NotNull Class<T> eventType,
+            @NotNull EventSubscriber<T> subscriber,
+            int order,
+            @NotNull DeliveryMode deliveryMode,
+            boolean ignoreCancelled) {
+        Validation.notNull(owner, "owner cannot be null.");
+        Validation.notNull(eventType, "event type cannot be null.");
+        Validation.notNull(subscriber, "subscriber cannot be null.");
+        subscribe(eventType, subscriber, order, deliveryMode, ignoreCancelled);
+        return new SimpleSubscription(this, eventType, subscriber);
+    }
+
+    /** 以弱引用持有订阅者，订阅者被回收后在下次投递时自动取消订阅；默认实现仍以强引用订阅，见 {@link #subscribe(Object, Class, EventSubscriber)} */
+    @NotNull
+    default <T extends Event> Subscription subscribeWeakly(
+            @NotNull Object owner, @NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        return subscribe(owner, eventType, subscriber);
+    }
+
     boolean unsubscribe(@NotNull EventSubscriber<?> subscriber);
+
+    /** @return 取消的订阅数量，默认实现的订阅不归属于 owner，因此始终为 0，需经由各自的 {@link Subscription} 取消 */
+    default int unsubscribeAll(@NotNull Object owner) {
+        Validation.notNull(owner, "owner cannot be null.");
+        return 0;
+    }
+
+    /** @return 当前的分发统计，未开启或不支持时为 null */
+    @Nullable
+    default EventMetrics getMetrics() {
+        return null;
+    }
+
+    /**
+     * @param metrics 开启的分发统计，为 null 时关闭统计
+     * @throws UnsupportedOperationException 默认实现不支持分发统计，metrics 不为 null 时抛出
+     */
+    default void setMetrics(@Nullable EventMetrics metrics) {
+        if (metrics != null) {
+            throw new UnsupportedOperationException(
+                    String.format("%s does not support metrics.", getClass().getName()));
+        }
+    }
 }
@@ -0,0 +1,27 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.util.concurrent.ExecutorService;
+import team.idealstate.sugar.next.concurrent.ExecutorUtils;
+
+/** 异步投递默认使用的共享执行器，首次使用时才创建 */
+abstract class EventBusExecutor {
+
+    static final ExecutorService INSTANCE = ExecutorUtils.newBoundedExecutor(
+            "sugar-next-eventbus", Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 4096);
+}
@@ -0,0 +1,257 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.eventbus.annotation.EventHandler;
+import team.idealstate.sugar.next.eventbus.exception.EventBusException;
+import team.idealstate.sugar.next.proxy.Proxied;
+import team.idealstate.sugar.next.reflect.Reflection;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 由 {@link EventHandler} 方法绑定而成的订阅者。
+ *
+ * <p>订阅者通过 {@link LambdaMetafactory} 生成，投递时直接以接口调用执行处理方法，无法生成时退化为绑定了实例的 {@link MethodHandle}。
+ * 每个处理方法只生成一次订阅者类，同一处理方法绑定的各个实例共用该类。
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class EventHandlerBinding {
+
+    private static final String SUBSCRIBER_METHOD_NAME = "onEvent";
+    private static final MethodType SUBSCRIBER_METHOD_TYPE = MethodType.methodType(void.class, Event.class);
+    /** 每个处理方法生成独立的订阅者类，以类记录其处理方法，只保存方法签名以免阻止类卸载 */
+    private static final Map<Class<?>, String> HANDLERS = Collections.synchronizedMap(new WeakHashMap<>());
+    /** 按声明类缓存各处理方法的订阅者工厂，随声明类一同卸载 */
+    private static final ClassValue<Map<Method, MethodHandle>> FACTORIES = new ClassValue<Map<Method, MethodHandle>>() {
+        @Override
+        protected Map<Method, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @NonNull
+    private final Class<? extends Event> eventType;
+
+    @NonNull
+    @ToString.Exclude
+    private final EventSubscriber<?> subscriber;
+
+    @NonNull
+    private final Method method;
+
+    private final int order;
+
+    @NonNull
+    private final DeliveryMode deliveryMode;
+
+    private final boolean ignoreCancelled;
+
+    /**
+     * bean 为 {@link Proxied} 代理时，代理类重写了的处理方法经由代理调用以保留拦截，其余处理方法（如私有方法）绑定到被代理的实例，
+     * 而不是未经初始化的代理实例。
+     *
+     * @param type 查找处理方法的类型，通常是代理前的组件类型
+     * @return type 及其父类中声明的全部处理方法，子类重写并标注的方法优先
+     */
+    @NotNull
+    public static List<EventHandlerBinding> bind(@NotNull Object bean, @NotNull Class<?> type) {
+        Validation.notNull(bean, "bean must not be null.");
+        Validation.notNull(type, "type must not be null.");
+        Validation.is(type.isInstance(bean), "bean must be an instance of type.");
+        Object target = bean instanceof Proxied ? ((Proxied) bean).getProxyTarget() : bean;
+        List<EventHandlerBinding> bindings = null;
+        Set<String> overridden = new HashSet<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            Method[] methods = current.getDeclaredMethods();
+            Arrays.sort(methods, (a, b) -> a.getName().compareTo(b.getName()));
+            for (Method method : methods) {
+                EventHandler eventHandler = method.getAnnotation(EventHandler.class);
+                if (eventHandler == null || method.isBridge() || method.isSynthetic()) {
+                    continue;
+                }
+                int modifiers = method.getModifiers();
+                if (!Modifier.isPrivate(modifiers) && !overridden.add(signatureOf(method))) {
+                    continue;
+                }
+                if (bindings == null) {
+                    bindings = new ArrayList<>();
+                }
+                Object receiver = target != bean && isOverridden(bean.getClass(), method) ? bean : target;
+                bindings.add(bind(receiver, method, eventHandler));
+            }
+        }
+        return bindings == null ? Collections.emptyList() : bindings;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public boolean subscribe(@NotNull EventBus eventBus) {
+        Validation.notNull(eventBus, "eventBus must not be null.");
+        return eventBus.subscribe(
+                (Class) eventType, (EventSubscriber) subscriber, order, deliveryMode, ignoreCancelled);
+    }
+
+    /** @see EventBus#subscribe(Object, Class, EventSubscriber, int, DeliveryMode, boolean) */
+    @NotNull
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public Subscription subscribe(@NotNull EventBus eventBus, @NotNull Object owner) {
+        Validation.notNull(eventBus, "eventBus must not be null.");
+        return eventBus.subscribe(
+                owner, (Class) eventType, (EventSubscriber) subscriber, order, deliveryMode, ignoreCancelled);
+    }
+
+    public boolean unsubscribe(@NotNull EventBus eventBus) {
+        Validation.notNull(eventBus, "eventBus must not be null.");
+        return eventBus.unsubscribe(subscriber);
+    }
+
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private static EventHandlerBinding bind(
+            @NotNull Object bean, @NotNull Method method, @NotNull EventHandler eventHandler) {
+        int modifiers = method.getModifiers();
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (Modifier.isStatic(modifiers)
+                || Modifier.isAbstract(modifiers)
+                || parameterTypes.length != 1
+                || !Event.class.isAssignableFrom(parameterTypes[0])) {
+            throw new EventBusException(String.format(
+                    "Event handler '%s' must be a concrete instance method with a single event parameter.", method));
+        }
+        Class<? extends Event> eventType = (Class<? extends Event>) parameterTypes[0];
+        Class<?> declaringClass = method.getDeclaringClass();
+        Map<Method, MethodHandle> factories = FACTORIES.get(declaringClass);
+        MethodHandle factory = factories.get(method);
+        EventSubscriber<?> subscriber;
+        if (factory != null) {
+            try {
+                subscriber = (EventSubscriber<?>) factory.invoke(bean);
+            } catch (Throwable e) {
+                throw new EventBusException(String.format("Failed to bind event handler '%s'.", method), e);
+            }
+        } else {
+            MethodHandle handle;
+            MethodHandles.Lookup lookup;
+            try {
+                lookup = Reflection.privateLookup(declaringClass);
+                handle = lookup.unreflect(method);
+            } catch (Throwable e) {
+                throw new EventBusException(String.format("Event handler '%s' is not accessible.", method), e);
+            }
+            try {
+                CallSite callSite = LambdaMetafactory.metafactory(
+                        lookup,
+                        SUBSCRIBER_METHOD_NAME,
+                        MethodType.methodType(EventSubscriber.class, declaringClass),
+                        SUBSCRIBER_METHOD_TYPE,
+                        handle,
+                        MethodType.methodType(void.class, eventType));
+                factory = callSite.getTarget();
+                subscriber = (EventSubscriber<?>) factory.invoke(bean);
+                MethodHandle previous = factories.putIfAbsent(method, factory);
+                if (previous == null) {
+                    HANDLERS.put(subscriber.getClass(), method.toString());
+                } else {
+                    // 并发绑定时使用先缓存的工厂，避免同一处理方法对应多个订阅者类
+                    subscriber = (EventSubscriber<?>) previous.invoke(bean);
+                }
+            } catch (LambdaConversionException e) {
+                Log.debug(() -> String.format(
+                        "EventHandlerBinding: Bind '%s' with method handle. (%s)", method, e.getMessage()));
+                subscriber = new MethodHandleSubscriber(handle.bindTo(bean).asType(SUBSCRIBER_METHOD_TYPE), method);
+            } catch (Throwable e) {
+                throw new EventBusException(String.format("Failed to bind event handler '%s'.", method), e);
+            }
+        }
+        return new EventHandlerBinding(
+                eventType,
+                subscriber,
+                method,
+                eventHandler.order(),
+                eventHandler.delivery(),
+                eventHandler.ignoreCancelled());
+    }
+
+    /** @return 订阅者由处理方法绑定而成时返回处理方法，否则返回订阅者自身的描述 */
+    @NotNull
+    static String describe(@NotNull EventSubscriber<?> subscriber) {
+        String handler = HANDLERS.get(subscriber.getClass());
+        return handler == null ? String.valueOf(subscriber) : handler;
+    }
+
+    private static boolean isOverridden(@NotNull Class<?> proxyType, @NotNull Method method) {
+        if (Modifier.isPrivate(method.getModifiers())) {
+            return false;
+        }
+        try {
+            Method declared = proxyType.getDeclaredMethod(method.getName(), method.getParameterTypes());
+            return !Modifier.isPrivate(declared.getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @NotNull
+    private static String signatureOf(@NotNull Method method) {
+        return method.getName()
+                + MethodType.methodType(void.class, method.getParameterTypes()).toMethodDescriptorString();
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class MethodHandleSubscriber implements EventSubscriber<Event> {
+        @NonNull
+        private final MethodHandle handle;
+
+        @NonNull
+        private final Method method;
+
+        @Override
+        public void onEvent(Event event) throws Throwable {
+            handle.invokeExact(event);
+        }
+
+        @Override
+        public String toString() {
+            return method.toString();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 事件分发统计，按事件类型与订阅者分别累计，通过 {@link EventBus#setMetrics(EventMetrics)} 开启。
+ *
+ * <p>调用、失败与取消次数总是完整累计，耗时只在被采样的调用上测量。未开启时事件总线不会产生任何额外开销。
+ */
+public final class EventMetrics {
+
+    private static final Comparator<EventStatistics> COMPARATOR = Comparator.comparingLong(
+                    EventStatistics::getEstimatedNanos)
+            .reversed()
+            .thenComparing(EventStatistics::getName);
+    private static final long WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int sampleRate;
+    private final long slowThresholdNanos;
+    /** 以类名为键，避免统计阻止事件类型卸载 */
+    private final Map<String, Counter> eventTypes = new ConcurrentHashMap<>();
+    /** 订阅者取消订阅时随之移除 */
+    private final Map<EventSubscriber<?>, Counter> subscribers = new ConcurrentHashMap<>();
+
+    /** 测量全部调用且不检测慢订阅者 */
+    public EventMetrics() {
+        this(1, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param sampleRate 平均每多少次调用测量一次耗时，为 1 时测量全部调用
+     * @param slowThreshold 订阅者单次耗时超过该值时输出警告，同一订阅者每秒至多一次，为 0 时不检测
+     */
+    public EventMetrics(int sampleRate, long slowThreshold, @NotNull TimeUnit unit) {
+        Validation.is(sampleRate > 0, "sample rate must be positive.");
+        Validation.is(slowThreshold >= 0, "slow threshold cannot be negative.");
+        Validation.notNull(unit, "unit cannot be null.");
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = unit.toNanos(slowThreshold);
+    }
+
+    @NotNull
+    public EventMetricsSnapshot snapshot() {
+        return new EventMetricsSnapshot(
+                System.currentTimeMillis(), snapshotOf(eventTypes.values()), snapshotOf(subscribers.values()));
+    }
+
+    /** 清空已累计的统计，正在订阅的订阅者会在下次调用时重新开始累计 */
+    public void reset() {
+        eventTypes.clear();
+        subscribers.clear();
+    }
+
+    @NotNull
+    private static List<EventStatistics> snapshotOf(@NotNull Iterable<Counter> counters) {
+        List<EventStatistics> statistics = new ArrayList<>();
+        for (Counter counter : counters) {
+            statistics.add(counter.snapshot());
+        }
+        statistics.sort(COMPARATOR);
+        return Collections.unmodifiableList(statistics);
+    }
+
+    boolean sample() {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    /** @param nanos 未被采样时为负数 */
+    void record(@NotNull Class<?> eventType, @NotNull EventState state, long nanos) {
+        Counter counter = eventTypes.computeIfAbsent(eventType.getName(), Counter::new);
+        counter.invocations.increment();
+        if (state == EventState.FAILURE) {
+            counter.failures.increment();
+        } else if (state == EventState.CANCELLED) {
+            counter.cancellations.increment();
+        }
+        if (nanos >= 0) {
+            counter.time(nanos);
+        }
+    }
+
+    void remove(@NotNull EventSubscriber<?> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /** @return 在调用前后记录统计的订阅者，批量订阅者仍保持按批接收 */
+    @NotNull
+    EventSubscriber<?> measure(@NotNull EventSubscriber<?> subscriber) {
+        if (subscriber instanceof BatchEventSubscriber) {
+            return new MeasuredBatchSubscriber(this, (BatchEventSubscriber<?>) subscriber);
+        }
+        return new MeasuredSubscriber(this, subscriber);
+    }
+
+    @NotNull
+    private Counter counterOf(@NotNull EventSubscriber<?> subscriber) {
+        Counter counter = subscribers.get(subscriber);
+        if (counter == null) {
+            counter = subscribers.computeIfAbsent(subscriber, key -> new Counter(EventHandlerBinding.describe(key)));
+        }
+        return counter;
+    }
+
+    private void time(@NotNull Counter counter, @NotNull Object events, long nanos) {
+        counter.time(nanos);
+        if (slowThresholdNanos == 0 || nanos < slowThresholdNanos) {
+            return;
+        }
+        long now = System.nanoTime();
+        long warned = counter.warned.get();
+        if (warned != 0 && now - warned < WARNING_INTERVAL_NANOS) {
+            return;
+        }
+        if (counter.warned.compareAndSet(warned, now)) {
+            Log.warn(String.format(
+                    "Slow subscriber \"%s\" took %.3f ms for %s.",
+                    counter.name, nanos / 1_000_000.0, events));
+        }
+    }
+
+    private static final class Counter {
+        private final String name;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder cancellations = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong warned = new AtomicLong();
+
+        private Counter(@NotNull String name) {
+            this.name = name;
+        }
+
+        private void time(long nanos) {
+            samples.increment();
+            totalNanos.add(nanos);
+            long max;
+            while (nanos > (max = maxNanos.get())) {
+                if (maxNanos.compareAndSet(max, nanos)) {
+                    break;
+                }
+            }
+        }
+
+        @NotNull
+        private EventStatistics snapshot() {
+            return new EventStatistics(
+                    name,
+                    invocations.sum(),
+                    failures.sum(),
+                    cancellations.sum(),
+                    samples.sum(),
+                    totalNanos.sum(),
+                    maxNanos.get());
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class MeasuredSubscriber implements EventSubscriber<Event> {
+        @NonNull
+        protected final EventMetrics metrics;
+
+        @NonNull
+        protected final EventSubscriber<?> subscriber;
+
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void onEvent(Event event) throws Throwable {
+            Counter counter = metrics.counterOf(subscriber);
+            Cancelable cancelable = event instanceof Cancelable ? (Cancelable) event : null;
+            boolean cancelled = cancelable != null && cancelable.isCancelled();
+            boolean sampled = metrics.sample();
+            long start = sampled ? System.nanoTime() : 0L;
+            try {
+                ((EventSubscriber) subscriber).onEvent(event);
+            } catch (Throwable e) {
+                counter.failures.increment();
+                throw e;
+            } finally {
+                counter.invocations.increment();
+                if (sampled) {
+                    metrics.time(counter, event, System.nanoTime() - start);
+                }
+            }
+            if (!cancelled && cancelable != null && cancelable.isCancelled()) {
+                counter.cancellations.increment();
+            }
+        }
+
+        @Override
+        public String toString() {
+            return EventHandlerBinding.describe(subscriber);
+        }
+    }
+
+    private static final class MeasuredBatchSubscriber extends MeasuredSubscriber
+            implements BatchEventSubscriber<Event> {
+
+        private MeasuredBatchSubscriber(@NotNull EventMetrics metrics, @NotNull BatchEventSubscriber<?> subscriber) {
+            super(metrics, subscriber);
+        }
+
+        /** 一批事件计为 events.size() 次调用，失败时整批计为失败 */
+        @Override
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void onEvents(List<Event> events) throws Throwable {
+            Counter counter = metrics.counterOf(subscriber);
+            boolean sampled = metrics.sample();
+            long start = sampled ? System.nanoTime() : 0L;
+            try {
+                ((BatchEventSubscriber) subscriber).onEvents(events);
+            } catch (Throwable e) {
+                counter.failures.add(events.size());
+                throw e;
+            } finally {
+                counter.invocations.add(events.size());
+                if (sampled) {
+                    metrics.time(counter, events.size() + " events", System.nanoTime() - start);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/** 某个事件类型或订阅者在快照时刻的分发统计，耗时只统计被采样的调用 */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public final class EventStatistics {
+
+    @NonNull
+    private final String name;
+
+    private final long invocations;
+    private final long failures;
+    private final long cancellations;
+    private final long samples;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    public long getAverageNanos() {
+        return samples == 0 ? 0 : totalNanos / samples;
+    }
+
+    /** @return 按采样平均耗时推算的全部调用的耗时 */
+    public long getEstimatedNanos() {
+        return getAverageNanos() * invocations;
+    }
+}
@@ -0,0 +1,427 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.logging.Log;
+import team.idealstate.sugar.next.stacktrace.StackTraceUtils;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/**
+ * 经由预分配的环形缓冲区把事件从发布线程交给消费者线程的 {@link EventBus}，事件最终由 delegate 分发。
+ *
+ * <p>缓冲区容量为 2 的幂，生产者与消费者以槽位序号竞争读写，入队与出队都不分配对象。 {@link #publish(Event)} 在事件入队后即返回
+ * {@link EventState#SUCCESS}，被丢弃或总线已关闭时返回 {@link EventState#FAILURE}。 {@link Cancelable} 事件不经过缓冲区，仍在调用线程上同步发布。
+ * 有多个消费者时不保证事件之间的分发顺序。
+ */
+public final class RingBufferEventBus implements EventBus, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int SPIN_TRIES = 64;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CONSUMER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final AtomicLong COUNTER = new AtomicLong();
+
+    private final EventBus delegate;
+    private final int capacity;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final BackpressurePolicy backpressurePolicy;
+    private final Object[] slots;
+    /** 槽位序号等于写入位置时可写，等于写入位置加一时可读 */
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicInteger sleeping = new AtomicInteger();
+    private final Thread[] consumers;
+    private volatile boolean closed = false;
+
+    public RingBufferEventBus() {
+        this(DEFAULT_CAPACITY, 1, WaitStrategy.PARK, BackpressurePolicy.BLOCK);
+    }
+
+    public RingBufferEventBus(
+            int capacity,
+            int consumers,
+            @NotNull WaitStrategy waitStrategy,
+            @NotNull BackpressurePolicy backpressurePolicy) {
+        this(new SimpleEventBus(), capacity, consumers, waitStrategy, backpressurePolicy);
+    }
+
+    /**
+     * @param delegate 消费者线程用于分发事件的总线，订阅与取消订阅也直接委托给它
+     * @param capacity 缓冲区容量，必须是 2 的幂
+     * @param consumers 消费者线程的数量
+     */
+    public RingBufferEventBus(
+            @NotNull EventBus delegate,
+            int capacity,
+            int consumers,
+            @NotNull WaitStrategy waitStrategy,
+            @NotNull BackpressurePolicy backpressurePolicy) {
+        Validation.notNull(delegate, "delegate must not be null.");
+        Validation.is(capacity > 0 && (capacity & (capacity - 1)) == 0, "capacity must be a power of two.");
+        Validation.is(consumers > 0, "consumers must be greater than 0.");
+        Validation.notNull(waitStrategy, "waitStrategy must not be null.");
+        Validation.notNull(backpressurePolicy, "backpressurePolicy must not be null.");
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+        this.backpressurePolicy = backpressurePolicy;
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        String name = "sugar-next-eventbus-ring-" + COUNTER.getAndIncrement() + "-";
+        this.consumers = new Thread[consumers];
+        for (int i = 0; i < consumers; i++) {
+            Thread consumer = new Thread(this::consume, name + i);
+            consumer.setDaemon(true);
+            this.consumers[i] = consumer;
+        }
+        for (Thread consumer : this.consumers) {
+            consumer.start();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return 已入队但尚未被消费者取走的事件数量 */
+    public int getDepth() {
+        long depth = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(depth, capacity));
+    }
+
+    /** @return 因缓冲区已满而被丢弃的事件数量 */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @NotNull
+    @Override
+    public EventState publish(@NotNull Event event) {
+        Validation.notNull(event, "event cannot be null.");
+        if (event instanceof Cancelable) {
+            return delegate.publish(event);
+        }
+        return enqueue(event) ? EventState.SUCCESS : EventState.FAILURE;
+    }
+
+    /** @return 事件被分发后完成，被丢弃时以 {@link EventState#FAILURE} 完成 */
+    @NotNull
+    @Override
+    public CompletionStage<EventState> publishAsync(@NotNull Event event) {
+        Validation.notNull(event, "event cannot be null.");
+        if (event instanceof Cancelable) {
+            return CompletableFuture.completedFuture(delegate.publish(event));
+        }
+        CompletableFuture<EventState> future = new CompletableFuture<>();
+        if (!enqueue(new Publication(event, future))) {
+            future.complete(EventState.FAILURE);
+        }
+        return future;
+    }
+
+    @Override
+    public <T extends Event> boolean subscribe(@NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        return delegate.subscribe(eventType, subscriber);
+    }
+
+    @Override
+    public <T extends Event> boolean subscribe(
+            @NotNull Class<T> eventType,
+            @NotNull EventSubscriber<T> subscriber,
+            int order,
+            @NotNull DeliveryMode deliveryMode,
+            boolean ignoreCancelled) {
+        return delegate.subscribe(eventType, subscriber, order, deliveryMode, ignoreCancelled);
+    }
+
+    @NotNull
+    @Override
+    public <T extends Event> Subscription subscribe(
+            @NotNull Object owner, @NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        return delegate.subscribe(owner, eventType, subscriber);
+    }
+
+    @NotNull
+    @Override
+    public <T extends Event> Subscription subscribe(
+            @NotNull Object owner,
+            @NotNull Class<T> eventType,
+            @NotNull EventSubscriber<T> subscriber,
+            int order,
+            @NotNull DeliveryMode deliveryMode,
+            boolean ignoreCancelled) {
+        return delegate.subscribe(owner, eventType, subscriber, order, deliveryMode, ignoreCancelled);
+    }
+
+    @NotNull
+    @Override
+    public <T extends Event> Subscription subscribeWeakly(
+            @NotNull Object owner, @NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        return delegate.subscribeWeakly(owner, eventType, subscriber);
+    }
+
+    @Override
+    public boolean unsubscribe(@NotNull EventSubscriber<?> subscriber) {
+        return delegate.unsubscribe(subscriber);
+    }
+
+    @Override
+    public int unsubscribeAll(@NotNull Object owner) {
+        return delegate.unsubscribeAll(owner);
+    }
+
+    @Nullable
+    @Override
+    public EventMetrics getMetrics() {
+        return delegate.getMetrics();
+    }
+
+    @Override
+    public void setMetrics(@Nullable EventMetrics metrics) {
+        delegate.setMetrics(metrics);
+    }
+
+    /** 停止接收新事件，等待消费者分发完缓冲区中剩余的事件后返回 */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        boolean interrupted = false;
+        for (Thread consumer : consumers) {
+            LockSupport.unpark(consumer);
+        }
+        for (Thread consumer : consumers) {
+            if (consumer == Thread.currentThread()) {
+                continue;
+            }
+            while (consumer.isAlive()) {
+                try {
+                    consumer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        Object item;
+        while ((item = poll()) != null) {
+            dispatch(item);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean enqueue(@NotNull Object item) {
+        if (closed) {
+            Log.debug(() -> String.format("RingBufferEventBus: Closed, discard \"%s\".", item));
+            return false;
+        }
+        if (offer(item)) {
+            signal();
+            return true;
+        }
+        switch (backpressurePolicy) {
+            case DROP_NEWEST:
+                dropped.incrementAndGet();
+                return false;
+            case DROP_OLDEST:
+                do {
+                    Object oldest = poll();
+                    if (oldest != null) {
+                        dropped.incrementAndGet();
+                        discard(oldest);
+                    }
+                } while (!offer(item));
+                signal();
+                return true;
+            default:
+                if (isConsumer(Thread.currentThread())) {
+                    // 消费者线程自身等待空位会导致死锁，直接就地分发
+                    dispatch(item);
+                    return true;
+                }
+                for (int tries = 0; !offer(item); tries++) {
+                    if (closed) {
+                        return false;
+                    }
+                    idle(tries);
+                }
+                signal();
+                return true;
+        }
+    }
+
+    private boolean offer(@NotNull Object item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = item;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private Object poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    Object item = slots[index];
+                    slots[index] = null;
+                    sequences.set(index, position + capacity);
+                    return item;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    private void consume() {
+        int tries = 0;
+        while (true) {
+            Object item = poll();
+            if (item != null) {
+                tries = 0;
+                dispatch(item);
+                continue;
+            }
+            if (closed) {
+                return;
+            }
+            if (tries < SPIN_TRIES || waitStrategy == WaitStrategy.BUSY_SPIN) {
+                tries++;
+            } else if (waitStrategy == WaitStrategy.YIELD) {
+                Thread.yield();
+            } else {
+                sleeping.incrementAndGet();
+                try {
+                    if (tail.get() == head.get() && !closed) {
+                        LockSupport.parkNanos(this, CONSUMER_PARK_NANOS);
+                    }
+                } finally {
+                    sleeping.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void signal() {
+        if (sleeping.get() != 0) {
+            for (Thread consumer : consumers) {
+                LockSupport.unpark(consumer);
+            }
+        }
+    }
+
+    private void idle(int tries) {
+        if (tries < SPIN_TRIES) {
+            return;
+        }
+        switch (waitStrategy) {
+            case YIELD:
+                Thread.yield();
+                break;
+            case PARK:
+                LockSupport.parkNanos(this, PARK_NANOS);
+                break;
+            default:
+        }
+    }
+
+    private boolean isConsumer(@NotNull Thread thread) {
+        for (Thread consumer : consumers) {
+            if (consumer == thread) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void dispatch(@NotNull Object item) {
+        try {
+            if (item instanceof Publication) {
+                Publication publication = (Publication) item;
+                try {
+                    publication.future.complete(delegate.publish(publication.event));
+                } catch (Throwable e) {
+                    publication.future.completeExceptionally(e);
+                }
+            } else {
+                delegate.publish((Event) item);
+            }
+        } catch (Throwable e) {
+            Log.error(String.format(
+                    "RingBufferEventBus: Exception while dispatching \"%s\".\n%s",
+                    item, StackTraceUtils.makeThrowableDetails(e)));
+        }
+    }
+
+    private static void discard(@NotNull Object item) {
+        if (item instanceof Publication) {
+            ((Publication) item).future.complete(EventState.FAILURE);
+        }
+    }
+
+    /** {@link #publishAsync(Event)} 入队的事件，分发后完成 future */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Publication {
+        @NonNull
+        private final Event event;
+
+        @NonNull
+        private final CompletableFuture<EventState> future;
+    }
+}
@@ -16,14 +16,26 @@
 
 package team.idealstate.sugar.next.eventbus;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.stream.Collectors;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
@@ -32,125 +44,981 @@ import team.idealstate.sugar.logging.Log;
 import team.idealstate.sugar.next.stacktrace.StackTraceUtils;
 import team.idealstate.sugar.validate.Validation;
 import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
 
 final class SimpleEventBus implements EventBus {
     public static final SimpleEventBus INSTANCE = new SimpleEventBus();
 
     private static final int SUBSCRIBERS_INITIAL_CAPACITY = 32;
     private static final Order DEFAULT_ORDER = Order.LAST_ORDER;
-    private static final Comparator<EventSubscriber<?>> SUBSCRIBER_COMPARATOR = (first, second) -> {
-        Order firstOrder = first instanceof Order ? (Order) first : DEFAULT_ORDER;
-        Order secondOrder = second instanceof Order ? (Order) second : DEFAULT_ORDER;
-        return Order.COMPARATOR.compare(firstOrder, secondOrder);
-    };
-    private final Map<Class<?>, Set<EventSubscriber<?>>> subscribers =
+    private static final EventSubscriber<?>[] NO_SUBSCRIBERS = new EventSubscriber<?>[0];
+    private static final DeliveryMode[] NO_DELIVERY_MODES = new DeliveryMode[0];
+    private static final Registration[] NO_REGISTRATIONS = new Registration[0];
+    private static final int[] NO_ORDERS = new int[0];
+    /** 每个订阅类型的注册数组已按 {@link Order} 与订阅先后排序，只在订阅或取消订阅时整体替换 */
+    private final Map<Class<?>, Registration[]> registrations = new ConcurrentHashMap<>(SUBSCRIBERS_INITIAL_CAPACITY);
+    /** 每个具体事件类型展开后的订阅者数组，订阅关系变化时整体丢弃 */
+    private volatile Map<Class<?>, Resolved> resolved =
             new ConcurrentHashMap<>(SUBSCRIBERS_INITIAL_CAPACITY);
-    private final Set<Publishing> publishing = new CopyOnWriteArraySet<>();
+    /** 每个所有者名下的注册，用于一次取消其全部订阅 */
+    private final Map<Object, List<Registration>> owners = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadLocal<Publishing> publishing = ThreadLocal.withInitial(Publishing::new);
+    private final Executor executor;
+    private volatile EventMetrics metrics;
+
+    SimpleEventBus() {
+        this(null);
+    }
+
+    /** @param executor 为 null 时使用共享的 {@link EventBusExecutor#INSTANCE} */
+    SimpleEventBus(@Nullable Executor executor) {
+        this.executor = executor;
+    }
+
+    @NotNull
+    private Executor getExecutor() {
+        Executor executor = this.executor;
+        return executor == null ? EventBusExecutor.INSTANCE : executor;
+    }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
-    private static EventState onEvent(Event event, Collection<EventSubscriber<?>> subscribers) {
-        for (EventSubscriber subscriber : subscribers) {
-            try {
-                subscriber.onEvent(event);
-            } catch (Throwable e) {
-                Log.error(String.format(
-                        "Exception while invoking subscriber \"%s\" for event \"%s\".\n" + "%s",
-                        subscriber, event, StackTraceUtils.makeThrowableDetails(e)));
+    private static boolean onEvent(Event event, EventSubscriber subscriber) {
+        try {
+            subscriber.onEvent(event);
+            return true;
+        } catch (Throwable e) {
+            Log.error(String.format(
+                    "Exception while invoking subscriber \"%s\" for event \"%s\".\n" + "%s",
+                    subscriber, event, StackTraceUtils.makeThrowableDetails(e)));
+            return false;
+        }
+    }
+
+    private static EventState onEvent(Event event, EventSubscriber<?>[] subscribers) {
+        for (int i = 0; i < subscribers.length; i++) {
+            if (!onEvent(event, subscribers[i])) {
                 return EventState.FAILURE;
             }
         }
         return EventState.SUCCESS;
     }
 
-    @SuppressWarnings({"rawtypes", "unchecked"})
-    private static EventState onEvent(Event event, Cancelable cancelable, Collection<EventSubscriber<?>> subscribers) {
-        if (cancelable.isCancelled()) {
+    /** 事件被取消后只继续投递给不忽略已取消事件的订阅者 */
+    private static EventState onEvent(Event event, Cancelable cancelable, Resolved resolved) {
+        EventSubscriber<?>[] subscribers = resolved.subscribers;
+        boolean cancelled = cancelable.isCancelled();
+        if (cancelled && resolved.ignoringCancelled) {
             return EventState.CANCELLED;
         }
-        for (EventSubscriber subscriber : subscribers) {
+        for (int i = 0; i < subscribers.length; i++) {
+            if (cancelled && resolved.ignoreCancelled[i]) {
+                continue;
+            }
+            if (!onEvent(event, subscribers[i])) {
+                return EventState.FAILURE;
+            }
+            if (!cancelled && cancelable.isCancelled()) {
+                if (resolved.ignoringCancelled) {
+                    return EventState.CANCELLED;
+                }
+                cancelled = true;
+            }
+        }
+        return cancelled ? EventState.CANCELLED : EventState.SUCCESS;
+    }
+
+    /** @return 投递失败的事件，批量订阅者失败时整批视为失败 */
+    @NotNull
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static List<Event> onEvents(List<Event> events, EventSubscriber subscriber) {
+        if (subscriber instanceof BatchEventSubscriber) {
             try {
-                subscriber.onEvent(event);
+                ((BatchEventSubscriber) subscriber).onEvents(Collections.unmodifiableList(events));
+                return Collections.emptyList();
             } catch (Throwable e) {
                 Log.error(String.format(
-                        "Exception while invoking subscriber \"%s\" for event \"%s\".\n" + "%s",
-                        subscriber, event, StackTraceUtils.makeThrowableDetails(e)));
-                return EventState.FAILURE;
+                        "Exception while invoking subscriber \"%s\" for %s events of type \"%s\".\n" + "%s",
+                        subscriber,
+                        events.size(),
+                        events.get(0).getClass().getName(),
+                        StackTraceUtils.makeThrowableDetails(e)));
+                return events;
             }
-            if (cancelable.isCancelled()) {
-                return EventState.CANCELLED;
+        }
+        List<Event> failures = null;
+        for (int i = 0; i < events.size(); i++) {
+            Event event = events.get(i);
+            if (!onEvent(event, subscriber)) {
+                if (failures == null) {
+                    failures = new ArrayList<>();
+                }
+                failures.add(event);
             }
         }
-        return EventState.SUCCESS;
+        return failures == null ? Collections.emptyList() : failures;
+    }
+
+    /** 同步订阅者按顺序执行并在首次失败时停止，异步订阅者不计入结果，并行订阅者全部完成后汇总结果 */
+    private EventState onEvent(Event event, Resolved resolved) {
+        EventSubscriber<?>[] subscribers = resolved.subscribers;
+        EventState state = EventState.SUCCESS;
+        List<ParallelDelivery<Boolean>> deliveries = null;
+        for (int i = 0; i < subscribers.length; i++) {
+            EventSubscriber<?> subscriber = subscribers[i];
+            DeliveryMode mode = resolved.modes[i];
+            if (mode == DeliveryMode.ASYNC) {
+                deliverAsync(subscriber, () -> onEvent(event, subscriber));
+                continue;
+            }
+            if (mode == DeliveryMode.PARALLEL) {
+                if (deliveries == null) {
+                    deliveries = new ArrayList<>();
+                }
+                deliveries.add(deliverParallel(() -> onEvent(event, subscriber)));
+                continue;
+            }
+            if (!onEvent(event, subscriber)) {
+                state = EventState.FAILURE;
+                break;
+            }
+        }
+        if (deliveries != null) {
+            for (ParallelDelivery<Boolean> delivery : deliveries) {
+                delivery.run();
+            }
+            for (ParallelDelivery<Boolean> delivery : deliveries) {
+                if (!delivery.await()) {
+                    state = EventState.FAILURE;
+                }
+            }
+        }
+        return state;
+    }
+
+    /**
+     * 以订阅者为主序投递一批同类型的事件，事件在某个同步订阅者处失败后不再投递给后续订阅者。
+     *
+     * @param failures 收集投递失败的事件
+     */
+    private void onEvents(List<Event> events, Resolved resolved, Set<Event> failures) {
+        EventSubscriber<?>[] subscribers = resolved.subscribers;
+        List<Event> remaining = events;
+        List<ParallelDelivery<List<Event>>> deliveries = null;
+        for (int i = 0; i < subscribers.length && !remaining.isEmpty(); i++) {
+            EventSubscriber<?> subscriber = subscribers[i];
+            List<Event> batch = remaining;
+            DeliveryMode mode = resolved.modes[i];
+            if (mode == DeliveryMode.ASYNC) {
+                deliverAsync(subscriber, () -> onEvents(batch, subscriber));
+                continue;
+            }
+            if (mode == DeliveryMode.PARALLEL) {
+                if (deliveries == null) {
+                    deliveries = new ArrayList<>();
+                }
+                deliveries.add(deliverParallel(() -> onEvents(batch, subscriber)));
+                continue;
+            }
+            List<Event> failed = onEvents(batch, subscriber);
+            if (!failed.isEmpty()) {
+                failures.addAll(failed);
+                remaining = new ArrayList<>(remaining.size() - failed.size());
+                for (Event event : batch) {
+                    if (!failures.contains(event)) {
+                        remaining.add(event);
+                    }
+                }
+            }
+        }
+        if (deliveries != null) {
+            for (ParallelDelivery<List<Event>> delivery : deliveries) {
+                delivery.run();
+            }
+            for (ParallelDelivery<List<Event>> delivery : deliveries) {
+                failures.addAll(delivery.await());
+            }
+        }
+    }
+
+    private void deliverAsync(EventSubscriber<?> subscriber, Runnable delivery) {
+        try {
+            getExecutor().execute(delivery);
+        } catch (RejectedExecutionException e) {
+            Log.debug(() -> String.format(
+                    "SimpleEventBus: Executor rejected subscriber \"%s\", invoke it on current thread.", subscriber));
+            delivery.run();
+        }
+    }
+
+    private <R> ParallelDelivery<R> deliverParallel(Supplier<R> task) {
+        ParallelDelivery<R> delivery = new ParallelDelivery<>(task);
+        try {
+            getExecutor().execute(delivery);
+        } catch (RejectedExecutionException ignored) {
+            // 未被领取的投递会由发布线程执行
+        }
+        return delivery;
+    }
+
+    private static int orderOf(EventSubscriber<?> subscriber) {
+        return (subscriber instanceof Order ? (Order) subscriber : DEFAULT_ORDER).getOrder();
+    }
+
+    @NotNull
+    private static DeliveryMode deliveryModeOf(EventSubscriber<?> subscriber) {
+        return subscriber instanceof Delivery ? ((Delivery) subscriber).getDeliveryMode() : DeliveryMode.SYNC;
     }
 
     @NotNull
     @Override
     public EventState publish(@NotNull Event event) {
         Validation.notNull(event, "event cannot be null.");
-        final Publishing publishing = new Publishing(event);
-        if (!this.publishing.add(publishing)) {
+        final Publishing publishing = this.publishing.get();
+        if (!publishing.push(event)) {
+            Log.error(String.format("Circular event \"%s\" publishing detected.", event));
+            return EventState.FAILURE;
+        }
+        try {
+            Resolved resolved = resolve(event.getClass());
+            EventMetrics metrics = resolved.metrics;
+            if (metrics == null) {
+                return dispatch(event, resolved);
+            }
+            boolean sampled = metrics.sample();
+            long start = sampled ? System.nanoTime() : 0L;
+            EventState state = dispatch(event, resolved);
+            metrics.record(event.getClass(), state, sampled ? System.nanoTime() - start : -1L);
+            return state;
+        } finally {
+            publishing.pop();
+        }
+    }
+
+    /** 只投递给顺序为 order 的订阅者，供 {@link EventBridge} 在源事件总线上按订阅者的顺序分段转发，不单独计入事件统计 */
+    @NotNull
+    EventState publish(@NotNull Event event, int order) {
+        Validation.notNull(event, "event cannot be null.");
+        final Publishing publishing = this.publishing.get();
+        if (!publishing.push(event)) {
             Log.error(String.format("Circular event \"%s\" publishing detected.", event));
             return EventState.FAILURE;
         }
-        Class<?> eventType = event.getClass();
-        Collection<EventSubscriber<?>> subscribers = this.subscribers.get(eventType);
         try {
-            if (subscribers != null && !subscribers.isEmpty()) {
-                subscribers = subscribers.stream().sorted(SUBSCRIBER_COMPARATOR).collect(Collectors.toList());
-                if (!subscribers.isEmpty()) {
-                    if (event instanceof Cancelable) {
-                        return onEvent(event, (Cancelable) event, subscribers);
+            return dispatch(event, resolve(event.getClass()).slice(order));
+        } finally {
+            publishing.pop();
+        }
+    }
+
+    @NotNull
+    private EventState dispatch(@NotNull Event event, @NotNull Resolved resolved) {
+        if (resolved.subscribers.length != 0) {
+            if (event instanceof Cancelable) {
+                return onEvent(event, (Cancelable) event, resolved);
+            } else if (resolved.synchronous) {
+                return onEvent(event, resolved.subscribers);
+            } else {
+                return onEvent(event, resolved);
+            }
+        }
+        if (!(event instanceof Cancelable)) {
+            return EventState.SUCCESS;
+        }
+        return ((Cancelable) event).isCancelled() ? EventState.CANCELLED : EventState.SUCCESS;
+    }
+
+    @NotNull
+    @Override
+    public CompletionStage<EventState> publishAsync(@NotNull Event event) {
+        Validation.notNull(event, "event cannot be null.");
+        if (event instanceof Cancelable) {
+            return CompletableFuture.completedFuture(publish(event));
+        }
+        CompletableFuture<EventState> future = new CompletableFuture<>();
+        try {
+            getExecutor().execute(() -> {
+                try {
+                    future.complete(publish(event));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 同类型的事件共用一次订阅者查找，不同类型的事件按其首次出现的顺序逐组发布；{@link Cancelable} 事件逐个发布，
+     * 发布前先发布其之前已分组的事件，因此不会越过输入中在其之前的事件。
+     */
+    @NotNull
+    @Override
+    public List<EventState> publishAll(@NotNull Collection<? extends Event> events) {
+        Validation.notNull(events, "events cannot be null.");
+        EventState[] states = new EventState[events.size()];
+        Map<Class<?>, Batch> batches = new LinkedHashMap<>();
+        Class<?> lastType = null;
+        Batch last = null;
+        int index = 0;
+        for (Event event : events) {
+            Validation.notNull(event, "event cannot be null.");
+            if (event instanceof Cancelable) {
+                if (!batches.isEmpty()) {
+                    publishBatches(batches, states);
+                    batches.clear();
+                    lastType = null;
+                }
+                states[index++] = publish(event);
+                continue;
+            }
+            Class<?> type = event.getClass();
+            if (type != lastType) {
+                last = batches.computeIfAbsent(type, key -> new Batch());
+                lastType = type;
+            }
+            last.add(event, index++);
+        }
+        publishBatches(batches, states);
+        return Arrays.asList(states);
+    }
+
+    private void publishBatches(@NotNull Map<Class<?>, Batch> batches, @NotNull EventState[] states) {
+        final Publishing publishing = this.publishing.get();
+        for (Map.Entry<Class<?>, Batch> entry : batches.entrySet()) {
+            Batch batch = entry.getValue();
+            Set<Event> failures = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<Event> publishable = batch.events;
+            if (!publishing.isEmpty()) {
+                publishable = new ArrayList<>(batch.events.size());
+                for (Event event : batch.events) {
+                    if (publishing.contains(event)) {
+                        Log.error(String.format("Circular event \"%s\" publishing detected.", event));
+                        failures.add(event);
                     } else {
-                        return onEvent(event, subscribers);
+                        publishable.add(event);
                     }
                 }
             }
-            if (!(event instanceof Cancelable)) {
-                return EventState.SUCCESS;
+            Resolved resolved = resolve(entry.getKey());
+            EventMetrics metrics = resolved.metrics;
+            boolean sampled = metrics != null && metrics.sample();
+            long start = sampled ? System.nanoTime() : 0L;
+            if (resolved.subscribers.length != 0 && !publishable.isEmpty()) {
+                publishing.push(publishable);
+                try {
+                    onEvents(publishable, resolved, failures);
+                } finally {
+                    publishing.pop();
+                }
+            }
+            boolean failed = !failures.isEmpty();
+            for (int i = 0; i < batch.events.size(); i++) {
+                states[batch.indices[i]] = failed && failures.contains(batch.events.get(i))
+                        ? EventState.FAILURE
+                        : EventState.SUCCESS;
+            }
+            if (metrics != null) {
+                // 整组的耗时平摊到组内每个事件上
+                long nanos = sampled ? (System.nanoTime() - start) / batch.events.size() : -1L;
+                for (int i = 0; i < batch.events.size(); i++) {
+                    metrics.record(entry.getKey(), states[batch.indices[i]], nanos);
+                }
             }
-            return ((Cancelable) event).isCancelled() ? EventState.CANCELLED : EventState.SUCCESS;
-        } finally {
-            this.publishing.remove(publishing);
         }
     }
 
+    @NotNull
+    private Resolved resolve(@NotNull Class<?> eventType) {
+        Map<Class<?>, Resolved> resolved = this.resolved;
+        Resolved subscribers = resolved.get(eventType);
+        if (subscribers == null) {
+            subscribers = resolved.computeIfAbsent(eventType, this::doResolve);
+        }
+        return subscribers;
+    }
+
+    /** 合并所有可接收该事件类型的订阅类型（父类与接口）上的注册，同一订阅者只保留一次，开启统计时包装订阅者 */
+    @NotNull
+    private Resolved doResolve(@NotNull Class<?> eventType) {
+        EventMetrics metrics = this.metrics;
+        List<Registration> merged = new ArrayList<>();
+        for (Map.Entry<Class<?>, Registration[]> entry : registrations.entrySet()) {
+            if (entry.getKey().isAssignableFrom(eventType)) {
+                Collections.addAll(merged, entry.getValue());
+            }
+        }
+        if (merged.isEmpty()) {
+            return metrics == null
+                    ? Resolved.EMPTY
+                    : new Resolved(NO_SUBSCRIBERS, NO_DELIVERY_MODES, new boolean[0], NO_ORDERS, true, true, metrics);
+        }
+        merged.sort(Registration.COMPARATOR);
+        List<EventSubscriber<?>> subscribers = new ArrayList<>(merged.size());
+        List<DeliveryMode> modes = new ArrayList<>(merged.size());
+        boolean[] ignoreCancelled = new boolean[merged.size()];
+        int[] orders = new int[merged.size()];
+        boolean synchronous = true;
+        boolean ignoringCancelled = true;
+        List<EventSubscriber<?>> measured = metrics == null ? subscribers : new ArrayList<>(merged.size());
+        for (Registration registration : merged) {
+            if (!subscribers.contains(registration.subscriber)) {
+                ignoreCancelled[subscribers.size()] = registration.ignoreCancelled;
+                orders[subscribers.size()] = registration.order;
+                subscribers.add(registration.subscriber);
+                if (metrics != null) {
+                    measured.add(metrics.measure(registration.subscriber));
+                }
+                modes.add(registration.mode);
+                synchronous &= registration.mode == DeliveryMode.SYNC;
+                ignoringCancelled &= registration.ignoreCancelled;
+            }
+        }
+        return new Resolved(
+                measured.toArray(NO_SUBSCRIBERS),
+                modes.toArray(NO_DELIVERY_MODES),
+                Arrays.copyOf(ignoreCancelled, subscribers.size()),
+                Arrays.copyOf(orders, subscribers.size()),
+                synchronous,
+                ignoringCancelled,
+                metrics);
+    }
+
+    private void invalidate() {
+        this.resolved = new ConcurrentHashMap<>(SUBSCRIBERS_INITIAL_CAPACITY);
+    }
+
+    @Nullable
+    @Override
+    public EventMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void setMetrics(@Nullable EventMetrics metrics) {
+        this.metrics = metrics;
+        invalidate();
+    }
+
     @Override
     public <T extends Event> boolean subscribe(@NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        Validation.notNull(subscriber, "subscriber cannot be null.");
+        return subscribe(eventType, subscriber, orderOf(subscriber), deliveryModeOf(subscriber), true);
+    }
+
+    @Override
+    public <T extends Event> boolean subscribe(
+            @NotNull Class<T> eventType,
+            @NotNull EventSubscriber<T> subscriber,
+            int order,
+            @NotNull DeliveryMode deliveryMode,
+            boolean ignoreCancelled) {
+        Validation.notNull(eventType, "event type cannot be null.");
+        Validation.notNull(subscriber, "subscriber cannot be null.");
+        Validation.notNull(deliveryMode, "delivery mode cannot be null.");
+        Registration registration =
+                new Registration(this, null, eventType, subscriber, order, deliveryMode, ignoreCancelled, false);
+        return register(registration) == registration;
+    }
+
+    @NotNull
+    @Override
+    public <T extends Event> Subscription subscribe(
+            @NotNull Object owner, @NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        Validation.notNull(subscriber, "subscriber cannot be null.");
+        return subscribe(owner, eventType, subscriber, orderOf(subscriber), deliveryModeOf(subscriber), true);
+    }
+
+    @NotNull
+    @Override
+    public <T extends Event> Subscription subscribe(
+            @NotNull Object owner,
+            @NotNull Class<T> eventType,
+            @NotNull EventSubscriber<T> subscriber,
+            int order,
+            @NotNull DeliveryMode deliveryMode,
+            boolean ignoreCancelled) {
+        Validation.notNull(owner, "owner cannot be null.");
         Validation.notNull(eventType, "event type cannot be null.");
         Validation.notNull(subscriber, "subscriber cannot be null.");
-        return this.subscribers
-                .computeIfAbsent(eventType, key -> new CopyOnWriteArraySet<>())
-                .add(subscriber);
+        Validation.notNull(deliveryMode, "delivery mode cannot be null.");
+        return register(
+                new Registration(this, owner, eventType, subscriber, order, deliveryMode, ignoreCancelled, false));
+    }
+
+    @NotNull
+    @Override
+    public <T extends Event> Subscription subscribeWeakly(
+            @NotNull Object owner, @NotNull Class<T> eventType, @NotNull EventSubscriber<T> subscriber) {
+        Validation.notNull(owner, "owner cannot be null.");
+        Validation.notNull(eventType, "event type cannot be null.");
+        Validation.notNull(subscriber, "subscriber cannot be null.");
+        return register(new Registration(
+                this, owner, eventType, subscriber, orderOf(subscriber), deliveryModeOf(subscriber), true, true));
+    }
+
+    /** @return 生效的注册，订阅者已订阅该类型时返回已有的注册 */
+    @NotNull
+    private Registration register(@NotNull Registration registration) {
+        Registration[] effective = {registration};
+        this.registrations.compute(registration.eventType, (key, registrations) -> {
+            if (registrations == null) {
+                registrations = NO_REGISTRATIONS;
+            }
+            EventSubscriber<?> subscriber = registration.getSubscriber();
+            for (Registration existing : registrations) {
+                if (existing.matches(subscriber)) {
+                    effective[0] = existing;
+                    return registrations;
+                }
+            }
+            int index = registrations.length;
+            while (index > 0 && registrations[index - 1].order > registration.order) {
+                index--;
+            }
+            Registration[] result = new Registration[registrations.length + 1];
+            System.arraycopy(registrations, 0, result, 0, index);
+            result[index] = registration;
+            System.arraycopy(registrations, index, result, index + 1, registrations.length - index);
+            return result;
+        });
+        if (effective[0] == registration) {
+            Object owner = registration.owner;
+            if (owner != null) {
+                owners.compute(owner, (key, owned) -> {
+                    if (owned == null) {
+                        owned = new ArrayList<>();
+                    }
+                    owned.add(registration);
+                    return owned;
+                });
+            }
+            invalidate();
+        }
+        return effective[0];
     }
 
     @Override
     public boolean unsubscribe(@NotNull EventSubscriber<?> subscriber) {
         Validation.notNull(subscriber, "subscriber cannot be null.");
-        boolean removed = false;
-        for (Set<EventSubscriber<?>> subscribers : this.subscribers.values()) {
-            if (subscribers.remove(subscriber)) {
-                removed = true;
+        List<Registration> released = new ArrayList<>();
+        for (Class<?> eventType : this.registrations.keySet()) {
+            this.registrations.computeIfPresent(eventType, (key, registrations) -> {
+                for (int i = 0; i < registrations.length; i++) {
+                    if (registrations[i].matches(subscriber)) {
+                        released.add(registrations[i]);
+                        return without(registrations, i);
+                    }
+                }
+                return registrations;
+            });
+        }
+        if (released.isEmpty()) {
+            return false;
+        }
+        release(released);
+        return true;
+    }
+
+    /** 每个受影响的订阅类型只替换一次注册数组 */
+    @Override
+    public int unsubscribeAll(@NotNull Object owner) {
+        Validation.notNull(owner, "owner cannot be null.");
+        List<Registration> owned = owners.remove(owner);
+        if (owned == null) {
+            return 0;
+        }
+        Map<Class<?>, Set<Registration>> grouped = new LinkedHashMap<>();
+        for (Registration registration : owned) {
+            grouped.computeIfAbsent(
+                            registration.eventType, key -> Collections.newSetFromMap(new IdentityHashMap<>()))
+                    .add(registration);
+        }
+        List<Registration> released = new ArrayList<>(owned.size());
+        for (Map.Entry<Class<?>, Set<Registration>> entry : grouped.entrySet()) {
+            Set<Registration> removing = entry.getValue();
+            this.registrations.computeIfPresent(entry.getKey(), (key, registrations) -> {
+                Registration[] result = new Registration[registrations.length];
+                int size = 0;
+                for (Registration registration : registrations) {
+                    if (removing.contains(registration)) {
+                        released.add(registration);
+                    } else {
+                        result[size++] = registration;
+                    }
+                }
+                if (size == registrations.length) {
+                    return registrations;
+                }
+                return size == 0 ? null : Arrays.copyOf(result, size);
+            });
+        }
+        if (!released.isEmpty()) {
+            release(released);
+        }
+        return released.size();
+    }
+
+    private boolean unsubscribe(@NotNull Registration registration) {
+        boolean[] removed = {false};
+        this.registrations.computeIfPresent(registration.eventType, (key, registrations) -> {
+            for (int i = 0; i < registrations.length; i++) {
+                if (registrations[i] == registration) {
+                    removed[0] = true;
+                    return without(registrations, i);
+                }
             }
+            return registrations;
+        });
+        if (removed[0]) {
+            release(Collections.singletonList(registration));
         }
-        return removed;
+        return removed[0];
     }
 
-    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @Nullable
+    private static Registration[] without(@NotNull Registration[] registrations, int index) {
+        if (registrations.length == 1) {
+            return null;
+        }
+        Registration[] result = new Registration[registrations.length - 1];
+        System.arraycopy(registrations, 0, result, 0, index);
+        System.arraycopy(registrations, index + 1, result, index, registrations.length - index - 1);
+        return result;
+    }
+
+    /** 已从注册表中移除的注册在此更新所有者索引、统计与解析缓存 */
+    private void release(@NotNull List<Registration> released) {
+        EventMetrics metrics = this.metrics;
+        for (Registration registration : released) {
+            registration.active = false;
+            Object owner = registration.owner;
+            if (owner != null) {
+                owners.computeIfPresent(owner, (key, owned) -> {
+                    owned.remove(registration);
+                    return owned.isEmpty() ? null : owned;
+                });
+            }
+            if (metrics != null) {
+                metrics.remove(registration.subscriber);
+            }
+        }
+        invalidate();
+    }
+
+    /** 一次订阅，弱引用的订阅者被回收后在下次投递时自行取消订阅 */
     @ToString
-    private static final class Publishing {
+    private static final class Registration implements Subscription {
+        private static final Comparator<Registration> COMPARATOR = Comparator.comparingInt(
+                        (Registration registration) -> registration.order)
+                .thenComparingLong(registration -> registration.sequence);
+
+        @ToString.Exclude
+        private final SimpleEventBus eventBus;
+
+        private final Object owner;
+        private final Class<? extends Event> eventType;
+        /** 实际投递的订阅者，弱引用订阅时为 {@link WeakSubscriber} */
+        private final EventSubscriber<?> subscriber;
+
+        @ToString.Exclude
+        private final WeakReference<EventSubscriber<?>> reference;
+
+        private final int order;
+        private final DeliveryMode mode;
+        private final boolean ignoreCancelled;
+        private final long sequence;
+        private volatile boolean active = true;
+
+        private Registration(
+                @NotNull SimpleEventBus eventBus,
+                @Nullable Object owner,
+                @NotNull Class<? extends Event> eventType,
+                @NotNull EventSubscriber<?> subscriber,
+                int order,
+                @NotNull DeliveryMode mode,
+                boolean ignoreCancelled,
+                boolean weak) {
+            this.eventBus = eventBus;
+            this.owner = owner;
+            this.eventType = eventType;
+            if (weak) {
+                this.reference = new WeakReference<>(subscriber);
+                this.subscriber = subscriber instanceof BatchEventSubscriber
+                        ? new WeakBatchSubscriber(this)
+                        : new WeakSubscriber(this);
+            } else {
+                this.reference = null;
+                this.subscriber = subscriber;
+            }
+            this.order = order;
+            this.mode = mode;
+            this.ignoreCancelled = ignoreCancelled;
+            this.sequence = eventBus.sequence.getAndIncrement();
+        }
+
+        private boolean matches(@Nullable EventSubscriber<?> subscriber) {
+            EventSubscriber<?> target = getSubscriber();
+            return target != null && target.equals(subscriber);
+        }
+
+        @NotNull
+        @Override
+        public Class<? extends Event> getEventType() {
+            return eventType;
+        }
+
+        @Nullable
+        @Override
+        public EventSubscriber<?> getSubscriber() {
+            return reference == null ? subscriber : reference.get();
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public boolean unsubscribe() {
+            return eventBus.unsubscribe(this);
+        }
+    }
+
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static class WeakSubscriber implements EventSubscriber<Event> {
         @NonNull
-        private final Event event;
+        protected final Registration registration;
 
         @Override
-        public boolean equals(Object object) {
-            if (object == null || getClass() != object.getClass()) return false;
-            Publishing that = (Publishing) object;
-            return Objects.equals(event, that.event);
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void onEvent(Event event) throws Throwable {
+            EventSubscriber subscriber = registration.getSubscriber();
+            if (subscriber == null) {
+                registration.unsubscribe();
+                return;
+            }
+            subscriber.onEvent(event);
+        }
+
+        @Override
+        public String toString() {
+            EventSubscriber<?> subscriber = registration.getSubscriber();
+            return subscriber == null ? "<collected>" : EventHandlerBinding.describe(subscriber);
+        }
+    }
+
+    private static final class WeakBatchSubscriber extends WeakSubscriber implements BatchEventSubscriber<Event> {
+        private WeakBatchSubscriber(@NotNull Registration registration) {
+            super(registration);
         }
 
         @Override
-        public int hashCode() {
-            return System.identityHashCode(event);
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        public void onEvents(List<Event> events) throws Throwable {
+            BatchEventSubscriber subscriber = (BatchEventSubscriber) registration.getSubscriber();
+            if (subscriber == null) {
+                registration.unsubscribe();
+                return;
+            }
+            subscriber.onEvents(events);
+        }
+    }
+
+    /** 某个具体事件类型展开后的订阅者及其投递方式 */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    private static final class Resolved {
+        private static final Resolved EMPTY =
+                new Resolved(NO_SUBSCRIBERS, NO_DELIVERY_MODES, new boolean[0], NO_ORDERS, true, true, null);
+
+        @NonNull
+        private final EventSubscriber<?>[] subscribers;
+
+        @NonNull
+        private final DeliveryMode[] modes;
+
+        @NonNull
+        private final boolean[] ignoreCancelled;
+
+        /** 订阅者的顺序，已升序排列 */
+        @NonNull
+        private final int[] orders;
+
+        /** 全部为 {@link DeliveryMode#SYNC} 时无需逐个判断投递方式 */
+        private final boolean synchronous;
+
+        /** 全部忽略已取消的事件时，事件被取消后立即结束投递 */
+        private final boolean ignoringCancelled;
+
+        /** 解析时开启的统计，订阅者已被包装 */
+        private final EventMetrics metrics;
+
+        /** 按顺序截取的订阅者，随本对象一起在订阅关系变化时丢弃 */
+        private volatile Map<Integer, Resolved> slices;
+
+        @NotNull
+        private Resolved slice(int order) {
+            Map<Integer, Resolved> slices = this.slices;
+            if (slices == null) {
+                slices = new ConcurrentHashMap<>();
+                this.slices = slices;
+            }
+            Resolved slice = slices.get(order);
+            if (slice == null) {
+                slice = slices.computeIfAbsent(order, this::doSlice);
+            }
+            return slice;
+        }
+
+        @NotNull
+        private Resolved doSlice(int order) {
+            int from = 0;
+            while (from < orders.length && orders[from] < order) {
+                from++;
+            }
+            int to = from;
+            while (to < orders.length && orders[to] == order) {
+                to++;
+            }
+            if (from == 0 && to == orders.length) {
+                return this;
+            }
+            DeliveryMode[] modes = Arrays.copyOfRange(this.modes, from, to);
+            boolean[] ignoreCancelled = Arrays.copyOfRange(this.ignoreCancelled, from, to);
+            boolean synchronous = true;
+            boolean ignoringCancelled = true;
+            for (int i = 0; i < modes.length; i++) {
+                synchronous &= modes[i] == DeliveryMode.SYNC;
+                ignoringCancelled &= ignoreCancelled[i];
+            }
+            return new Resolved(
+                    Arrays.copyOfRange(subscribers, from, to),
+                    modes,
+                    ignoreCancelled,
+                    Arrays.copyOfRange(orders, from, to),
+                    synchronous,
+                    ignoringCancelled,
+                    metrics);
+        }
+    }
+
+    /** 并行投递任务只会被执行一次，执行器尚未领取的由发布线程自行执行，避免执行器饱和时互相等待 */
+    private static final class ParallelDelivery<R> implements Runnable {
+        private final Supplier<R> task;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile R result;
+
+        private ParallelDelivery(@NotNull Supplier<R> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                this.result = task.get();
+            } finally {
+                done.countDown();
+            }
+        }
+
+        private R await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    done.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }
+    }
+
+    /** 同一类型的一组事件及其在发布顺序中的下标 */
+    private static final class Batch {
+        private final List<Event> events = new ArrayList<>();
+        private int[] indices = new int[8];
+
+        private void add(@NotNull Event event, int index) {
+            if (events.size() == indices.length) {
+                indices = Arrays.copyOf(indices, indices.length << 1);
+            }
+            indices[events.size()] = index;
+            events.add(event);
+        }
+    }
+
+    /** 当前线程正在发布的事件栈，以引用判断是否循环发布，批量发布时一整批事件占用一层 */
+    private static final class Publishing {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private Object[] frames = new Object[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private boolean contains(@NotNull Event event) {
+            for (int i = 0; i < size; i++) {
+                Object frame = frames[i];
+                if (frame == event || (frame instanceof BatchFrame && ((BatchFrame) frame).contains(event))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean push(@NotNull Event event) {
+            if (contains(event)) {
+                return false;
+            }
+            doPush(event);
+            return true;
+        }
+
+        private boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void push(@NotNull List<Event> events) {
+            doPush(new BatchFrame(events));
+        }
+
+        private void doPush(@NotNull Object frame) {
+            if (size == frames.length) {
+                frames = Arrays.copyOf(frames, size << 1);
+            }
+            frames[size++] = frame;
+        }
+
+        private void pop() {
+            frames[--size] = null;
+        }
+
+        /** 只有批内订阅者再次发布事件时才需要判断，届时再建立按引用查找的集合 */
+        @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+        private static final class BatchFrame {
+            @NonNull
+            private final List<Event> events;
+
+            private Set<Event> lookup;
+
+            private boolean contains(@NotNull Event event) {
+                Set<Event> lookup = this.lookup;
+                if (lookup == null) {
+                    lookup = Collections.newSetFromMap(new IdentityHashMap<>(events.size()));
+                    lookup.addAll(events);
+                    this.lookup = lookup;
+                }
+                return lookup.contains(event);
+            }
         }
     }
 }
@@ -0,0 +1,55 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/** {@link EventBus} 默认实现返回的订阅句柄，经由 {@link EventBus#unsubscribe(EventSubscriber)} 取消订阅 */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+final class SimpleSubscription implements Subscription {
+
+    @NonNull
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    private final EventBus eventBus;
+
+    @NonNull
+    private final Class<? extends Event> eventType;
+
+    @NonNull
+    private final EventSubscriber<?> subscriber;
+
+    @Getter(AccessLevel.NONE)
+    private final AtomicBoolean active = new AtomicBoolean(true);
+
+    @Override
+    public boolean isActive() {
+        return active.get();
+    }
+
+    @Override
+    public boolean unsubscribe() {
+        return active.compareAndSet(true, false) && eventBus.unsubscribe(subscriber);
+    }
+}
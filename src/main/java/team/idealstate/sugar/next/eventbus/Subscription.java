@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+/** 由 {@link EventBus#subscribe(Object, Class, EventSubscriber)} 等方法返回的订阅句柄 */
+public interface Subscription {
+
+    @NotNull
+    Class<? extends Event> getEventType();
+
+    /** @return 订阅者，弱引用的订阅者被回收后为 null */
+    @Nullable
+    EventSubscriber<?> getSubscriber();
+
+    boolean isActive();
+
+    /** @return 是否由本次调用取消了订阅 */
+    boolean unsubscribe();
+}
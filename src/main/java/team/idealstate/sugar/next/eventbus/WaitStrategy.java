@@ -0,0 +1,27 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus;
+
+/** 环形缓冲区为空（消费者）或已满（生产者）时的等待方式 */
+public enum WaitStrategy {
+    /** 持续自旋，延迟最低但独占处理器 */
+    BUSY_SPIN,
+    /** 让出处理器后重试 */
+    YIELD,
+    /** 挂起线程，由生产者唤醒或在短暂超时后重试 */
+    PARK;
+}
@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import team.idealstate.sugar.next.eventbus.DeliveryMode;
+import team.idealstate.sugar.next.eventbus.Order;
+
+/** 标注订阅组件中处理事件的实例方法，方法只能有一个事件类型的参数，同一组件可以有多个处理方法 */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventHandler {
+
+    int order() default Order.LAST;
+
+    DeliveryMode delivery() default DeliveryMode.SYNC;
+
+    /** @return 为 false 时事件被取消后仍会收到该事件 */
+    boolean ignoreCancelled() default true;
+}
@@ -0,0 +1,41 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus.exception;
+
+import team.idealstate.sugar.next.exception.SugarNextException;
+
+public class EventBusException extends SugarNextException {
+    private static final long serialVersionUID = -3790184621554620761L;
+
+    public EventBusException() {}
+
+    public EventBusException(String message) {
+        super(message);
+    }
+
+    public EventBusException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public EventBusException(Throwable cause) {
+        super(cause);
+    }
+
+    protected EventBusException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
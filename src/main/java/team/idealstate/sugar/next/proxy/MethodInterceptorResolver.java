@@ -0,0 +1,33 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import team.idealstate.sugar.validate.annotation.NotNull;
+import team.idealstate.sugar.validate.annotation.Nullable;
+
+public interface MethodInterceptorResolver {
+
+    /**
+     * 在创建代理时对每个可代理的方法调用一次。
+     *
+     * @return 方法的拦截器，为 null 或空时该方法直接调用目标对象
+     */
+    @Nullable
+    List<MethodInterceptor> resolve(@NotNull Method method);
+}
@@ -0,0 +1,29 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 由 {@link ProxyFactory} 生成的代理类实现 */
+public interface Proxied {
+
+    @NotNull
+    Object getProxyTarget();
+
+    /** 供 {@link MethodInvocation#proceed()} 使用，按方法序号直接调用目标对象 */
+    Object invokeProxyTarget(int index, @NotNull Object[] arguments) throws Throwable;
+}
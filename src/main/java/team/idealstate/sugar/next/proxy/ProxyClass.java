@@ -0,0 +1,286 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import team.idealstate.sugar.internal.org.objectweb.asm.Type;
+import team.idealstate.sugar.next.bytecode.GeneratedClassLoader;
+import team.idealstate.sugar.next.proxy.exception.ProxyException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 为某个目标类生成的代理类，每个目标类仅生成一次。
+ *
+ * <p>代理类优先定义在目标类所在的类加载器与包中，以便转发同一包中声明的非 public 方法；无法如此定义时退回到
+ * {@link GeneratedClassLoader}，此时只能转发 public 方法。无法覆盖的方法记录在 {@link #getSkippedMethods()} 中，
+ * 这些方法不能被拦截。
+ */
+final class ProxyClass {
+
+    private static final AtomicLong COUNTER = new AtomicLong();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    @Getter
+    private final Method[] methods;
+
+    /** 代理无法覆盖的方法，不能被拦截 */
+    @Getter
+    private final Method[] skippedMethods;
+
+    private final Constructor<?> allocator;
+    private final MethodHandle targetSetter;
+    private final MethodHandle interceptorsSetter;
+
+    ProxyClass(@NotNull Class<?> type) {
+        if (!isProxiableType(type)) {
+            throw new ProxyException(String.format("Type '%s' cannot be proxied.", type.getName()));
+        }
+        MethodHandles.Lookup packageLookup = packageLookup(type);
+        Map<String, Method> skipped = new LinkedHashMap<>();
+        this.methods = collectMethods(type, packageLookup != null, skipped);
+        this.skippedMethods = skipped.values().toArray(new Method[0]);
+        Constructor<?> superConstructor = null;
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            if (Modifier.isPublic(constructor.getModifiers()) || Modifier.isProtected(constructor.getModifiers())) {
+                superConstructor = constructor;
+            }
+        } catch (NoSuchMethodException ignored) {
+        }
+        String name = type.getName() + ProxyGenerator.SUFFIX + COUNTER.incrementAndGet();
+        byte[] bytecode = ProxyGenerator.generate(name, type, methods, superConstructor != null);
+        Class<?> proxyType;
+        if (packageLookup != null) {
+            proxyType = defineClass(packageLookup, bytecode);
+        } else {
+            proxyType = new GeneratedClassLoader(type.getClassLoader()).define(name, bytecode);
+        }
+        try {
+            proxyType.getField(ProxyGenerator.METHODS_FIELD).set(null, methods);
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            this.targetSetter = lookup.unreflectSetter(proxyType.getField(ProxyGenerator.TARGET_FIELD))
+                    .asType(SETTER_TYPE);
+            this.interceptorsSetter = lookup.unreflectSetter(proxyType.getField(ProxyGenerator.INTERCEPTORS_FIELD))
+                    .asType(SETTER_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new ProxyException(e);
+        }
+        Constructor<?> allocator = serializationConstructor(proxyType);
+        if (allocator == null) {
+            if (superConstructor == null) {
+                throw new ProxyException(
+                        String.format("Type '%s' has no accessible default constructor.", type.getName()));
+            }
+            try {
+                allocator = proxyType.getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new ProxyException(e);
+            }
+        }
+        this.allocator = allocator;
+    }
+
+    static boolean isProxiable(@NotNull Class<?> type) {
+        if (!isProxiableType(type)) {
+            return false;
+        }
+        try {
+            collectMethods(type, packageLookup(type) != null, new LinkedHashMap<>());
+            return true;
+        } catch (ProxyException e) {
+            return false;
+        }
+    }
+
+    private static boolean isProxiableType(@NotNull Class<?> type) {
+        int modifiers = type.getModifiers();
+        return Modifier.isPublic(modifiers)
+                && !Modifier.isFinal(modifiers)
+                && !type.isInterface()
+                && !type.isArray()
+                && !type.isPrimitive()
+                && !type.getName().startsWith("java.");
+    }
+
+    @NotNull
+    Object newInstance(@NotNull Object target, @NotNull MethodInterceptor[][] interceptors) {
+        try {
+            Object proxy = allocator.newInstance();
+            targetSetter.invokeExact(proxy, target);
+            interceptorsSetter.invokeExact(proxy, (Object) interceptors);
+            return proxy;
+        } catch (Throwable e) {
+            throw new ProxyException(
+                    String.format("Failed to instantiate proxy of '%s'.", target.getClass().getName()), e);
+        }
+    }
+
+    /**
+     * @param inPackage 代理类是否定义在目标类的包中
+     * @param skipped 收集代理无法覆盖的方法，这些方法在代理对象上直接调用
+     * @return 代理覆盖并转发到目标对象的方法
+     * @throws ProxyException 目标类声明了与 {@link Proxied} 冲突的方法时
+     */
+    @NotNull
+    private static Method[] collectMethods(
+            @NotNull Class<?> type, boolean inPackage, @NotNull Map<String, Method> skipped) {
+        boolean proxied = Proxied.class.isAssignableFrom(type);
+        Map<String, Method> reserved = new LinkedHashMap<>();
+        for (Method method : Proxied.class.getMethods()) {
+            reserved.put(method.getName() + Type.getMethodDescriptor(method), method);
+        }
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : type.getMethods()) {
+            int modifiers = method.getModifiers();
+            if (Modifier.isStatic(modifiers) || method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+            String key = method.getName() + Type.getMethodDescriptor(method);
+            if (reserved.containsKey(key)) {
+                if (proxied) {
+                    continue;
+                }
+                throw new ProxyException(String.format(
+                        "Type '%s' declares reserved method '%s'.", type.getName(), method.getName()));
+            }
+            if (methods.containsKey(key)
+                    || skipped.containsKey(key)
+                    || (Modifier.isFinal(modifiers) && method.getDeclaringClass().getName().startsWith("java."))) {
+                continue;
+            }
+            if (Modifier.isFinal(modifiers) || !isForwardable(type, method, inPackage)) {
+                skipped.put(key, method);
+                continue;
+            }
+            methods.put(key, method);
+        }
+        for (Class<?> current = type;
+                current != null && !current.getName().startsWith("java.");
+                current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers)
+                        || Modifier.isPrivate(modifiers)
+                        || method.isBridge()
+                        || method.isSynthetic()) {
+                    continue;
+                }
+                String key = method.getName() + Type.getMethodDescriptor(method);
+                if (methods.containsKey(key) || skipped.containsKey(key)) {
+                    continue;
+                }
+                if (Modifier.isFinal(modifiers)
+                        || !inPackage
+                        || !isSamePackage(type, current)
+                        || !isForwardable(type, method, true)) {
+                    skipped.put(key, method);
+                    continue;
+                }
+                methods.put(key, method);
+            }
+        }
+        return methods.values().toArray(new Method[0]);
+    }
+
+    /** @return 方法签名中的类型是否都可以在代理类中访问 */
+    private static boolean isForwardable(@NotNull Class<?> type, @NotNull Method method, boolean inPackage) {
+        if (!isAccessible(type, method.getReturnType(), inPackage)) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isAccessible(type, parameterType, inPackage)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(@NotNull Class<?> type, @NotNull Class<?> used, boolean inPackage) {
+        while (used.isArray()) {
+            used = used.getComponentType();
+        }
+        return used.isPrimitive()
+                || Modifier.isPublic(used.getModifiers())
+                || (inPackage && !Modifier.isPrivate(used.getModifiers()) && isSamePackage(type, used));
+    }
+
+    private static boolean isSamePackage(@NotNull Class<?> type, @NotNull Class<?> other) {
+        return type.getClassLoader() == other.getClassLoader()
+                && packageOf(type).equals(packageOf(other));
+    }
+
+    @NotNull
+    private static String packageOf(@NotNull Class<?> type) {
+        String name = type.getName();
+        int index = name.lastIndexOf('.');
+        return index == -1 ? "" : name.substring(0, index);
+    }
+
+    /**
+     * 通过 Java 9 起提供的 {@code MethodHandles.privateLookupIn} 获取可在目标类的包中定义类的 Lookup
+     *
+     * @return 不支持或目标类的类加载器无法解析本库的类时为 null
+     */
+    private static MethodHandles.Lookup packageLookup(@NotNull Class<?> type) {
+        try {
+            if (Class.forName(Proxied.class.getName(), false, type.getClassLoader()) != Proxied.class) {
+                return null;
+            }
+            Method privateLookupIn =
+                    MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, type, MethodHandles.lookup());
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    private static Class<?> defineClass(@NotNull MethodHandles.Lookup lookup, @NotNull byte[] bytecode) {
+        try {
+            return (Class<?>) MethodHandles.Lookup.class
+                    .getMethod("defineClass", byte[].class)
+                    .invoke(lookup, (Object) bytecode);
+        } catch (ReflectiveOperationException e) {
+            throw new ProxyException(
+                    String.format("Failed to define proxy class in '%s'.", lookup.lookupClass().getName()), e);
+        }
+    }
+
+    /** 不执行任何构造器地分配实例，避免重复执行目标类构造器中的副作用 */
+    private static Constructor<?> serializationConstructor(@NotNull Class<?> type) {
+        try {
+            Class<?> factoryType = Class.forName("sun.reflect.ReflectionFactory");
+            Object factory = factoryType.getMethod("getReflectionFactory").invoke(null);
+            Constructor<?> constructor = (Constructor<?>) factoryType
+                    .getMethod("newConstructorForSerialization", Class.class, Constructor.class)
+                    .invoke(factory, type, Object.class.getDeclaredConstructor());
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import team.idealstate.sugar.next.proxy.exception.ProxyException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 通过生成目标类的子类创建代理，未被拦截的方法直接以 invokevirtual 调用目标对象。
+ *
+ * <p>代理对象不执行任何构造器，其自身的字段均为默认值，只有被覆盖的方法会转发到目标对象。仅支持非 final 的 public 类，否则
+ * {@link #isProxiable(Class)} 返回 false。以下方法无法被覆盖，在代理对象上直接调用而不会转发到目标对象，也不能被拦截：
+ *
+ * <ul>
+ *   <li>final 实例方法；
+ *   <li>非 public 的实例方法，除非声明在目标类所在的包中，且运行环境支持将代理类定义在该包中（Java 9 及以上）；
+ *   <li>签名中使用了代理类无法访问的类型的方法。
+ * </ul>
+ *
+ * <p>{@link #proxy(Object, MethodInterceptorResolver)} 为这些方法解析到拦截器时抛出 {@link ProxyException}。
+ */
+public interface ProxyFactory {
+
+    @NotNull
+    static ProxyFactory instance() {
+        return SimpleProxyFactory.INSTANCE;
+    }
+
+    boolean isProxiable(@NotNull Class<?> type);
+
+    /** @return 代理对象，没有任何方法需要拦截时返回 target 本身 */
+    @NotNull
+    <T> T proxy(@NotNull T target, @NotNull MethodInterceptorResolver resolver) throws ProxyException;
+}
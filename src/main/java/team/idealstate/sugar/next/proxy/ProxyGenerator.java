@@ -0,0 +1,307 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import java.lang.reflect.Method;
+import team.idealstate.sugar.internal.org.objectweb.asm.ClassWriter;
+import team.idealstate.sugar.internal.org.objectweb.asm.Label;
+import team.idealstate.sugar.internal.org.objectweb.asm.MethodVisitor;
+import team.idealstate.sugar.internal.org.objectweb.asm.Opcodes;
+import team.idealstate.sugar.internal.org.objectweb.asm.Type;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/**
+ * 生成代理类的字节码。
+ *
+ * <p>每个被代理的方法先检查该方法的拦截器，没有拦截器时直接 invokevirtual 目标对象， 否则交给 {@link SimpleMethodInvocation}；
+ * {@link Proxied#invokeProxyTarget(int, Object[])} 以 tableswitch 按序号分派到目标方法。
+ */
+abstract class ProxyGenerator {
+
+    static final String SUFFIX = "$$SugarProxy$$";
+    static final String TARGET_FIELD = "$$target";
+    static final String INTERCEPTORS_FIELD = "$$interceptors";
+    static final String METHODS_FIELD = "$$methods";
+
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final String PROXIED = Type.getInternalName(Proxied.class);
+    private static final String INTERCEPTORS_DESCRIPTOR = Type.getDescriptor(MethodInterceptor[][].class);
+    private static final String METHODS_DESCRIPTOR = Type.getDescriptor(Method[].class);
+    private static final String INTERCEPT_DESCRIPTOR = Type.getMethodDescriptor(
+            Type.getType(Object.class),
+            Type.getType(Proxied.class),
+            Type.INT_TYPE,
+            Type.getType(Method.class),
+            Type.getType(MethodInterceptor[].class),
+            Type.getType(Object[].class));
+
+    @NotNull
+    static byte[] generate(
+            @NotNull String name, @NotNull Class<?> type, @NotNull Method[] methods, boolean superConstructor) {
+        String internalName = name.replace('.', '/');
+        String superName = Type.getInternalName(type);
+        String targetDescriptor = Type.getDescriptor(type);
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                return OBJECT;
+            }
+        };
+        writer.visit(
+                Opcodes.V1_8,
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                internalName,
+                null,
+                superName,
+                new String[] {PROXIED});
+        writer.visitField(Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC, TARGET_FIELD, targetDescriptor, null, null)
+                .visitEnd();
+        writer.visitField(
+                        Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC,
+                        INTERCEPTORS_FIELD,
+                        INTERCEPTORS_DESCRIPTOR,
+                        null,
+                        null)
+                .visitEnd();
+        writer.visitField(
+                        Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC,
+                        METHODS_FIELD,
+                        METHODS_DESCRIPTOR,
+                        null,
+                        null)
+                .visitEnd();
+        if (superConstructor) {
+            MethodVisitor visitor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+            visitor.visitCode();
+            visitor.visitVarInsn(Opcodes.ALOAD, 0);
+            visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, superName, "<init>", "()V", false);
+            visitor.visitInsn(Opcodes.RETURN);
+            visitor.visitMaxs(0, 0);
+            visitor.visitEnd();
+        }
+        for (int i = 0; i < methods.length; i++) {
+            generateMethod(writer, internalName, superName, targetDescriptor, methods[i], i);
+        }
+        generateGetProxyTarget(writer, internalName, targetDescriptor);
+        generateInvokeProxyTarget(writer, internalName, superName, targetDescriptor, methods);
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static void generateMethod(
+            ClassWriter writer,
+            String internalName,
+            String superName,
+            String targetDescriptor,
+            Method method,
+            int index) {
+        String descriptor = Type.getMethodDescriptor(method);
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        String[] exceptions = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++) {
+            exceptions[i] = Type.getInternalName(exceptionTypes[i]);
+        }
+        int access = method.getModifiers()
+                & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED | Opcodes.ACC_SYNCHRONIZED | Opcodes.ACC_VARARGS);
+        MethodVisitor visitor = writer.visitMethod(access, method.getName(), descriptor, null, exceptions);
+        visitor.visitCode();
+        Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+        Type returnType = Type.getReturnType(descriptor);
+        int interceptors = 1;
+        for (Type argumentType : argumentTypes) {
+            interceptors += argumentType.getSize();
+        }
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, internalName, INTERCEPTORS_FIELD, INTERCEPTORS_DESCRIPTOR);
+        pushInt(visitor, index);
+        visitor.visitInsn(Opcodes.AALOAD);
+        visitor.visitVarInsn(Opcodes.ASTORE, interceptors);
+        visitor.visitVarInsn(Opcodes.ALOAD, interceptors);
+        Label intercepted = new Label();
+        visitor.visitJumpInsn(Opcodes.IFNONNULL, intercepted);
+
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, internalName, TARGET_FIELD, targetDescriptor);
+        int slot = 1;
+        for (Type argumentType : argumentTypes) {
+            visitor.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+            slot += argumentType.getSize();
+        }
+        visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, superName, method.getName(), descriptor, false);
+        visitor.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+
+        visitor.visitLabel(intercepted);
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        pushInt(visitor, index);
+        visitor.visitFieldInsn(Opcodes.GETSTATIC, internalName, METHODS_FIELD, METHODS_DESCRIPTOR);
+        pushInt(visitor, index);
+        visitor.visitInsn(Opcodes.AALOAD);
+        visitor.visitVarInsn(Opcodes.ALOAD, interceptors);
+        pushInt(visitor, argumentTypes.length);
+        visitor.visitTypeInsn(Opcodes.ANEWARRAY, OBJECT);
+        slot = 1;
+        for (int i = 0; i < argumentTypes.length; i++) {
+            Type argumentType = argumentTypes[i];
+            visitor.visitInsn(Opcodes.DUP);
+            pushInt(visitor, i);
+            visitor.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+            box(visitor, argumentType);
+            visitor.visitInsn(Opcodes.AASTORE);
+            slot += argumentType.getSize();
+        }
+        visitor.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                Type.getInternalName(SimpleMethodInvocation.class),
+                "intercept",
+                INTERCEPT_DESCRIPTOR,
+                false);
+        if (returnType.getSort() == Type.VOID) {
+            visitor.visitInsn(Opcodes.POP);
+            visitor.visitInsn(Opcodes.RETURN);
+        } else {
+            unbox(visitor, returnType);
+            visitor.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+        }
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    private static void generateGetProxyTarget(ClassWriter writer, String internalName, String targetDescriptor) {
+        MethodVisitor visitor = writer.visitMethod(
+                Opcodes.ACC_PUBLIC, "getProxyTarget", "()" + Type.getDescriptor(Object.class), null, null);
+        visitor.visitCode();
+        visitor.visitVarInsn(Opcodes.ALOAD, 0);
+        visitor.visitFieldInsn(Opcodes.GETFIELD, internalName, TARGET_FIELD, targetDescriptor);
+        visitor.visitInsn(Opcodes.ARETURN);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    private static void generateInvokeProxyTarget(
+            ClassWriter writer, String internalName, String superName, String targetDescriptor, Method[] methods) {
+        MethodVisitor visitor = writer.visitMethod(
+                Opcodes.ACC_PUBLIC,
+                "invokeProxyTarget",
+                Type.getMethodDescriptor(Type.getType(Object.class), Type.INT_TYPE, Type.getType(Object[].class)),
+                null,
+                new String[] {Type.getInternalName(Throwable.class)});
+        visitor.visitCode();
+        Label fallback = new Label();
+        if (methods.length > 0) {
+            Label[] labels = new Label[methods.length];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = new Label();
+            }
+            visitor.visitVarInsn(Opcodes.ILOAD, 1);
+            visitor.visitTableSwitchInsn(0, methods.length - 1, fallback, labels);
+            for (int i = 0; i < methods.length; i++) {
+                visitor.visitLabel(labels[i]);
+                String descriptor = Type.getMethodDescriptor(methods[i]);
+                Type[] argumentTypes = Type.getArgumentTypes(descriptor);
+                Type returnType = Type.getReturnType(descriptor);
+                visitor.visitVarInsn(Opcodes.ALOAD, 0);
+                visitor.visitFieldInsn(Opcodes.GETFIELD, internalName, TARGET_FIELD, targetDescriptor);
+                for (int j = 0; j < argumentTypes.length; j++) {
+                    visitor.visitVarInsn(Opcodes.ALOAD, 2);
+                    pushInt(visitor, j);
+                    visitor.visitInsn(Opcodes.AALOAD);
+                    unbox(visitor, argumentTypes[j]);
+                }
+                visitor.visitMethodInsn(Opcodes.INVOKEVIRTUAL, superName, methods[i].getName(), descriptor, false);
+                if (returnType.getSort() == Type.VOID) {
+                    visitor.visitInsn(Opcodes.ACONST_NULL);
+                } else {
+                    box(visitor, returnType);
+                }
+                visitor.visitInsn(Opcodes.ARETURN);
+            }
+        }
+        visitor.visitLabel(fallback);
+        String exception = Type.getInternalName(IndexOutOfBoundsException.class);
+        visitor.visitTypeInsn(Opcodes.NEW, exception);
+        visitor.visitInsn(Opcodes.DUP);
+        visitor.visitMethodInsn(Opcodes.INVOKESPECIAL, exception, "<init>", "()V", false);
+        visitor.visitInsn(Opcodes.ATHROW);
+        visitor.visitMaxs(0, 0);
+        visitor.visitEnd();
+    }
+
+    private static void pushInt(MethodVisitor visitor, int value) {
+        if (value >= -1 && value <= 5) {
+            visitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            visitor.visitIntInsn(Opcodes.SIPUSH, value);
+        } else {
+            visitor.visitLdcInsn(value);
+        }
+    }
+
+    private static void box(MethodVisitor visitor, Type type) {
+        Type boxed = boxedType(type);
+        if (boxed == null) {
+            return;
+        }
+        visitor.visitMethodInsn(
+                Opcodes.INVOKESTATIC,
+                boxed.getInternalName(),
+                "valueOf",
+                Type.getMethodDescriptor(boxed, type),
+                false);
+    }
+
+    private static void unbox(MethodVisitor visitor, Type type) {
+        Type boxed = boxedType(type);
+        if (boxed == null) {
+            if (!OBJECT.equals(type.getInternalName())) {
+                visitor.visitTypeInsn(Opcodes.CHECKCAST, type.getInternalName());
+            }
+            return;
+        }
+        visitor.visitTypeInsn(Opcodes.CHECKCAST, boxed.getInternalName());
+        visitor.visitMethodInsn(
+                Opcodes.INVOKEVIRTUAL,
+                boxed.getInternalName(),
+                type.getClassName() + "Value",
+                Type.getMethodDescriptor(type),
+                false);
+    }
+
+    private static Type boxedType(Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return Type.getType(Boolean.class);
+            case Type.BYTE:
+                return Type.getType(Byte.class);
+            case Type.SHORT:
+                return Type.getType(Short.class);
+            case Type.CHAR:
+                return Type.getType(Character.class);
+            case Type.INT:
+                return Type.getType(Integer.class);
+            case Type.LONG:
+                return Type.getType(Long.class);
+            case Type.FLOAT:
+                return Type.getType(Float.class);
+            case Type.DOUBLE:
+                return Type.getType(Double.class);
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import java.lang.reflect.Method;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 由生成的代理类调用，不应直接使用 */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SimpleMethodInvocation implements MethodInvocation {
+
+    private final Proxied proxy;
+    private final int index;
+
+    @Getter
+    private final Method method;
+
+    private final MethodInterceptor[] interceptors;
+
+    @Getter
+    private final Object[] arguments;
+
+    private int position = 0;
+
+    public static Object intercept(
+            @NotNull Proxied proxy,
+            int index,
+            @NotNull Method method,
+            @NotNull MethodInterceptor[] interceptors,
+            @NotNull Object[] arguments)
+            throws Throwable {
+        return new SimpleMethodInvocation(proxy, index, method, interceptors, arguments).proceed();
+    }
+
+    @NotNull
+    @Override
+    public Object getProxy() {
+        return proxy;
+    }
+
+    @NotNull
+    @Override
+    public Object getTarget() {
+        return proxy.getProxyTarget();
+    }
+
+    @Override
+    public Object proceed() throws Throwable {
+        if (position < interceptors.length) {
+            return interceptors[position++].intercept(this);
+        }
+        return proxy.invokeProxyTarget(index, arguments);
+    }
+}
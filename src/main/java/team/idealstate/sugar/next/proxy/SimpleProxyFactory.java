@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import team.idealstate.sugar.next.proxy.exception.ProxyException;
+import team.idealstate.sugar.validate.Validation;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+final class SimpleProxyFactory implements ProxyFactory {
+
+    static final SimpleProxyFactory INSTANCE = new SimpleProxyFactory();
+
+    private static final ClassValue<ProxyClass> PROXY_CLASSES = new ClassValue<ProxyClass>() {
+        @Override
+        protected ProxyClass computeValue(Class<?> type) {
+            return new ProxyClass(type);
+        }
+    };
+
+    private SimpleProxyFactory() {}
+
+    @Override
+    public boolean isProxiable(@NotNull Class<?> type) {
+        Validation.notNull(type, "type must not be null.");
+        return ProxyClass.isProxiable(type);
+    }
+
+    @NotNull
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T proxy(@NotNull T target, @NotNull MethodInterceptorResolver resolver) throws ProxyException {
+        Validation.notNull(target, "target must not be null.");
+        Validation.notNull(resolver, "resolver must not be null.");
+        ProxyClass proxyClass = PROXY_CLASSES.get(target.getClass());
+        for (Method method : proxyClass.getSkippedMethods()) {
+            List<MethodInterceptor> resolved = resolver.resolve(method);
+            if (resolved != null && !resolved.isEmpty()) {
+                throw new ProxyException(String.format(
+                        "Method '%s' of type '%s' is intercepted but cannot be overridden by the proxy.",
+                        method.getName(), target.getClass().getName()));
+            }
+        }
+        Method[] methods = proxyClass.getMethods();
+        MethodInterceptor[][] interceptors = new MethodInterceptor[methods.length][];
+        boolean intercepted = false;
+        for (int i = 0; i < methods.length; i++) {
+            List<MethodInterceptor> resolved = resolver.resolve(methods[i]);
+            if (resolved == null || resolved.isEmpty()) {
+                continue;
+            }
+            interceptors[i] = resolved.toArray(new MethodInterceptor[0]);
+            intercepted = true;
+        }
+        if (!intercepted) {
+            return target;
+        }
+        return (T) proxyClass.newInstance(target, interceptors);
+    }
+}
@@ -19,26 +19,18 @@ package team.idealstate.sugar.next.reflect;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import team.idealstate.sugar.next.reflect.exception.ReflectionException;
 import team.idealstate.sugar.validate.annotation.NotNull;
 
-@SuppressWarnings("JavaReflectionMemberAccess")
 abstract class InternalMethodHandles {
 
     private static final int ALLOWED_MODES = MethodHandles.Lookup.PRIVATE
             | MethodHandles.Lookup.PROTECTED
             | MethodHandles.Lookup.PACKAGE
             | MethodHandles.Lookup.PUBLIC;
-    private static final Constructor<MethodHandles.Lookup> JDK_8_LOOKUP_CONSTRUCTOR;
-
-    static {
-        try {
-            JDK_8_LOOKUP_CONSTRUCTOR = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
-        } catch (NoSuchMethodException e) {
-            throw new ReflectionException(e);
-        }
-        JDK_8_LOOKUP_CONSTRUCTOR.setAccessible(true);
-    }
+    /** Java 9+ 的 {@code MethodHandles.privateLookupIn}，低版本时为 null */
+    private static final Method PRIVATE_LOOKUP_IN = privateLookupIn();
 
     @NotNull
     public static MethodHandles.Lookup publicLookup() {
@@ -53,9 +45,37 @@ abstract class InternalMethodHandles {
     @NotNull
     public static MethodHandles.Lookup privateLookup(@NotNull Class<?> lookupClass) {
         try {
-            return JDK_8_LOOKUP_CONSTRUCTOR.newInstance(lookupClass, ALLOWED_MODES);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            if (PRIVATE_LOOKUP_IN != null) {
+                return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, lookupClass, MethodHandles.lookup());
+            }
+            return Jdk8LookupConstructor.INSTANCE.newInstance(lookupClass, ALLOWED_MODES);
+        } catch (InstantiationException | IllegalAccessException e) {
             throw new ReflectionException(e);
+        } catch (InvocationTargetException e) {
+            throw new ReflectionException(e.getCause());
+        }
+    }
+
+    private static Method privateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /** 仅在 Java 8 上使用，首次使用时才初始化 */
+    @SuppressWarnings("JavaReflectionMemberAccess")
+    private abstract static class Jdk8LookupConstructor {
+        private static final Constructor<MethodHandles.Lookup> INSTANCE;
+
+        static {
+            try {
+                INSTANCE = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+            } catch (NoSuchMethodException e) {
+                throw new ReflectionException(e);
+            }
+            INSTANCE.setAccessible(true);
         }
     }
 }
@@ -17,6 +17,7 @@
 package team.idealstate.sugar.next.reflect;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Proxy;
 import java.util.Map;
 import team.idealstate.sugar.validate.Validation;
@@ -45,4 +46,11 @@ public abstract class Reflection {
         return (A) Proxy.newProxyInstance(
                 annotationType.getClassLoader(), new Class[] {annotationType}, new InternalAnnotationHandler(mappings));
     }
+
+    /** @return 拥有 lookupClass 私有访问权限的 {@link MethodHandles.Lookup} */
+    @NotNull
+    public static MethodHandles.Lookup privateLookup(@NotNull Class<?> lookupClass) {
+        Validation.notNull(lookupClass, "lookupClass must not be null");
+        return InternalMethodHandles.privateLookup(lookupClass);
+    }
 }
@@ -18,11 +18,26 @@ package team.idealstate.sugar.next.calculate.test;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.calculate.BoundExpression;
+import team.idealstate.sugar.next.calculate.EvaluationContext;
 import team.idealstate.sugar.next.calculate.Expression;
+import team.idealstate.sugar.next.calculate.ExpressionCache;
+import team.idealstate.sugar.next.calculate.ExpressionFunction;
+import team.idealstate.sugar.next.calculate.FormulaGraph;
+import team.idealstate.sugar.next.calculate.FunctionRegistry;
+import team.idealstate.sugar.next.calculate.MathFunction;
+import team.idealstate.sugar.next.calculate.NumericMode;
+import team.idealstate.sugar.next.calculate.Operator;
 import team.idealstate.sugar.next.calculate.exception.ExpressionException;
+import team.idealstate.sugar.next.calculate.exception.ExpressionSyntaxException;
 
 public class ExpressionTest {
 
@@ -44,6 +59,8 @@ public class ExpressionTest {
         assertEquals(5, expression.calculate().intValue());
         expression = new Expression("1+2*(4 / 2) + 3");
         assertEquals(8, expression.calculate().intValue());
+        expression = new Expression("(1 * 2 + 3 - 4) * 2");
+        assertEquals(2, expression.calculate().intValue());
         expression = new Expression("1 == 1");
         assertTrue(expression.isTrue());
         expression = new Expression("1 == 2");
@@ -106,4 +123,330 @@ public class ExpressionTest {
         Expression finalExpression = expression;
         assertDoesNotThrow(() -> finalExpression.calculate(context));
     }
+
+    @Test
+    public void testNumericMode() {
+        Map<String, Number> context = new HashMap<>();
+        context.put("a", 7);
+        context.put("b", 2);
+        context.put("c", 1.5);
+        Expression expression =
+                new Expression("(a + b * 3) / b - c", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertEquals(Double.valueOf(5.0), expression.calculate(context));
+        assertEquals(5.0, expression.calculateDouble(context));
+        assertEquals(5, expression.calculateLong(context));
+        expression = new Expression("(a + b * 3) / b - c", Arrays.asList(Operator.values()), NumericMode.LONG);
+        assertEquals(Long.valueOf(5), expression.calculate(context));
+        expression = new Expression("a % b + b ^ 10 + b ^ -1", Arrays.asList(Operator.values()), NumericMode.LONG);
+        assertEquals(1025, expression.calculate(context).longValue());
+        assertEquals(1025.5, expression.calculateDouble(context));
+        expression = new Expression("a >= b * 3 + 1", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertTrue(expression.isTrue(context));
+        assertEquals(1, expression.calculateLong(context));
+        Expression division = new Expression("a / (b - 2)", Arrays.asList(Operator.values()), NumericMode.LONG);
+        assertThrows(ExpressionException.class, () -> division.calculate(context));
+        assertEquals(Double.POSITIVE_INFINITY, division.calculateDouble(context));
+        assertThrows(ExpressionException.class, () -> division.calculateDouble(new HashMap<>()));
+    }
+
+    @Test
+    public void testFunction() {
+        Map<String, Number> context = new HashMap<>();
+        context.put("a", 7);
+        context.put("b", 2.5);
+        context.put("c", -3);
+        String[] formulas = {
+            "a + b * c - a / b % 2",
+            "(a ^ 2 + b ^ 0.5) * c",
+            "a == 7",
+            "a < b",
+            "a + b > c",
+            "a <= 7",
+            "a - b >= c",
+            "1.5 * 2"
+        };
+        for (String formula : formulas) {
+            Expression expression = new Expression(formula);
+            ExpressionFunction function = expression.toFunction();
+            assertSame(function, expression.toFunction());
+            double[] variables = {7, 2.5, -3};
+            assertEquals(expression.calculateDouble(context), function.applyAsDouble(variables), formula);
+        }
+        ExpressionFunction function = new Expression("b * a + b").toFunction();
+        assertEquals(12.0, function.applyAsDouble(new double[] {2, 5}));
+    }
+
+    @Test
+    public void testBind() {
+        Expression expression = new Expression("b * a + b - c / 2");
+        BoundExpression bound = expression.bind("c", "a", "b", "unused");
+        assertEquals(Arrays.asList("c", "a", "b", "unused"), bound.getNames());
+        assertEquals(16.0, bound.evaluate(new double[] {4, 5, 3, 0}));
+        assertEquals(16L, bound.evaluate(new long[] {4, 5, 3, 0}));
+        assertEquals(0, new BigDecimal("16").compareTo((BigDecimal) bound.evaluate(4, 5, 3, 0)));
+        assertEquals(16.0, bound.toFunction().applyAsDouble(new double[] {4, 5, 3, 0}));
+        assertSame(bound.toFunction(), bound.toFunction());
+        assertEquals(
+                16L,
+                new Expression("b * a + b - c / 2", Arrays.asList(Operator.values()), NumericMode.LONG)
+                        .bind("c", "a", "b")
+                        .evaluate(4, 5, 3));
+        assertThrows(ExpressionException.class, () -> expression.bind("a", "b"));
+        assertThrows(IllegalArgumentException.class, () -> bound.evaluate(new double[] {1, 2}));
+        BoundExpression division = new Expression("a / b").bind("a", "b");
+        assertThrows(ExpressionException.class, () -> division.evaluate(new long[] {1, 0}));
+    }
+
+    @Test
+    public void testBatch() {
+        Expression expression = new Expression("(a + 2) * b - a % 3 + (b > 100)");
+        int rows = 5 * 16 * 1024 + 7;
+        double[][] columns = new double[2][rows];
+        for (int i = 0; i < rows; i++) {
+            columns[0][i] = i;
+            columns[1][i] = i % 211 - 50.5;
+        }
+        double[] expected = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            expected[i] = expression.toFunction().applyAsDouble(new double[] {columns[0][i], columns[1][i]});
+        }
+        double[] out = new double[rows];
+        expression.evaluateBatch(columns, out);
+        assertArrayEquals(expected, out);
+        out = new double[rows];
+        expression.evaluateBatch(columns, 0, rows, out, true);
+        assertArrayEquals(expected, out);
+        out = new double[rows];
+        expression.evaluateBatch(columns, 10, 3, out);
+        assertEquals(expected[11], out[11]);
+        assertEquals(0.0, out[13]);
+        BoundExpression bound = expression.bind("b", "a");
+        out = new double[rows];
+        bound.evaluateBatch(new double[][] {columns[1], columns[0]}, out);
+        assertArrayEquals(expected, out);
+        double[] constant = new double[3];
+        new Expression("1 + 2").evaluateBatch(new double[0][], constant);
+        assertArrayEquals(new double[] {3, 3, 3}, constant);
+        assertThrows(IllegalArgumentException.class, () -> expression.evaluateBatch(new double[1][], new double[1]));
+    }
+
+    @Test
+    public void testOptimize() {
+        Map<String, Number> context = new HashMap<>();
+        context.put("x", 3);
+        Expression expression = new Expression("2 * 3 + x");
+        assertFalse(expression.explain().contains("OPERATOR *"), expression.explain());
+        assertTrue(expression.explain().contains("CONSTANT 6"), expression.explain());
+        assertEquals(0, new BigDecimal("9").compareTo((BigDecimal) expression.calculate(context)));
+        String formula = "7 / 2 * 2 + x";
+        assertEquals(0, new BigDecimal("11").compareTo((BigDecimal) new Expression(formula).calculate(context)));
+        assertEquals(10.0, new Expression(formula).calculateDouble(context));
+        assertEquals(9L, new Expression(formula).calculateLong(context));
+        for (NumericMode mode : NumericMode.values()) {
+            Expression identity =
+                    new Expression("(x * 1 + 0 - 0) / 1 ^ 1", Arrays.asList(Operator.values()), mode);
+            assertEquals(3, identity.calculate(context).intValue());
+            Expression power = new Expression("x ^ 3 + ((x > 1) == 1)", Arrays.asList(Operator.values()), mode);
+            assertFalse(power.explain().contains("OPERATOR ^"), power.explain());
+            assertFalse(power.explain().contains("OPERATOR =="), power.explain());
+            assertEquals(28, power.calculate(context).intValue());
+        }
+        Expression identity =
+                new Expression("(x * 1 + 0 - 0) / 1 ^ 1", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertEquals(2, identity.explain().split("\\n").length, identity.explain());
+        Expression division = new Expression("1 / 0 + x", Arrays.asList(Operator.values()), NumericMode.LONG);
+        assertThrows(ExpressionException.class, () -> division.calculate(context));
+        assertTrue(division.explain().contains("OPERATOR /"), division.explain());
+        Expression overflow = new Expression("10 ^ 99999999 + x", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> overflow.compile());
+        assertTrue(overflow.explain().contains("OPERATOR ^"), overflow.explain());
+        assertEquals(Double.POSITIVE_INFINITY, overflow.calculateDouble(context));
+        assertTrue(new Expression("2 ^ 100").explain().contains("CONSTANT 1267650600228229401496703205376"));
+    }
+
+    @Test
+    public void testCache() {
+        ExpressionCache cache = new ExpressionCache(2);
+        Expression expression = cache.get("a + 1", Arrays.asList(Operator.values()));
+        assertSame(expression, cache.get("a + 1", Arrays.asList(Operator.values())));
+        assertNotSame(expression, cache.get("a + 1", Arrays.asList(Operator.ADD)));
+        assertNotSame(expression, cache.get("a + 1", Arrays.asList(Operator.values()), NumericMode.DOUBLE));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertThrows(ExpressionSyntaxException.class, () -> cache.get("a +", Arrays.asList(Operator.values())));
+        assertEquals(2, cache.size());
+        Expression shared = Expression.compileCached("b * 2", Arrays.asList(Operator.values()));
+        assertSame(shared, Expression.compileCached("b * 2", Arrays.asList(Operator.values())));
+        Map<String, Number> context = new HashMap<>();
+        context.put("b", 4);
+        assertEquals(8, shared.calculate(context).intValue());
+    }
+
+    @Test
+    public void testLongExpression() {
+        int terms = 20000;
+        StringBuilder builder = new StringBuilder(terms * 8);
+        for (int i = 0; i < terms; i++) {
+            builder.append(i == 0 ? "" : " + ").append("a * 2");
+        }
+        Map<String, Number> context = new HashMap<>();
+        context.put("a", 3);
+        context.put("攻击", 4);
+        Expression expression = new Expression(builder.toString(), Arrays.asList(Operator.values()), NumericMode.LONG);
+        assertEquals(6L * terms, expression.calculate(context));
+        builder.setLength(0);
+        for (int i = 0; i < 2000; i++) {
+            builder.append('(');
+        }
+        builder.append("攻击 >= 2");
+        for (int i = 0; i < 2000; i++) {
+            builder.append(')');
+        }
+        assertEquals(0, BigDecimal.ONE.compareTo((BigDecimal) new Expression(builder.toString()).calculate(context)));
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("a +* 2").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("(a + 2").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("a + 2)").compile());
+    }
+
+    @Test
+    public void testFunctionCall() {
+        Map<String, Number> context = new HashMap<>();
+        context.put("a", 7);
+        context.put("b", 0);
+        context.put("c", -3);
+        for (NumericMode mode : NumericMode.values()) {
+            Expression expression = new Expression(
+                    "max(a, c, 2) + min(a, 3) * abs(c) - clamp(c, 0, 1)", Arrays.asList(Operator.values()), mode);
+            assertEquals(16, expression.calculate(context).intValue(), mode.name());
+            expression = new Expression("b == 0 ? 0 : a / b", Arrays.asList(Operator.values()), mode);
+            assertEquals(0, expression.calculate(context).intValue(), mode.name());
+        }
+        assertEquals(3, new Expression("round(2.5) + floor(-1.5) + ceil(1.2)").calculate().intValue());
+        assertEquals(3.0, new Expression("sqrt(a + 2)").calculateDouble(context));
+        assertEquals(-3.0, new Expression("round(-2.5)").calculateDouble(context));
+        assertEquals(-3.0, new Expression("round(a)").toFunction().applyAsDouble(new double[] {-2.5}));
+        assertEquals(7, new Expression("max(min(a, 10), abs(c))").calculate(context).intValue());
+        Expression expression = new Expression("sqrt(-1)", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertTrue(Double.isNaN(expression.calculate().doubleValue()));
+        assertThrows(ArithmeticException.class, () -> new Expression("sqrt(c)").calculate(context));
+
+        AtomicInteger calls = new AtomicInteger();
+        FunctionRegistry registry = new FunctionRegistry()
+                .register(MathFunction.of("count", 0, 0, arguments -> calls.incrementAndGet()))
+                .register(MathFunction.of("sum", 1, MathFunction.VARIADIC, arguments -> {
+                    double sum = 0;
+                    for (double argument : arguments) {
+                        sum += argument;
+                    }
+                    return sum;
+                }));
+        expression = new Expression(
+                "a > 5 ? sum(a, c, 1) : count()", Arrays.asList(Operator.values()), NumericMode.DOUBLE, registry);
+        assertEquals(5.0, expression.calculateDouble(context));
+        assertEquals(5.0, expression.toFunction().applyAsDouble(new double[] {7, -3}));
+        assertEquals(0, calls.get());
+        assertEquals(1.0, expression.toFunction().applyAsDouble(new double[] {1, -3}));
+        assertEquals(1, calls.get());
+        assertTrue(expression.explain().contains("JUMP"));
+
+        expression = new Expression("(0 / 0) ? 1 : 2", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertEquals(2.0, expression.calculate().doubleValue());
+        assertEquals(2.0, expression.toFunction().applyAsDouble(new double[0]));
+        expression = new Expression("b / b ? 1 : 2", Arrays.asList(Operator.values()), NumericMode.DOUBLE);
+        assertEquals(2.0, expression.calculateDouble(context));
+        assertEquals(2.0, expression.toFunction().applyAsDouble(new double[] {0}));
+
+        expression = new Expression("a > 5 ? 1 : a > 0 ? 2 : 3");
+        ExpressionFunction function = expression.toFunction();
+        assertEquals(1.0, function.applyAsDouble(new double[] {7}));
+        assertEquals(2.0, function.applyAsDouble(new double[] {3}));
+        assertEquals(3.0, function.applyAsDouble(new double[] {-1}));
+        double[] out = new double[3];
+        expression.evaluateBatch(new double[][] {{7, 3, -1}}, out);
+        assertArrayEquals(new double[] {1, 2, 3}, out);
+        for (NumericMode mode : NumericMode.values()) {
+            expression = new Expression("a > 0 ? a > 5 ? 1 : 2 : 3", Arrays.asList(Operator.values()), mode);
+            assertEquals(1, expression.calculate(context).intValue(), mode.name());
+        }
+        function = expression.toFunction();
+        assertEquals(1.0, function.applyAsDouble(new double[] {7}));
+        assertEquals(2.0, function.applyAsDouble(new double[] {3}));
+        assertEquals(3.0, function.applyAsDouble(new double[] {-1}));
+        assertEquals(3.0, new Expression("0 ? 1 ? 2 : 4 : 3").calculateDouble(context));
+
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("unknown(a)").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("clamp(a, 1)").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("a ? b").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("a : b").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("a ? b : c : d").compile());
+        assertThrows(ExpressionSyntaxException.class, () -> new Expression("a, b").compile());
+    }
+
+    @Test
+    public void testFormulaGraph() {
+        assertEquals(Arrays.asList("b", "a", "c"), new Expression("b * a + b - max(c, 2)").getVariables());
+        Map<String, Expression> formulas = new LinkedHashMap<>();
+        formulas.put("damage", new Expression("attack * (1 + critical)"));
+        formulas.put("attack", new Expression("strength * 2 + weapon"));
+        formulas.put("defense", new Expression("armor + 1"));
+        formulas.put("score", new Expression("damage + defense"));
+        FormulaGraph graph = new FormulaGraph(formulas);
+        assertEquals(Arrays.asList("critical", "strength", "weapon", "armor"), graph.getInputs());
+        assertEquals(Arrays.asList("attack", "defense", "damage", "score"), graph.getFormulas());
+        assertThrows(ExpressionException.class, () -> graph.get("score"));
+        graph.set("strength", 10);
+        graph.set("weapon", 5);
+        graph.set("critical", 0.5);
+        graph.set("armor", 3);
+        assertEquals(4, graph.recompute());
+        assertEquals(0, new BigDecimal("41.5").compareTo((BigDecimal) graph.get("score")));
+        graph.set("armor", 7);
+        assertEquals(2, graph.recompute());
+        assertEquals(0, new BigDecimal("45.5").compareTo((BigDecimal) graph.get("score")));
+        graph.set("armor", 7);
+        assertEquals(0, graph.recompute());
+        graph.set("strength", 11);
+        assertEquals(0, new BigDecimal("40.5").compareTo((BigDecimal) graph.get("damage")));
+        assertEquals(0, graph.recompute());
+        assertThrows(IllegalArgumentException.class, () -> graph.set("damage", 1));
+
+        formulas.put("critical", new Expression("score / 100"));
+        IllegalArgumentException e =
+                assertThrows(IllegalArgumentException.class, () -> new FormulaGraph(formulas));
+        assertTrue(e.getMessage().contains("critical"), e.getMessage());
+    }
+
+    @Test
+    public void testEvaluationContext() {
+        Map<String, Number> context = new HashMap<>();
+        context.put("a", 7);
+        context.put("b", 2);
+        EvaluationContext evaluationContext = new EvaluationContext();
+        for (NumericMode mode : NumericMode.values()) {
+            Expression expression =
+                    new Expression("max(a, b) * (a > b ? a - b : b) + a % b", Arrays.asList(Operator.values()), mode);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expression.calculate(context), expression.calculate(context, evaluationContext));
+            }
+        }
+        assertEquals(48.0, new Expression("(a + b) * (a - b) + (a * b) - a - b - b")
+                .calculateDouble(context, evaluationContext));
+
+        Expression inner = new Expression("a * b");
+        FunctionRegistry registry = new FunctionRegistry()
+                .register(MathFunction.of("inner", 0, 0, arguments -> inner.calculateDouble(context)))
+                .register(MathFunction.of(
+                        "shared", 0, 0, arguments -> inner.calculateDouble(context, evaluationContext)));
+        Expression outer =
+                new Expression("a + inner()", Arrays.asList(Operator.values()), NumericMode.DOUBLE, registry);
+        assertEquals(21.0, outer.calculateDouble(context));
+        assertEquals(21.0, outer.calculateDouble(context, evaluationContext));
+        Expression shared =
+                new Expression("a + shared()", Arrays.asList(Operator.values()), NumericMode.DOUBLE, registry);
+        assertEquals(21.0, shared.calculateDouble(context));
+        assertThrows(IllegalStateException.class, () -> shared.calculateDouble(context, evaluationContext));
+        assertEquals(14L, inner.calculateLong(context, evaluationContext));
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.context.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Proxy;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.context.Bean;
+import team.idealstate.sugar.next.context.Context;
+import team.idealstate.sugar.next.context.annotation.component.Component;
+import team.idealstate.sugar.next.context.exception.ContextException;
+import team.idealstate.sugar.next.context.factory.ComponentBeanFactory;
+import team.idealstate.sugar.next.database.TransactionManager;
+import team.idealstate.sugar.next.database.annotation.Transaction;
+import team.idealstate.sugar.next.database.test.InMemoryDatabaseSessionFactory;
+import team.idealstate.sugar.next.database.test.InMemoryDatabaseSessionFactory.KeyValueRepository;
+import team.idealstate.sugar.next.proxy.Proxied;
+import team.idealstate.sugar.next.proxy.exception.ProxyException;
+
+public class ComponentBeanFactoryTest {
+
+    @Test
+    public void test() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        TransactionManager transactionManager = TransactionManager.of(databaseSessionFactory);
+        Context context = contextOf(transactionManager);
+        ComponentBeanFactory beanFactory = new ComponentBeanFactory();
+        Component metadata = Service.class.getAnnotation(Component.class);
+
+        Service service = new Service(transactionManager);
+        Service proxy = beanFactory.proxy(context, "service", metadata, service, Service.class);
+        assertInstanceOf(Proxied.class, proxy);
+        proxy.put("a", "1");
+        assertEquals("1", databaseSessionFactory.getTable().get("a"));
+        assertEquals(1, databaseSessionFactory.getCommitted().get());
+        assertThrows(IllegalStateException.class, () -> proxy.fail("b"));
+        assertNull(databaseSessionFactory.getTable().get("b"));
+        assertEquals(1, databaseSessionFactory.getRolledBack().get());
+        assertEquals(2, service.calls);
+
+        Plain plain = new Plain();
+        assertSame(plain, beanFactory.proxy(context, "plain", metadata, plain, Plain.class));
+
+        ContextException exception = assertThrows(
+                ContextException.class,
+                () -> beanFactory.proxy(context, "sealed", metadata, new Sealed(), Sealed.class));
+        assertInstanceOf(ProxyException.class, exception.getCause());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Context contextOf(TransactionManager transactionManager) {
+        Bean<TransactionManager> bean = (Bean<TransactionManager>) Proxy.newProxyInstance(
+                Bean.class.getClassLoader(),
+                new Class<?>[] {Bean.class},
+                (proxy, method, args) -> "getInstance".equals(method.getName()) ? transactionManager : null);
+        return (Context) Proxy.newProxyInstance(
+                Context.class.getClassLoader(),
+                new Class<?>[] {Context.class},
+                (proxy, method, args) -> "getBean".equals(method.getName())
+                                && args.length == 1
+                                && args[0] == TransactionManager.class
+                        ? bean
+                        : null);
+    }
+
+    @Component
+    public static class Service {
+        private final TransactionManager transactionManager;
+        int calls = 0;
+
+        public Service(TransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        @Transaction
+        public void put(String key, String value) {
+            repository().put(key, value);
+        }
+
+        @Transaction
+        public void fail(String key) {
+            repository().put(key, "1");
+            throw new IllegalStateException();
+        }
+
+        protected KeyValueRepository repository() {
+            calls++;
+            return transactionManager.getRepository(KeyValueRepository.class);
+        }
+    }
+
+    @Component
+    public static class Plain {
+
+        public void run() {}
+    }
+
+    @Component
+    public static class Sealed {
+
+        @Transaction
+        public final void run() {}
+    }
+}
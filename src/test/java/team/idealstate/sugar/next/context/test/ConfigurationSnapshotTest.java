@@ -0,0 +1,86 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.context.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import team.idealstate.sugar.next.context.factory.ConfigurationSnapshot;
+
+public class ConfigurationSnapshotTest {
+
+    @Test
+    public void test(@TempDir Path directory) throws IOException {
+        File source = directory.resolve("config.yml").toFile();
+        Files.write(source.toPath(), "name: first".getBytes(StandardCharsets.UTF_8));
+        long lastModified = source.lastModified();
+        assertNull(ConfigurationSnapshot.load(source, Config.class));
+
+        ConfigurationSnapshot.store(source, Config.of("first"));
+        File snapshot = ConfigurationSnapshot.snapshotOf(source);
+        assertTrue(snapshot.isFile());
+        assertEquals(Config.of("first"), ConfigurationSnapshot.load(source, Config.class));
+
+        // 仅修改时间变化，内容未变时仍命中
+        assertTrue(source.setLastModified(lastModified + 10_000));
+        assertEquals(Config.of("first"), ConfigurationSnapshot.load(source, Config.class));
+
+        // 长度不变而内容变化时由 CRC32 发现
+        Files.write(source.toPath(), "name: other".getBytes(StandardCharsets.UTF_8));
+        assertTrue(source.setLastModified(lastModified + 20_000));
+        assertNull(ConfigurationSnapshot.load(source, Config.class));
+
+        ConfigurationSnapshot.store(source, Config.of("other"));
+        assertEquals(Config.of("other"), ConfigurationSnapshot.load(source, Config.class));
+        Files.write(source.toPath(), "name: changed".getBytes(StandardCharsets.UTF_8));
+        assertNull(ConfigurationSnapshot.load(source, Config.class));
+
+        ConfigurationSnapshot.store(source, Config.of("changed"));
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            // 损坏快照头之后的数据
+            file.seek(file.length() - 6);
+            file.write(new byte[] {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 0});
+        }
+        assertNull(ConfigurationSnapshot.load(source, Config.class));
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        assertNull(ConfigurationSnapshot.load(source, Config.class));
+        assertNull(ConfigurationSnapshot.load(source, String.class));
+    }
+
+    @Data
+    public static class Config {
+        private String name;
+        private int[] values;
+
+        public static Config of(String name) {
+            Config config = new Config();
+            config.name = name;
+            config.values = new int[] {1, 2, 3};
+            return config;
+        }
+    }
+}
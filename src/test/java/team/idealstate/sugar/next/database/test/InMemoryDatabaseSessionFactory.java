@@ -0,0 +1,129 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import team.idealstate.sugar.next.database.DatabaseSession;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+import team.idealstate.sugar.next.database.exception.DatabaseException;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+/** 不依赖任何数据库的 {@link DatabaseSessionFactory}，用于离线测试与基准测试 */
+@Getter
+public class InMemoryDatabaseSessionFactory implements DatabaseSessionFactory {
+
+    private final Map<String, String> table = new ConcurrentHashMap<>();
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+    private final AtomicInteger committed = new AtomicInteger();
+    private final AtomicInteger rolledBack = new AtomicInteger();
+    private final AtomicInteger batches = new AtomicInteger();
+    private final AtomicInteger statements = new AtomicInteger();
+
+    @NotNull
+    @Override
+    public DatabaseSession openSession(int executionMode, int isolationLevel) {
+        opened.incrementAndGet();
+        return new InMemoryDatabaseSession(executionMode == BATCH_EXECUTION_MODE);
+    }
+
+    public interface KeyValueRepository {
+
+        String get(@NotNull String key);
+
+        void put(@NotNull String key, String value);
+    }
+
+    private final class InMemoryDatabaseSession implements DatabaseSession, KeyValueRepository {
+
+        private final boolean batch;
+        private final Map<String, String> pending = new HashMap<>();
+        private final List<String> batched = new ArrayList<>();
+        private boolean closed = false;
+
+        private InMemoryDatabaseSession(boolean batch) {
+            this.batch = batch;
+        }
+
+        @NotNull
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getRepository(@NotNull Class<T> repositoryType) {
+            if (repositoryType != KeyValueRepository.class) {
+                throw new DatabaseException(String.format("Unknown repository '%s'.", repositoryType.getName()));
+            }
+            return (T) this;
+        }
+
+        @Override
+        public String get(@NotNull String key) {
+            return pending.containsKey(key) ? pending.get(key) : table.get(key);
+        }
+
+        @Override
+        public void put(@NotNull String key, String value) {
+            ensureOpen();
+            pending.put(key, value);
+            if (batch) {
+                batched.add(key);
+            } else {
+                statements.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void commit() {
+            ensureOpen();
+            if (!batched.isEmpty()) {
+                batches.incrementAndGet();
+                statements.addAndGet(batched.size());
+                batched.clear();
+            }
+            table.putAll(pending);
+            pending.clear();
+            committed.incrementAndGet();
+        }
+
+        @Override
+        public void rollback() {
+            ensureOpen();
+            batched.clear();
+            pending.clear();
+            rolledBack.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                InMemoryDatabaseSessionFactory.this.closed.incrementAndGet();
+            }
+        }
+
+        private void ensureOpen() {
+            if (closed) {
+                throw new DatabaseException("Session is closed.");
+            }
+        }
+    }
+}
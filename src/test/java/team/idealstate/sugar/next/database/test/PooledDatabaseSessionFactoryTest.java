@@ -0,0 +1,134 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.database.DatabaseSession;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+import team.idealstate.sugar.next.database.DatabaseSessionPoolMetrics;
+import team.idealstate.sugar.next.database.PooledDatabaseSessionFactory;
+import team.idealstate.sugar.next.database.exception.DatabaseException;
+import team.idealstate.sugar.next.database.test.InMemoryDatabaseSessionFactory.KeyValueRepository;
+import team.idealstate.sugar.validate.annotation.NotNull;
+
+public class PooledDatabaseSessionFactoryTest {
+
+    @Test
+    public void test() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        PooledDatabaseSessionFactory pooled =
+                new PooledDatabaseSessionFactory(databaseSessionFactory, 2, 10, TimeUnit.MILLISECONDS, null);
+        DatabaseSessionPoolMetrics metrics = pooled.getMetrics();
+        pooled.prewarm(
+                DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL, 2);
+        assertEquals(2, databaseSessionFactory.getOpened().get());
+        assertEquals(2, metrics.getIdle());
+
+        DatabaseSession first = pooled.openSession();
+        DatabaseSession second = pooled.openSession();
+        assertEquals(2, databaseSessionFactory.getOpened().get());
+        assertEquals(2, metrics.getActive());
+        assertEquals(0, metrics.getIdle());
+        assertThrows(DatabaseException.class, pooled::openSession);
+        assertEquals(1, metrics.getTimeouts());
+
+        first.close();
+        first.close();
+        assertThrows(DatabaseException.class, first::commit);
+        assertEquals(1, metrics.getActive());
+        assertEquals(1, metrics.getIdle());
+        DatabaseSession third = pooled.openSession();
+        assertEquals(2, databaseSessionFactory.getOpened().get());
+        third.close();
+        second.close();
+        assertEquals(0, metrics.getActive());
+        assertEquals(0, databaseSessionFactory.getClosed().get());
+        assertTrue(metrics.getWaitTimePercentile(99) >= metrics.getWaitTimePercentile(50));
+
+        pooled.close();
+        assertEquals(2, databaseSessionFactory.getClosed().get());
+    }
+
+    @Test
+    public void testReset() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        PooledDatabaseSessionFactory pooled = new PooledDatabaseSessionFactory(databaseSessionFactory, 1);
+        DatabaseSession first = pooled.openSession();
+        first.getRepository(KeyValueRepository.class).put("a", "1");
+        first.close();
+        assertEquals(1, databaseSessionFactory.getRolledBack().get());
+        DatabaseSession second = pooled.openSession();
+        assertNull(second.getRepository(KeyValueRepository.class).get("a"));
+        second.close();
+        assertEquals(1, databaseSessionFactory.getOpened().get());
+
+        AtomicInteger closed = new AtomicInteger();
+        PooledDatabaseSessionFactory broken = new PooledDatabaseSessionFactory(
+                (executionMode, isolationLevel) -> new DatabaseSession() {
+                    @NotNull
+                    @Override
+                    public <T> T getRepository(@NotNull Class<T> repositoryType) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public void commit() {}
+
+                    @Override
+                    public void rollback() {
+                        throw new IllegalStateException();
+                    }
+
+                    @Override
+                    public void close() {
+                        closed.incrementAndGet();
+                    }
+                },
+                1);
+        broken.openSession().close();
+        assertEquals(1, closed.get());
+        assertEquals(0, broken.getMetrics().getIdle());
+        assertEquals(1, broken.getMetrics().getEvictions());
+        assertEquals(0, broken.getMetrics().getActive());
+    }
+
+    @Test
+    public void testValidateIdle() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        Set<DatabaseSession> validated = Collections.newSetFromMap(new IdentityHashMap<>());
+        PooledDatabaseSessionFactory pooled =
+                new PooledDatabaseSessionFactory(databaseSessionFactory, 3, 10, TimeUnit.MILLISECONDS, validated::add);
+        pooled.prewarm(
+                DatabaseSessionFactory.DEFAULT_EXECUTION_MODE, DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL, 3);
+        pooled.validateIdle();
+        assertEquals(3, validated.size());
+        assertEquals(3, pooled.getMetrics().getIdle());
+
+        validated.clear();
+        pooled.close();
+        pooled.validateIdle();
+        assertEquals(0, pooled.getMetrics().getIdle());
+        assertEquals(3, databaseSessionFactory.getClosed().get());
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.database.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.database.DatabaseSessionFactory;
+import team.idealstate.sugar.next.database.TransactionInterceptor;
+import team.idealstate.sugar.next.database.TransactionManager;
+import team.idealstate.sugar.next.database.TransactionSession;
+import team.idealstate.sugar.next.database.annotation.Transaction;
+import team.idealstate.sugar.next.database.test.InMemoryDatabaseSessionFactory.KeyValueRepository;
+import team.idealstate.sugar.next.proxy.ProxyFactory;
+
+public class TransactionTest {
+
+    @Test
+    public void test() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        TransactionManager transactionManager = TransactionManager.of(databaseSessionFactory);
+        Service service = ProxyFactory.instance().proxy(new Service(transactionManager), method -> {
+            Transaction transaction = method.getAnnotation(Transaction.class);
+            if (transaction == null) {
+                return null;
+            }
+            return Collections.singletonList(new TransactionInterceptor(
+                    () -> transactionManager,
+                    transaction.batch() ? DatabaseSessionFactory.BATCH_EXECUTION_MODE : transaction.executionMode(),
+                    transaction.isolationLevel()));
+        });
+        service.setSelf(service);
+
+        service.outer("a", "1");
+        assertEquals("1", databaseSessionFactory.getTable().get("a"));
+        assertEquals("1", databaseSessionFactory.getTable().get("a.inner"));
+        assertEquals(1, databaseSessionFactory.getOpened().get());
+        assertEquals(1, databaseSessionFactory.getCommitted().get());
+        assertEquals(1, databaseSessionFactory.getClosed().get());
+
+        assertThrows(IllegalStateException.class, () -> service.failing("b"));
+        assertNull(databaseSessionFactory.getTable().get("b"));
+        assertEquals(1, databaseSessionFactory.getRolledBack().get());
+        assertEquals(2, databaseSessionFactory.getClosed().get());
+
+        service.batch(5);
+        assertEquals(1, databaseSessionFactory.getBatches().get());
+        assertEquals("4", databaseSessionFactory.getTable().get("batch.4"));
+        assertEquals(3, databaseSessionFactory.getClosed().get());
+    }
+
+    @Test
+    public void testSubmit() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        TransactionManager transactionManager = TransactionManager.of(databaseSessionFactory, Runnable::run);
+        String value = transactionManager
+                .submit(
+                        DatabaseSessionFactory.DEFAULT_EXECUTION_MODE,
+                        DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL,
+                        session -> {
+                            session.getRepository(KeyValueRepository.class).put("async", "1");
+                            return "done";
+                        })
+                .join();
+        assertEquals("done", value);
+        assertEquals("1", databaseSessionFactory.getTable().get("async"));
+
+        CompletableFuture<Object> failed = TransactionManager.of(databaseSessionFactory)
+                .submit(
+                        DatabaseSessionFactory.DEFAULT_EXECUTION_MODE,
+                        DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL,
+                        session -> {
+                            session.getRepository(KeyValueRepository.class).put("failed", "1");
+                            throw new IllegalStateException();
+                        },
+                        Runnable::run);
+        CompletionException exception = assertThrows(CompletionException.class, failed::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertNull(databaseSessionFactory.getTable().get("failed"));
+        assertEquals(1, databaseSessionFactory.getRolledBack().get());
+        assertEquals(2, databaseSessionFactory.getClosed().get());
+
+        TransactionSession outer = transactionManager.openTransaction().open();
+        transactionManager
+                .submit(
+                        DatabaseSessionFactory.DEFAULT_EXECUTION_MODE,
+                        DatabaseSessionFactory.DEFAULT_ISOLATION_LEVEL,
+                        session -> {
+                            assertNotSame(outer, session);
+                            session.getRepository(KeyValueRepository.class).put("nested", "1");
+                            return null;
+                        })
+                .join();
+        assertEquals("1", databaseSessionFactory.getTable().get("nested"));
+        assertSame(outer, transactionManager.openTransaction());
+        outer.close();
+        assertEquals(4, databaseSessionFactory.getClosed().get());
+    }
+
+    public static class Service {
+        private final TransactionManager transactionManager;
+
+        public Service(TransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        private Service self;
+
+        public void setSelf(Service self) {
+            this.self = self;
+        }
+
+        @Transaction
+        public void outer(String key, String value) {
+            transactionManager.getRepository(KeyValueRepository.class).put(key, value);
+            self.inner(key + ".inner", value);
+        }
+
+        @Transaction
+        public void inner(String key, String value) {
+            transactionManager.getRepository(KeyValueRepository.class).put(key, value);
+        }
+
+        @Transaction
+        public void failing(String key) {
+            transactionManager.getRepository(KeyValueRepository.class).put(key, key);
+            throw new IllegalStateException();
+        }
+
+        @Transaction(batch = true)
+        public void batch(int count) {
+            KeyValueRepository repository = transactionManager.getRepository(KeyValueRepository.class);
+            for (int i = 0; i < count; i++) {
+                repository.put("batch." + i, String.valueOf(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.databind.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import team.idealstate.sugar.next.databind.codec.binary.BinaryCodec;
+import team.idealstate.sugar.next.databind.codec.exception.CodecException;
+
+public class BinaryCodecTest {
+
+    @Test
+    public void testRoundTrip(@TempDir Path directory) {
+        Settings settings = Settings.sample();
+        BinaryCodec codec = BinaryCodec.INSTANCE;
+        assertEquals(settings, codec.deserialize(codec.serialize(settings), Settings.class));
+
+        StringWriter writer = new StringWriter();
+        codec.serialize(settings, writer);
+        assertEquals(settings, codec.deserialize(new StringReader(writer.toString()), Settings.class));
+
+        File file = directory.resolve("settings.bin").toFile();
+        codec.serialize(settings, file);
+        assertEquals(settings, codec.deserialize(file, Settings.class));
+
+        assertNull(codec.deserialize(codec.serialize(null), Settings.class));
+        assertEquals("text", codec.deserialize(codec.serialize("text"), String.class));
+        assertEquals(42, codec.deserialize(codec.serialize(42), int.class));
+        assertThrows(CodecException.class, () -> codec.deserialize(codec.serialize("text"), Integer.class));
+    }
+
+    @Test
+    public void testTrustedTypes() {
+        Holder holder = new Holder();
+        holder.value = Nested.of("nested", 1);
+        byte[] data = BinaryCodec.INSTANCE.serialize(holder);
+        CodecException e =
+                assertThrows(CodecException.class, () -> BinaryCodec.INSTANCE.deserialize(data, Holder.class));
+        assertTrue(e.getMessage().contains(Nested.class.getName()), e.getMessage());
+        assertEquals(holder, new BinaryCodec(Nested.class).deserialize(data, Holder.class));
+    }
+
+    @Test
+    public void testCorruptData() throws IOException {
+        byte[] huge = header(10, Integer.MAX_VALUE);
+        assertThrows(CodecException.class, () -> BinaryCodec.INSTANCE.deserialize(huge, String.class));
+        byte[] overflow = header(10, 1 << 20);
+        assertThrows(CodecException.class, () -> BinaryCodec.INSTANCE.deserialize(overflow, String.class));
+        byte[] invalid = {1, 2, 3};
+        assertThrows(CodecException.class, () -> BinaryCodec.INSTANCE.deserialize(invalid, Settings.class));
+
+        byte[] data = BinaryCodec.INSTANCE.serialize(Settings.sample());
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(CodecException.class, () -> BinaryCodec.INSTANCE.deserialize(truncated, Settings.class));
+        }
+        Random random = new Random(0);
+        for (int i = 0; i < 2000; i++) {
+            byte[] corrupted = data.clone();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                corrupted[4 + random.nextInt(corrupted.length - 4)] = (byte) random.nextInt();
+            }
+            try {
+                BinaryCodec.INSTANCE.deserialize(corrupted, Settings.class);
+            } catch (CodecException ignored) {
+                // 损坏的数据只允许以 CodecException 失败
+            }
+        }
+    }
+
+    /** 魔数、标签与长度 */
+    private static byte[] header(int tag, long length) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(0x53424E31);
+        output.writeByte(tag);
+        while ((length & ~0x7FL) != 0) {
+            output.writeByte((int) ((length & 0x7F) | 0x80));
+            length >>>= 7;
+        }
+        output.writeByte((int) length);
+        return bytes.toByteArray();
+    }
+
+    public enum Mode {
+        FAST,
+        SAFE
+    }
+
+    @Data
+    public static class Nested {
+        private String name;
+        private int weight;
+
+        public static Nested of(String name, int weight) {
+            Nested nested = new Nested();
+            nested.name = name;
+            nested.weight = weight;
+            return nested;
+        }
+    }
+
+    @Data
+    public static class Holder {
+        private Object value;
+    }
+
+    @Data
+    public static class Settings {
+        private boolean enabled;
+        private byte level;
+        private char symbol;
+        private long timeout;
+        private double ratio;
+        private String title;
+        private String missing;
+        private BigInteger big;
+        private BigDecimal price;
+        private Mode mode;
+        private int[] ports;
+        private String[] tags;
+        private Nested primary;
+        private List<Nested> nested;
+        private Map<String, Integer> limits;
+        private Set<Mode> modes;
+
+        public static Settings sample() {
+            Settings settings = new Settings();
+            settings.enabled = true;
+            settings.level = -3;
+            settings.symbol = '#';
+            settings.timeout = -1L << 40;
+            settings.ratio = 0.75;
+            settings.title = "配置";
+            settings.big = BigInteger.TEN.pow(30);
+            settings.price = new BigDecimal("-12.345");
+            settings.mode = Mode.SAFE;
+            settings.ports = new int[] {80, 443};
+            settings.tags = new String[] {"a", null, "c"};
+            settings.primary = Nested.of("primary", 0);
+            settings.nested = new ArrayList<>(Arrays.asList(Nested.of("x", 1), Nested.of("y", 2)));
+            settings.limits = new LinkedHashMap<>();
+            settings.limits.put("max", 10);
+            settings.modes = new LinkedHashSet<>(Arrays.asList(Mode.FAST, Mode.SAFE));
+            return settings;
+        }
+    }
+}
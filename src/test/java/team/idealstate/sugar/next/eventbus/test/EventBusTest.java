@@ -0,0 +1,522 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.eventbus.BatchEventSubscriber;
+import team.idealstate.sugar.next.eventbus.Cancelable;
+import team.idealstate.sugar.next.eventbus.Delivery;
+import team.idealstate.sugar.next.eventbus.DeliveryMode;
+import team.idealstate.sugar.next.eventbus.Event;
+import team.idealstate.sugar.next.eventbus.EventBridge;
+import team.idealstate.sugar.next.eventbus.EventBus;
+import team.idealstate.sugar.next.eventbus.EventMetrics;
+import team.idealstate.sugar.next.eventbus.EventMetricsSnapshot;
+import team.idealstate.sugar.next.eventbus.EventState;
+import team.idealstate.sugar.next.eventbus.EventStatistics;
+import team.idealstate.sugar.next.eventbus.EventSubscriber;
+import team.idealstate.sugar.next.eventbus.Order;
+import team.idealstate.sugar.next.eventbus.Subscription;
+
+public class EventBusTest {
+
+    @Test
+    public void test() {
+        EventBus eventBus = EventBus.instance();
+        List<String> received = new ArrayList<>();
+        EventSubscriber<BaseEvent> base = new OrderedSubscriber<>("base", 0, received);
+        EventSubscriber<MarkerEvent> marker = new OrderedSubscriber<>("marker", Order.FIRST, received);
+        EventSubscriber<ChildEvent> child = new OrderedSubscriber<>("child", 0, received);
+        EventSubscriber<ChildEvent> last = event -> received.add("last");
+        assertTrue(eventBus.subscribe(ChildEvent.class, last));
+        assertTrue(eventBus.subscribe(BaseEvent.class, base));
+        assertTrue(eventBus.subscribe(MarkerEvent.class, marker));
+        assertTrue(eventBus.subscribe(ChildEvent.class, child));
+        assertFalse(eventBus.subscribe(ChildEvent.class, child));
+
+        assertEquals(EventState.SUCCESS, eventBus.publish(new ChildEvent()));
+        assertEquals(Arrays.asList("marker", "base", "child", "last"), received);
+        received.clear();
+        assertEquals(EventState.SUCCESS, eventBus.publish(new BaseEvent()));
+        assertEquals(Arrays.asList("base"), received);
+
+        received.clear();
+        assertTrue(eventBus.unsubscribe(base));
+        assertFalse(eventBus.unsubscribe(base));
+        eventBus.publish(new ChildEvent());
+        assertEquals(Arrays.asList("marker", "child", "last"), received);
+        eventBus.unsubscribe(marker);
+        eventBus.unsubscribe(child);
+        eventBus.unsubscribe(last);
+    }
+
+    @Test
+    public void testCircular() {
+        EventBus eventBus = EventBus.instance();
+        List<EventState> states = new ArrayList<>();
+        EventSubscriber<CircularEvent> subscriber = event -> states.add(eventBus.publish(event));
+        eventBus.subscribe(CircularEvent.class, subscriber);
+        assertEquals(EventState.SUCCESS, eventBus.publish(new CircularEvent()));
+        assertEquals(Arrays.asList(EventState.FAILURE), states);
+        eventBus.unsubscribe(subscriber);
+    }
+
+    @Test
+    public void testDelivery() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EventBus eventBus = EventBus.of(executor);
+            Thread caller = Thread.currentThread();
+            CountDownLatch parallel = new CountDownLatch(2);
+            CountDownLatch async = new CountDownLatch(1);
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            EventSubscriber<BaseEvent> first = new DeliverySubscriber<>(DeliveryMode.PARALLEL, event -> {
+                parallel.countDown();
+                assertTrue(parallel.await(5, TimeUnit.SECONDS));
+            });
+            EventSubscriber<BaseEvent> second = new DeliverySubscriber<>(DeliveryMode.PARALLEL, event -> {
+                parallel.countDown();
+                assertTrue(parallel.await(5, TimeUnit.SECONDS));
+            });
+            EventSubscriber<BaseEvent> background = new DeliverySubscriber<>(DeliveryMode.ASYNC, event -> {
+                threads.add(Thread.currentThread());
+                async.countDown();
+            });
+            eventBus.subscribe(BaseEvent.class, first);
+            eventBus.subscribe(BaseEvent.class, second);
+            eventBus.subscribe(BaseEvent.class, background);
+            assertEquals(EventState.SUCCESS, eventBus.publish(new BaseEvent()));
+            assertTrue(async.await(5, TimeUnit.SECONDS));
+            assertNotSame(caller, threads.get(0));
+
+            EventSubscriber<BaseEvent> failing = new DeliverySubscriber<>(DeliveryMode.PARALLEL, event -> {
+                throw new IllegalStateException("failing");
+            });
+            eventBus.subscribe(BaseEvent.class, failing);
+            assertEquals(
+                    EventState.FAILURE,
+                    eventBus.publishAsync(new BaseEvent())
+                            .toCompletableFuture()
+                            .get(5, TimeUnit.SECONDS));
+
+            List<String> received = new ArrayList<>();
+            eventBus.subscribe(CancelableEvent.class, new DeliverySubscriber<>(DeliveryMode.PARALLEL, event -> {
+                assertSame(caller, Thread.currentThread());
+                received.add("first");
+                event.cancel();
+            }));
+            eventBus.subscribe(CancelableEvent.class, new DeliverySubscriber<>(DeliveryMode.ASYNC, event -> {
+                received.add("second");
+            }));
+            assertEquals(
+                    EventState.CANCELLED,
+                    eventBus.publishAsync(new CancelableEvent())
+                            .toCompletableFuture()
+                            .get(5, TimeUnit.SECONDS));
+            assertEquals(Arrays.asList("first"), received);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        EventBus eventBus = EventBus.instance();
+        List<Integer> batchSizes = new ArrayList<>();
+        List<String> received = new ArrayList<>();
+        BatchEventSubscriber<BaseEvent> batch = events -> batchSizes.add(events.size());
+        BaseEvent failed = new BaseEvent();
+        EventSubscriber<BaseEvent> failing = new OrderedSubscriber<BaseEvent>("failing", Order.FIRST, received) {
+            @Override
+            public void onEvent(BaseEvent event) {
+                if (event == failed) {
+                    throw new IllegalStateException("failing");
+                }
+                super.onEvent(event);
+            }
+        };
+        EventSubscriber<BaseEvent> plain = event -> received.add("plain");
+        List<EventState> circular = new ArrayList<>();
+        EventSubscriber<CircularEvent> republishing = event -> circular.add(eventBus.publish(event));
+        eventBus.subscribe(BaseEvent.class, failing);
+        eventBus.subscribe(BaseEvent.class, batch);
+        eventBus.subscribe(BaseEvent.class, plain);
+        eventBus.subscribe(CircularEvent.class, republishing);
+
+        CancelableEvent cancelled = new CancelableEvent();
+        cancelled.cancel();
+        assertEquals(
+                Arrays.asList(
+                        EventState.SUCCESS,
+                        EventState.FAILURE,
+                        EventState.CANCELLED,
+                        EventState.SUCCESS,
+                        EventState.SUCCESS),
+                eventBus.publishAll(
+                        Arrays.asList(new BaseEvent(), failed, cancelled, new CircularEvent(), new BaseEvent())));
+        assertEquals(Arrays.asList(1, 1), batchSizes);
+        assertEquals(Arrays.asList("failing", "plain", "failing", "plain"), received);
+        assertEquals(Arrays.asList(EventState.FAILURE), circular);
+
+        eventBus.unsubscribe(failing);
+        eventBus.unsubscribe(batch);
+        eventBus.unsubscribe(plain);
+        eventBus.unsubscribe(republishing);
+    }
+
+    @Test
+    public void testBatchOrder() {
+        EventBus eventBus = EventBus.create();
+        List<Event> received = new ArrayList<>();
+        eventBus.subscribe(Event.class, received::add);
+        BaseEvent first = new BaseEvent();
+        ChildEvent second = new ChildEvent();
+        CancelableEvent third = new CancelableEvent();
+        BaseEvent fourth = new BaseEvent();
+        BaseEvent fifth = new BaseEvent();
+        ChildEvent sixth = new ChildEvent();
+        eventBus.publishAll(Arrays.asList(first, second, third, fourth, sixth, fifth));
+        assertEquals(Arrays.asList(first, second, third, fourth, fifth, sixth), received);
+    }
+
+    public interface MarkerEvent extends Event {}
+
+    @Test
+    public void testMetrics() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            EventBus eventBus = EventBus.of(executor);
+            EventSubscriber<BaseEvent> failing = new EventSubscriber<BaseEvent>() {
+                @Override
+                public void onEvent(BaseEvent event) {
+                    throw new IllegalStateException("failing");
+                }
+
+                @Override
+                public String toString() {
+                    return "failing";
+                }
+            };
+            EventSubscriber<CancelableEvent> cancelling = new EventSubscriber<CancelableEvent>() {
+                @Override
+                public void onEvent(CancelableEvent event) {
+                    event.cancel();
+                }
+
+                @Override
+                public String toString() {
+                    return "cancelling";
+                }
+            };
+            eventBus.subscribe(BaseEvent.class, failing);
+            eventBus.subscribe(CancelableEvent.class, cancelling);
+            eventBus.publish(new BaseEvent());
+            assertNull(eventBus.getMetrics());
+
+            EventMetrics metrics = new EventMetrics(1, 1, TimeUnit.NANOSECONDS);
+            eventBus.setMetrics(metrics);
+            assertSame(metrics, eventBus.getMetrics());
+            assertEquals(EventState.FAILURE, eventBus.publish(new BaseEvent()));
+            assertEquals(EventState.CANCELLED, eventBus.publish(new CancelableEvent()));
+            assertEquals(EventState.CANCELLED, eventBus.publish(new CancelableEvent()));
+            eventBus.publishAll(Arrays.asList(new BaseEvent(), new BaseEvent()));
+
+            EventMetricsSnapshot snapshot = metrics.snapshot();
+            EventStatistics base = find(snapshot.getEventTypes(), BaseEvent.class.getName());
+            assertEquals(3, base.getInvocations());
+            assertEquals(3, base.getFailures());
+            assertEquals(3, base.getSamples());
+            assertTrue(base.getTotalNanos() >= base.getMaxNanos());
+            EventStatistics cancellable = find(snapshot.getEventTypes(), CancelableEvent.class.getName());
+            assertEquals(2, cancellable.getInvocations());
+            assertEquals(2, cancellable.getCancellations());
+            EventStatistics failed = find(snapshot.getSubscribers(), "failing");
+            assertEquals(3, failed.getInvocations());
+            assertEquals(3, failed.getFailures());
+            assertEquals(2, find(snapshot.getSubscribers(), "cancelling").getCancellations());
+
+            eventBus.unsubscribe(failing);
+            assertEquals(1, metrics.snapshot().getSubscribers().size());
+            eventBus.setMetrics(null);
+            eventBus.publish(new CancelableEvent());
+            assertEquals(
+                    2,
+                    find(metrics.snapshot().getEventTypes(), CancelableEvent.class.getName())
+                            .getInvocations());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSubscription() throws InterruptedException {
+        EventBus eventBus = EventBus.of(Runnable::run);
+        Object owner = new Object();
+        List<String> received = new ArrayList<>();
+        EventSubscriber<BaseEvent> first = event -> received.add("first");
+        EventSubscriber<MarkerEvent> second = event -> received.add("second");
+        EventSubscriber<BaseEvent> third = event -> received.add("third");
+        Subscription subscription = eventBus.subscribe(owner, BaseEvent.class, first);
+        assertSame(subscription, eventBus.subscribe(owner, BaseEvent.class, first));
+        assertSame(first, subscription.getSubscriber());
+        assertEquals(BaseEvent.class, subscription.getEventType());
+        eventBus.subscribe(owner, MarkerEvent.class, second);
+        eventBus.subscribe(BaseEvent.class, third);
+        eventBus.publish(new ChildEvent());
+        assertEquals(Arrays.asList("first", "second", "third"), received);
+
+        assertTrue(subscription.unsubscribe());
+        assertFalse(subscription.isActive());
+        assertFalse(subscription.unsubscribe());
+        assertEquals(1, eventBus.unsubscribeAll(owner));
+        assertEquals(0, eventBus.unsubscribeAll(owner));
+        received.clear();
+        eventBus.publish(new ChildEvent());
+        assertEquals(Arrays.asList("third"), received);
+
+        EventSubscriber<BaseEvent> weak = event -> received.add("weak");
+        Subscription weakly = eventBus.subscribeWeakly(owner, BaseEvent.class, weak);
+        received.clear();
+        eventBus.publish(new BaseEvent());
+        assertEquals(Arrays.asList("third", "weak"), received);
+        WeakReference<EventSubscriber<BaseEvent>> reference = new WeakReference<>(weak);
+        weak = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+        assertNull(weakly.getSubscriber());
+        eventBus.publish(new BaseEvent());
+        assertFalse(weakly.isActive());
+        assertEquals(0, eventBus.unsubscribeAll(owner));
+    }
+
+    @Test
+    public void testBridge() {
+        EventBus parent = EventBus.create();
+        EventBus child = EventBus.create();
+        List<String> received = new ArrayList<>();
+        parent.subscribe(BaseEvent.class, event -> received.add("parent"));
+        child.subscribe(BaseEvent.class, event -> received.add("child"));
+        EventBridge upward = EventBridge.of(child, parent).forward(ChildEvent.class);
+        EventBridge downward = EventBridge.of(parent, child).forward(BaseEvent.class);
+
+        assertEquals(EventState.SUCCESS, child.publish(new ChildEvent()));
+        assertEquals(Arrays.asList("child", "parent"), received);
+        received.clear();
+        assertEquals(EventState.SUCCESS, child.publish(new BaseEvent()));
+        assertEquals(Arrays.asList("child"), received);
+        received.clear();
+        assertEquals(EventState.SUCCESS, parent.publish(new ChildEvent()));
+        assertEquals(Arrays.asList("parent", "child"), received);
+
+        upward.close();
+        downward.close();
+        received.clear();
+        child.publish(new ChildEvent());
+        parent.publish(new ChildEvent());
+        assertEquals(Arrays.asList("child", "parent"), received);
+    }
+
+    @Test
+    public void testOrderedBridge() {
+        EventBus parent = EventBus.create();
+        EventBus child = EventBus.create();
+        List<String> received = new ArrayList<>();
+        parent.subscribe(BaseEvent.class, new OrderedSubscriber<>("parent-0", 0, received));
+        parent.subscribe(BaseEvent.class, new OrderedSubscriber<>("parent-20", 20, received));
+        parent.subscribe(CancelableEvent.class, new OrderedSubscriber<>("parent-20", 20, received));
+        child.subscribe(BaseEvent.class, new OrderedSubscriber<>("child-10", 10, received));
+        child.subscribe(CancelableEvent.class, new OrderedSubscriber<CancelableEvent>("child-10", 10, received) {
+            @Override
+            public void onEvent(CancelableEvent event) {
+                super.onEvent(event);
+                event.cancel();
+            }
+        });
+        BaseEvent failed = new BaseEvent();
+        child.subscribe(BaseEvent.class, new OrderedSubscriber<BaseEvent>("child-15", 15, received) {
+            @Override
+            public void onEvent(BaseEvent event) {
+                if (event == failed) {
+                    throw new IllegalStateException("failing");
+                }
+            }
+        });
+        EventBridge downward = EventBridge.of(parent, child)
+                .forward(BaseEvent.class, 10)
+                .forward(BaseEvent.class, 15)
+                .forward(CancelableEvent.class, 10);
+        EventBridge upward = EventBridge.of(child, parent).forward(ChildEvent.class);
+
+        assertEquals(EventState.SUCCESS, parent.publish(new BaseEvent()));
+        assertEquals(Arrays.asList("parent-0", "child-10", "parent-20"), received);
+        received.clear();
+        assertEquals(EventState.CANCELLED, parent.publish(new CancelableEvent()));
+        assertEquals(Arrays.asList("child-10"), received);
+        received.clear();
+        assertEquals(EventState.FAILURE, parent.publish(failed));
+        assertEquals(Arrays.asList("parent-0", "child-10"), received);
+        received.clear();
+
+        // 上下文中的组件向其事件总线发布的事件经导出到达外部事件总线的订阅者
+        assertEquals(EventState.SUCCESS, child.publish(new ChildEvent()));
+        assertEquals(Arrays.asList("child-10", "parent-0", "parent-20"), received);
+
+        downward.close();
+        upward.close();
+        received.clear();
+        parent.publish(new ChildEvent());
+        child.publish(new ChildEvent());
+        assertEquals(Arrays.asList("parent-0", "parent-20", "child-10"), received);
+    }
+
+    @Test
+    public void testDefaults() {
+        Set<EventSubscriber<?>> subscribers = new HashSet<>();
+        EventBus eventBus = new EventBus() {
+            @Override
+            public EventState publish(Event event) {
+                return EventState.SUCCESS;
+            }
+
+            @Override
+            public <T extends Event> boolean subscribe(Class<T> eventType, EventSubscriber<T> subscriber) {
+                return subscribers.add(subscriber);
+            }
+
+            @Override
+            public boolean unsubscribe(EventSubscriber<?> subscriber) {
+                return subscribers.remove(subscriber);
+            }
+        };
+        Object owner = new Object();
+        EventSubscriber<BaseEvent> subscriber = event -> {};
+        assertTrue(eventBus.subscribe(BaseEvent.class, subscriber, 0, DeliveryMode.SYNC, true));
+        assertTrue(eventBus.unsubscribe(subscriber));
+        Subscription subscription = eventBus.subscribe(owner, BaseEvent.class, subscriber);
+        assertTrue(subscribers.contains(subscriber));
+        assertSame(subscriber, subscription.getSubscriber());
+        assertEquals(BaseEvent.class, subscription.getEventType());
+        assertTrue(subscription.isActive());
+        assertTrue(subscription.unsubscribe());
+        assertFalse(subscription.unsubscribe());
+        assertFalse(subscription.isActive());
+        assertTrue(subscribers.isEmpty());
+        Subscription weak = eventBus.subscribeWeakly(owner, BaseEvent.class, subscriber);
+        assertTrue(subscribers.contains(subscriber));
+        assertEquals(0, eventBus.unsubscribeAll(owner));
+        assertTrue(weak.unsubscribe());
+        assertTrue(subscribers.isEmpty());
+        Subscription ordered = eventBus.subscribe(owner, BaseEvent.class, subscriber, 0, DeliveryMode.SYNC, true);
+        assertTrue(subscribers.contains(subscriber));
+        assertTrue(ordered.unsubscribe());
+
+        EventBridge bridge = EventBridge.of(eventBus, EventBus.create()).forward(BaseEvent.class);
+        assertEquals(1, subscribers.size());
+        bridge.close();
+        assertTrue(subscribers.isEmpty());
+        assertNull(eventBus.getMetrics());
+        eventBus.setMetrics(null);
+        assertThrows(UnsupportedOperationException.class, () -> eventBus.setMetrics(new EventMetrics()));
+    }
+
+    private static EventStatistics find(List<EventStatistics> statistics, String name) {
+        for (EventStatistics statistic : statistics) {
+            if (statistic.getName().equals(name)) {
+                return statistic;
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    public static class BaseEvent implements Event {}
+
+    public static class ChildEvent extends BaseEvent implements MarkerEvent {}
+
+    public static class CircularEvent implements Event {}
+
+    public static class CancelableEvent implements Event, Cancelable {
+        private volatile boolean cancelled = false;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void cancel() {
+            this.cancelled = true;
+        }
+    }
+
+    private static final class DeliverySubscriber<T extends Event> implements EventSubscriber<T>, Delivery {
+        private final DeliveryMode mode;
+        private final EventSubscriber<T> delegate;
+
+        private DeliverySubscriber(DeliveryMode mode, EventSubscriber<T> delegate) {
+            this.mode = mode;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public DeliveryMode getDeliveryMode() {
+            return mode;
+        }
+
+        @Override
+        public void onEvent(T event) throws Throwable {
+            delegate.onEvent(event);
+        }
+    }
+
+    private static class OrderedSubscriber<T extends Event> implements EventSubscriber<T>, Order {
+        private final String name;
+        private final int order;
+        private final List<String> received;
+
+        private OrderedSubscriber(String name, int order, List<String> received) {
+            this.name = name;
+            this.order = order;
+            this.received = received;
+        }
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public void onEvent(T event) {
+            received.add(name);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.context.annotation.component.Subscriber;
+import team.idealstate.sugar.next.database.TransactionInterceptor;
+import team.idealstate.sugar.next.database.TransactionManager;
+import team.idealstate.sugar.next.database.annotation.Transaction;
+import team.idealstate.sugar.next.database.test.InMemoryDatabaseSessionFactory;
+import team.idealstate.sugar.next.database.test.InMemoryDatabaseSessionFactory.KeyValueRepository;
+import team.idealstate.sugar.next.eventbus.Event;
+import team.idealstate.sugar.next.eventbus.EventBus;
+import team.idealstate.sugar.next.eventbus.EventHandlerBinding;
+import team.idealstate.sugar.next.eventbus.EventState;
+import team.idealstate.sugar.next.eventbus.Order;
+import team.idealstate.sugar.next.eventbus.annotation.EventHandler;
+import team.idealstate.sugar.next.eventbus.test.EventBusTest.BaseEvent;
+import team.idealstate.sugar.next.eventbus.test.EventBusTest.CancelableEvent;
+import team.idealstate.sugar.next.eventbus.test.EventBusTest.ChildEvent;
+import team.idealstate.sugar.next.proxy.Proxied;
+import team.idealstate.sugar.next.proxy.ProxyFactory;
+
+public class EventHandlerBindingTest {
+
+    @Test
+    public void test() {
+        EventBus eventBus = EventBus.instance();
+        Handlers handlers = new Handlers();
+        List<EventHandlerBinding> bindings = EventHandlerBinding.bind(handlers, Handlers.class);
+        assertEquals(5, bindings.size());
+        for (EventHandlerBinding binding : bindings) {
+            assertTrue(binding.getSubscriber().getClass().isSynthetic());
+            assertTrue(binding.subscribe(eventBus));
+        }
+
+        assertEquals(EventState.SUCCESS, eventBus.publish(new BaseEvent()));
+        assertEquals(Arrays.asList("first", "base"), handlers.received);
+        handlers.received.clear();
+        assertEquals(EventState.CANCELLED, eventBus.publish(new CancelableEvent()));
+        assertEquals(Arrays.asList("cancel", "cancelled"), handlers.received);
+
+        for (EventHandlerBinding binding : bindings) {
+            assertTrue(binding.unsubscribe(eventBus));
+        }
+
+        List<EventHandlerBinding> others = EventHandlerBinding.bind(new Handlers(), Handlers.class);
+        assertEquals(bindings.size(), others.size());
+        for (int i = 0; i < bindings.size(); i++) {
+            assertNotSame(bindings.get(i).getSubscriber(), others.get(i).getSubscriber());
+            assertSame(
+                    bindings.get(i).getSubscriber().getClass(),
+                    others.get(i).getSubscriber().getClass());
+        }
+    }
+
+    @Test
+    public void testProxied() {
+        InMemoryDatabaseSessionFactory databaseSessionFactory = new InMemoryDatabaseSessionFactory();
+        TransactionManager transactionManager = TransactionManager.of(databaseSessionFactory);
+        TransactionalHandlers proxy =
+                ProxyFactory.instance().proxy(new TransactionalHandlers(transactionManager), method -> {
+                    Transaction transaction = method.getAnnotation(Transaction.class);
+                    if (transaction == null) {
+                        return null;
+                    }
+                    return Collections.singletonList(new TransactionInterceptor(
+                            () -> transactionManager, transaction.executionMode(), transaction.isolationLevel()));
+                });
+        EventBus eventBus = EventBus.create();
+        for (EventHandlerBinding binding : EventHandlerBinding.bind(proxy, TransactionalHandlers.class)) {
+            binding.subscribe(eventBus);
+        }
+
+        assertEquals(EventState.SUCCESS, eventBus.publish(new ChildEvent()));
+        assertEquals(1, databaseSessionFactory.getCommitted().get());
+        assertEquals("1", databaseSessionFactory.getTable().get("base"));
+        TransactionalHandlers target = (TransactionalHandlers) ((Proxied) proxy).getProxyTarget();
+        assertEquals(Arrays.asList("child", "private"), target.received);
+    }
+
+    @Subscriber
+    public static class TransactionalHandlers {
+        private final TransactionManager transactionManager;
+        private final List<String> received = new ArrayList<>();
+
+        public TransactionalHandlers(TransactionManager transactionManager) {
+            this.transactionManager = transactionManager;
+        }
+
+        @Transaction
+        @EventHandler(order = Order.FIRST)
+        public void onBase(BaseEvent event) {
+            transactionManager.getRepository(KeyValueRepository.class).put("base", "1");
+        }
+
+        @EventHandler
+        void onChild(ChildEvent event) {
+            received.add("child");
+        }
+
+        @EventHandler(order = Order.LAST)
+        private void onPrivate(ChildEvent event) {
+            received.add("private");
+        }
+    }
+
+    public static class BaseHandlers {
+        protected final List<String> received = new ArrayList<>();
+
+        @EventHandler
+        public void onBase(BaseEvent event) {
+            received.add("overridden");
+        }
+
+        @EventHandler(order = Order.FIRST)
+        private void onFirst(BaseEvent event) {
+            received.add("first");
+        }
+    }
+
+    public static class Handlers extends BaseHandlers {
+
+        @Override
+        @EventHandler
+        public void onBase(BaseEvent event) {
+            received.add("base");
+        }
+
+        @EventHandler(order = 0)
+        void onCancel(CancelableEvent event) {
+            received.add("cancel");
+            event.cancel();
+        }
+
+        @EventHandler(order = 1)
+        public void onSkipped(CancelableEvent event) {
+            received.add("skipped");
+        }
+
+        @EventHandler(order = 2, ignoreCancelled = false)
+        public String onCancelled(CancelableEvent event) {
+            received.add("cancelled");
+            return "ignored";
+        }
+
+        public void onIgnored(Event event) {
+            received.add("ignored");
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.eventbus.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.eventbus.BackpressurePolicy;
+import team.idealstate.sugar.next.eventbus.Event;
+import team.idealstate.sugar.next.eventbus.EventBus;
+import team.idealstate.sugar.next.eventbus.EventState;
+import team.idealstate.sugar.next.eventbus.RingBufferEventBus;
+import team.idealstate.sugar.next.eventbus.WaitStrategy;
+
+public class RingBufferEventBusTest {
+
+    @Test
+    public void test() throws Exception {
+        int producers = 4;
+        int events = 10000;
+        AtomicInteger received = new AtomicInteger();
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            received.set(0);
+            try (RingBufferEventBus eventBus = new RingBufferEventBus(64, 2, waitStrategy, BackpressurePolicy.BLOCK)) {
+                eventBus.subscribe(TelemetryEvent.class, event -> received.incrementAndGet());
+                List<Thread> threads = new ArrayList<>(producers);
+                for (int i = 0; i < producers; i++) {
+                    Thread thread = new Thread(() -> {
+                        for (int j = 0; j < events; j++) {
+                            assertEquals(EventState.SUCCESS, eventBus.publish(new TelemetryEvent(j)));
+                        }
+                    });
+                    thread.start();
+                    threads.add(thread);
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+                assertEquals(
+                        EventState.SUCCESS,
+                        eventBus.publishAsync(new TelemetryEvent(-1))
+                                .toCompletableFuture()
+                                .get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(producers * events + 1, received.get());
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        for (BackpressurePolicy policy : new BackpressurePolicy[] {
+            BackpressurePolicy.DROP_NEWEST, BackpressurePolicy.DROP_OLDEST
+        }) {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<Integer> received = new ArrayList<>();
+            RingBufferEventBus eventBus = EventBus.ringBuffer(4, WaitStrategy.PARK, policy);
+            eventBus.subscribe(TelemetryEvent.class, event -> {
+                if (event.value == 0) {
+                    started.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                }
+                received.add(event.value);
+            });
+            eventBus.publish(new TelemetryEvent(0));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i <= 6; i++) {
+                eventBus.publish(new TelemetryEvent(i));
+            }
+            assertEquals(4, eventBus.getDepth());
+            assertEquals(2, eventBus.getDropped());
+            release.countDown();
+            eventBus.close();
+            assertEquals(0, eventBus.getDepth());
+            assertEquals(EventState.FAILURE, eventBus.publish(new TelemetryEvent(7)));
+            if (policy == BackpressurePolicy.DROP_NEWEST) {
+                assertEquals(Arrays.asList(0, 1, 2, 3, 4), received);
+            } else {
+                assertEquals(Arrays.asList(0, 3, 4, 5, 6), received);
+            }
+        }
+    }
+
+    public static class TelemetryEvent implements Event {
+        private final int value;
+
+        public TelemetryEvent(int value) {
+            this.value = value;
+        }
+    }
+}
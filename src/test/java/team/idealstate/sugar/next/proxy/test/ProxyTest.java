@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2025 ideal-state
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package team.idealstate.sugar.next.proxy.test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import team.idealstate.sugar.next.proxy.MethodInterceptor;
+import team.idealstate.sugar.next.proxy.MethodInvocation;
+import team.idealstate.sugar.next.proxy.Proxied;
+import team.idealstate.sugar.next.proxy.ProxyFactory;
+import team.idealstate.sugar.next.proxy.exception.ProxyException;
+
+public class ProxyTest {
+
+    @Test
+    public void test() {
+        Counter counter = new Counter(10);
+        AtomicInteger intercepted = new AtomicInteger();
+        MethodInterceptor interceptor = invocation -> {
+            intercepted.incrementAndGet();
+            Object[] arguments = invocation.getArguments();
+            arguments[0] = (Integer) arguments[0] * 2;
+            return invocation.proceed();
+        };
+        Counter proxy = ProxyFactory.instance()
+                .proxy(
+                        counter,
+                        method -> "add".equals(method.getName()) ? Collections.singletonList(interceptor) : null);
+        assertNotSame(counter, proxy);
+        assertTrue(proxy instanceof Proxied);
+        assertSame(counter, ((Proxied) proxy).getProxyTarget());
+        assertEquals(14, proxy.add(2));
+        assertEquals(1, intercepted.get());
+        assertEquals(14, proxy.get());
+        assertEquals(15, proxy.increment(1L));
+        assertEquals(1, intercepted.get());
+        assertEquals(15, counter.get());
+        assertThrows(IllegalStateException.class, proxy::fail);
+
+        Counter unproxied = ProxyFactory.instance().proxy(counter, method -> null);
+        assertSame(counter, unproxied);
+        assertFalse(ProxyFactory.instance().isProxiable(String.class));
+    }
+
+    @Test
+    public void testNonPublicMembers() {
+        Ledger ledger = new Ledger(5);
+        AtomicInteger intercepted = new AtomicInteger();
+        Ledger proxy = ProxyFactory.instance().proxy(ledger, method -> {
+            if (!"deposit".equals(method.getName())) {
+                return null;
+            }
+            return Collections.singletonList(invocation -> {
+                intercepted.incrementAndGet();
+                return invocation.proceed();
+            });
+        });
+        assertNotSame(ledger, proxy);
+        proxy.deposit(3);
+        assertEquals(1, intercepted.get());
+        assertEquals(8, proxy.balance());
+        assertEquals(8, proxy.describe().length());
+        assertEquals(8, ledger.balance());
+
+        ProxyFactory proxyFactory = ProxyFactory.instance();
+        MethodInterceptor passing = MethodInvocation::proceed;
+        assertTrue(proxyFactory.isProxiable(Sealed.class));
+        Sealed sealed = proxyFactory.proxy(
+                new Sealed(),
+                method -> "next".equals(method.getName()) ? Collections.singletonList(passing) : null);
+        assertEquals(2, sealed.next());
+        assertThrows(
+                ProxyException.class,
+                () -> proxyFactory.proxy(
+                        new Sealed(),
+                        method -> "value".equals(method.getName()) ? Collections.singletonList(passing) : null));
+        assertTrue(proxyFactory.isProxiable(Exposed.class));
+        Exposed exposed = proxyFactory.proxy(new Exposed(), method -> Collections.singletonList(passing));
+        assertNotEquals(Exposed.class, exposed.getClass());
+        assertEquals(1, exposed.value());
+    }
+
+    public static class Ledger {
+        private int balance;
+
+        public Ledger(int balance) {
+            this.balance = balance;
+        }
+
+        int balance() {
+            return balance;
+        }
+
+        protected void deposit(int amount) {
+            balance += amount;
+        }
+
+        String describe() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < balance; i++) {
+                builder.append('$');
+            }
+            return builder.toString();
+        }
+    }
+
+    public static class Sealed {
+        private int value = 1;
+
+        public final int value() {
+            return value;
+        }
+
+        public int next() {
+            return value + 1;
+        }
+    }
+
+    public static class Exposed {
+        int value = 1;
+
+        public int value() {
+            return value;
+        }
+    }
+
+    public static class Counter {
+        private int value;
+
+        public Counter(int value) {
+            this.value = value;
+        }
+
+        public int add(int delta) {
+            return value += delta;
+        }
+
+        public long increment(long delta) {
+            return value += (int) delta;
+        }
+
+        public int get() {
+            return value;
+        }
+
+        public void fail() {
+            throw new IllegalStateException();
+        }
+    }
+}